@@ -0,0 +1,106 @@
+package com.EduConnect.bench;
+
+import com.EduConnect.async.AsyncDAO;
+import com.EduConnect.dao.CourseDAO;
+import com.EduConnect.dao.EnrollmentDAO;
+import com.EduConnect.dao.StudentDAO;
+import com.EduConnect.dao.StudentRepository;
+import com.EduConnect.index.IndexedEnrollmentDAO;
+import com.EduConnect.metrics.DaoMetrics;
+import com.EduConnect.model.Course;
+import com.EduConnect.model.Enrollment;
+import com.EduConnect.model.Student;
+import com.EduConnect.util.DatabaseConnection;
+import com.EduConnect.util.Schema;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/** An in-process H2 database in MSSQLServer mode, seeded once per trial with the requested volume. */
+@State(Scope.Benchmark)
+public class BenchmarkDatabase {
+    private static final int SEED_BATCH = 10_000;
+    private static final long BASE_DAY = LocalDate.of(2020, 1, 1).toEpochDay();
+
+    @Param({ "10000", "100000", "1000000" })
+    public int enrollments;
+
+    @Param({ "200" })
+    public int courses;
+
+    public int students;
+
+    public final StudentDAO sDao = new StudentDAO();
+    public final CourseDAO cDao = new CourseDAO();
+    public final EnrollmentDAO eDao = new EnrollmentDAO();
+    public final IndexedEnrollmentDAO indexedDao = new IndexedEnrollmentDAO();
+    public AsyncDAO async;
+    public final StudentRepository instrumentedStudents = DaoMetrics.instrument(StudentRepository.class, "student", sDao);
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        students = Math.max(100, enrollments / 8);
+        System.setProperty("educonnect.db.url", "jdbc:h2:mem:bench" + enrollments + ";MODE=MSSQLServer;DB_CLOSE_DELAY=-1");
+        System.setProperty("educonnect.db.user", "sa");
+        System.setProperty("educonnect.db.password", "");
+        System.setProperty("educonnect.pool.max", System.getProperty("educonnect.pool.max", "32"));
+        DatabaseConnection.shutdown();
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            Schema.createIfMissing(conn);
+            conn.setAutoCommit(false);
+            seed(conn);
+            conn.commit();
+        }
+        indexedDao.load();
+        async = new AsyncDAO(sDao, cDao, eDao);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        async.close();
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.createStatement().execute("SHUTDOWN");
+        } finally {
+            DatabaseConnection.shutdown();
+        }
+    }
+
+    public int randomStudentId() { return ThreadLocalRandom.current().nextInt(students) + 1; }
+    public int randomCourseId() { return ThreadLocalRandom.current().nextInt(courses) + 1; }
+    public int randomEnrollmentId() { return ThreadLocalRandom.current().nextInt(enrollments) + 1; }
+
+    public Enrollment randomEnrollment() {
+        return new Enrollment(randomStudentId(), randomCourseId(),
+                              Date.valueOf(LocalDate.ofEpochDay(BASE_DAY + ThreadLocalRandom.current().nextInt(1500))));
+    }
+
+    private void seed(Connection conn) throws SQLException {
+        SplittableRandom rnd = new SplittableRandom(42);
+        List<Student> ss = new ArrayList<>(SEED_BATCH);
+        for (int i = 1; i <= students; i++) {
+            ss.add(new Student("Student " + i, "student" + i + "@example.edu", String.format("9%09d", i),
+                               Date.valueOf(LocalDate.ofEpochDay(BASE_DAY - 7000 + rnd.nextInt(3000))), i % 2 == 0 ? "F" : "M"));
+            if (ss.size() == SEED_BATCH || i == students) { sDao.addStudents(conn, ss); ss.clear(); }
+        }
+        List<Course> cs = new ArrayList<>(courses);
+        for (int i = 1; i <= courses; i++) cs.add(new Course("Course " + i, (1 + i % 12) + " months"));
+        cDao.addCourses(conn, cs);
+        List<Enrollment> es = new ArrayList<>(SEED_BATCH);
+        for (int i = 1; i <= enrollments; i++) {
+            es.add(new Enrollment(rnd.nextInt(students) + 1, rnd.nextInt(courses) + 1,
+                                  Date.valueOf(LocalDate.ofEpochDay(BASE_DAY + rnd.nextInt(1500)))));
+            if (es.size() == SEED_BATCH || i == enrollments) { eDao.addEnrollments(conn, es); es.clear(); }
+        }
+    }
+}
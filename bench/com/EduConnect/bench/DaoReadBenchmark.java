@@ -0,0 +1,128 @@
+package com.EduConnect.bench;
+
+import com.EduConnect.async.AsyncDAO;
+import com.EduConnect.model.Course;
+import com.EduConnect.model.Enrollment;
+import com.EduConnect.model.Student;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DaoReadBenchmark {
+
+    @Benchmark
+    public Student studentById(BenchmarkDatabase db) {
+        return db.sDao.getStudentById(db.randomStudentId());
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Student studentById_8t(BenchmarkDatabase db) {
+        return db.sDao.getStudentById(db.randomStudentId());
+    }
+
+    /** Same lookup through the metrics proxy, to keep an eye on the instrumentation overhead. */
+    @Benchmark
+    public Student instrumentedStudentById(BenchmarkDatabase db) {
+        return db.instrumentedStudents.getStudentById(db.randomStudentId());
+    }
+
+    @Benchmark
+    public Course courseById(BenchmarkDatabase db) {
+        return db.cDao.getCourseById(db.randomCourseId());
+    }
+
+    @Benchmark
+    public Enrollment enrollmentById(BenchmarkDatabase db) {
+        return db.eDao.getEnrollmentById(db.randomEnrollmentId());
+    }
+
+    @Benchmark
+    public List<Enrollment> enrollmentsByStudent(BenchmarkDatabase db) {
+        return db.eDao.getEnrollmentsByStudentId(db.randomStudentId());
+    }
+
+    @Benchmark
+    @Threads(8)
+    public List<Enrollment> enrollmentsByStudent_8t(BenchmarkDatabase db) {
+        return db.eDao.getEnrollmentsByStudentId(db.randomStudentId());
+    }
+
+    @Benchmark
+    public List<Enrollment> enrollmentsByCourse(BenchmarkDatabase db) {
+        return db.eDao.getEnrollmentsByCourseId(db.randomCourseId());
+    }
+
+    @Benchmark
+    public List<Enrollment> indexedEnrollmentsByStudent(BenchmarkDatabase db) {
+        return db.indexedDao.getEnrollmentsByStudentId(db.randomStudentId());
+    }
+
+    @Benchmark
+    public List<Enrollment> indexedEnrollmentsByCourse(BenchmarkDatabase db) {
+        return db.indexedDao.getEnrollmentsByCourseId(db.randomCourseId());
+    }
+
+    @Benchmark
+    public int[] indexedEnrollmentIdsByCourse(BenchmarkDatabase db) {
+        return db.indexedDao.getIndex().enrollmentIdsByCourse(db.randomCourseId());
+    }
+
+    /** Student, their enrollments and each enrolled course, one call after another. */
+    @Benchmark
+    public int studentViewSequential(BenchmarkDatabase db) {
+        int sId = db.randomStudentId();
+        Student s = db.sDao.getStudentById(sId);
+        int found = s != null ? 1 : 0;
+        for (Enrollment e : db.eDao.getEnrollmentsByStudentId(sId)) {
+            if (db.cDao.getCourseById(e.getCourseId()) != null) found++;
+        }
+        return found;
+    }
+
+    @Benchmark
+    public AsyncDAO.StudentView studentViewAsync(BenchmarkDatabase db) {
+        return db.async.getStudentView(db.randomStudentId()).join();
+    }
+
+    @Benchmark
+    public List<Course> scanAllCourses(BenchmarkDatabase db) {
+        return db.cDao.getAllCourses();
+    }
+
+    /** Full scan of a table with text and date columns, to watch per-row mapping cost. */
+    @Benchmark
+    public List<Student> scanAllStudents(BenchmarkDatabase db) {
+        return db.sDao.getAllStudents();
+    }
+
+    @Benchmark
+    public List<Enrollment> scanAllEnrollments(BenchmarkDatabase db) {
+        return db.eDao.getAllEnrollments();
+    }
+
+    @Benchmark
+    public long streamAllEnrollments(BenchmarkDatabase db) {
+        try (Stream<Enrollment> s = db.eDao.streamAllEnrollments(1000)) {
+            return s.count();
+        }
+    }
+
+    @Benchmark
+    public List<Enrollment> enrollmentsFirstPage(BenchmarkDatabase db) {
+        return db.eDao.getEnrollmentsPage(0, 20);
+    }
+}
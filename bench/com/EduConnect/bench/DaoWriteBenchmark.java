@@ -0,0 +1,50 @@
+package com.EduConnect.bench;
+
+import com.EduConnect.dao.EnrollmentResult;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DaoWriteBenchmark {
+
+    @Benchmark
+    @Threads(1)
+    public boolean addEnrollment_1t(BenchmarkDatabase db) {
+        return db.eDao.addEnrollment(db.randomEnrollment());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean addEnrollment_4t(BenchmarkDatabase db) {
+        return db.eDao.addEnrollment(db.randomEnrollment());
+    }
+
+    @Benchmark
+    @Threads(16)
+    public boolean addEnrollment_16t(BenchmarkDatabase db) {
+        return db.eDao.addEnrollment(db.randomEnrollment());
+    }
+
+    @Benchmark
+    @Threads(1)
+    public EnrollmentResult addEnrollmentChecked_1t(BenchmarkDatabase db) {
+        return db.eDao.addEnrollmentChecked(db.randomEnrollment());
+    }
+
+    @Benchmark
+    @Threads(16)
+    public EnrollmentResult addEnrollmentChecked_16t(BenchmarkDatabase db) {
+        return db.eDao.addEnrollmentChecked(db.randomEnrollment());
+    }
+}
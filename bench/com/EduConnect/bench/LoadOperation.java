@@ -0,0 +1,72 @@
+package com.EduConnect.bench;
+
+import com.EduConnect.dao.EnrollmentResult;
+import com.EduConnect.dao.UpdateResult;
+import com.EduConnect.model.Student;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The menu actions {@link LoadTest} replays, each as the DAO calls EduConnectApp makes for it. An
+ * operation returns false when the DAO reported a failure; refused enrollments (duplicate, unknown
+ * student or course) and update conflicts are normal outcomes, not failures.
+ */
+enum LoadOperation {
+    GET_STUDENT("getStudent") {
+        boolean run(LoadTest.Target t) {
+            t.students.getStudentById(t.db.randomStudentId());
+            return true;
+        }
+    },
+    ADD_STUDENT("addStudent") {
+        boolean run(LoadTest.Target t) {
+            int n = ThreadLocalRandom.current().nextInt(1_000_000_000);
+            return t.students.addStudent(new Student("Load Student " + n, "load" + n + "@example.edu", String.format("8%09d", n),
+                                                     null, n % 2 == 0 ? "F" : "M"));
+        }
+    },
+    UPDATE_STUDENT("updateStudent") {
+        // Students > Update: look the row up, change a field, save it. Losing a race with another
+        // writer is a conflict, not a failure.
+        boolean run(LoadTest.Target t) {
+            Student s = t.students.getStudentById(t.db.randomStudentId());
+            if (s == null) return true;
+            s.setPhone(String.format("7%09d", ThreadLocalRandom.current().nextInt(1_000_000_000)));
+            return t.students.updateStudentChecked(s) != UpdateResult.FAILED;
+        }
+    },
+    SEARCH_STUDENTS("search") {
+        boolean run(LoadTest.Target t) {
+            t.students.searchStudents("student " + ThreadLocalRandom.current().nextInt(1, 1000), 20);
+            return true;
+        }
+    },
+    ENROLL("enroll") {
+        boolean run(LoadTest.Target t) {
+            return t.enrollments.addEnrollmentChecked(t.db.randomEnrollment()) != EnrollmentResult.FAILED;
+        }
+    },
+    LIST_BY_COURSE("listByCourse") {
+        // Enrollments > By Course shows the course, then its enrollments.
+        boolean run(LoadTest.Target t) {
+            int courseId = t.db.randomCourseId();
+            t.courses.getCourseById(courseId);
+            t.enrollments.getEnrollmentsByCourseId(courseId);
+            return true;
+        }
+    };
+
+    final String label;
+
+    LoadOperation(String label) {
+        this.label = label;
+    }
+
+    abstract boolean run(LoadTest.Target t);
+
+    static LoadOperation byLabel(String label) {
+        for (LoadOperation op : values()) {
+            if (op.label.equalsIgnoreCase(label)) return op;
+        }
+        throw new IllegalArgumentException("Unknown operation '" + label + "'; expected one of getStudent, addStudent, updateStudent, search, enroll, listByCourse");
+    }
+}
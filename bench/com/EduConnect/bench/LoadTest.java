@@ -0,0 +1,324 @@
+package com.EduConnect.bench;
+
+import com.EduConnect.cache.CachedCourseDAO;
+import com.EduConnect.cache.CachedStudentDAO;
+import com.EduConnect.dao.CourseRepository;
+import com.EduConnect.dao.EnrollmentDAO;
+import com.EduConnect.dao.EnrollmentRepository;
+import com.EduConnect.dao.StudentRepository;
+import com.EduConnect.index.IndexedEnrollmentDAO;
+import com.EduConnect.metrics.DaoMetrics;
+import com.EduConnect.metrics.LatencyHistogram;
+import com.EduConnect.search.SearchableStudentDAO;
+import com.EduConnect.util.AppConfig;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator for soak runs: replays a weighted mix of menu operations ({@link LoadOperation})
+ * against a seeded in-process H2 database at a fixed arrival rate, whether or not earlier calls have
+ * finished. Every call has an intended start time on the arrival schedule and its response time is
+ * measured from there, so when the system stalls the calls queued behind the stall are charged for the
+ * wait instead of simply not being sent (coordinated omission). Service time, measured from when a
+ * worker actually picked the call up, is reported next to it; the gap between the two is queueing.
+ *
+ * <p>Every interval it prints throughput, errors, drops and response-time percentiles, and at the end
+ * a per-operation summary of the measured period plus the per-DAO-call metrics. Arrivals that find
+ * maxInFlight calls already outstanding are dropped and counted, so an overloaded run shows up as drops
+ * rather than unbounded memory. Runs the same repository decorators EduConnectApp would pick from the
+ * configuration (educonnect.search.students, educonnect.index.enrollments, cache and pool settings).
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.EduConnect.bench.LoadTest --rate 2000 --duration 3600 --interval 60
+ * </pre>
+ */
+public class LoadTest {
+    private static final String USAGE = String.join("\n",
+        "Usage: LoadTest [options]",
+        "  --rate N          arrivals per second (default 500)",
+        "  --duration S      measured seconds, after the warm-up (default 60)",
+        "  --warmup S        seconds run but left out of the summary (default 10)",
+        "  --interval S      seconds between progress lines (default 10)",
+        "  --arrivals A      poisson (default) or uniform spacing",
+        "  --threads N       platform worker threads; 0 (default) runs each call on its own virtual thread",
+        "  --maxInFlight N   drop arrivals beyond this many outstanding calls (default 10000)",
+        "  --mix SPEC        operation weights (default " + defaultMix() + ")",
+        "  --enrollments N   seeded enrollments; students are N/8 (default 100000)",
+        "  --courses N       seeded courses (default 200)",
+        "  --seed N          arrival schedule and mix seed (default 1)",
+        "  --csv FILE        also write every interval's per-operation figures to FILE");
+
+    /** What an operation runs against. */
+    static final class Target {
+        final BenchmarkDatabase db;
+        final StudentRepository students;
+        final CourseRepository courses;
+        final EnrollmentRepository enrollments;
+
+        Target(BenchmarkDatabase db, StudentRepository students, CourseRepository courses, EnrollmentRepository enrollments) {
+            this.db = db;
+            this.students = students;
+            this.courses = courses;
+            this.enrollments = enrollments;
+        }
+    }
+
+    private static final class OpStats {
+        final LatencyHistogram interval = new LatencyHistogram();
+        final LatencyHistogram response = new LatencyHistogram();
+        final LatencyHistogram service = new LatencyHistogram();
+        final LongAdder intervalErrors = new LongAdder();
+        final LongAdder intervalDropped = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder dropped = new LongAdder();
+    }
+
+    private Target target;
+    private final double rate;
+    private final long warmupNanos;
+    private final long durationNanos;
+    private final long intervalNanos;
+    private final boolean poisson;
+    private final int threads;
+    private final int maxInFlight;
+    private final LoadOperation[] ops;
+    private final int[] cumulativeWeights;
+    private final long seed;
+    private PrintWriter csv;
+
+    private final Map<LoadOperation, OpStats> stats = new EnumMap<>(LoadOperation.class);
+    private final OpStats all = new OpStats();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile long measureFrom;
+    private long start;
+    private long lastReport;
+
+    LoadTest(Map<String, String> o) {
+        this.rate = Double.parseDouble(o.getOrDefault("rate", "500"));
+        this.warmupNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(o.getOrDefault("warmup", "10")));
+        this.durationNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(o.getOrDefault("duration", "60")));
+        this.intervalNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(o.getOrDefault("interval", "10")));
+        this.poisson = !o.getOrDefault("arrivals", "poisson").equalsIgnoreCase("uniform");
+        this.threads = Integer.parseInt(o.getOrDefault("threads", "0"));
+        this.maxInFlight = Integer.parseInt(o.getOrDefault("maxInFlight", "10000"));
+        this.seed = Long.parseLong(o.getOrDefault("seed", "1"));
+        if (rate <= 0 || durationNanos <= 0 || warmupNanos < 0 || intervalNanos <= 0 || threads < 0 || maxInFlight < 1) {
+            throw new IllegalArgumentException("rate, duration, interval and maxInFlight must be positive; warmup and threads not negative");
+        }
+        String[] parts = o.getOrDefault("mix", defaultMix()).split(",");
+        this.ops = new LoadOperation[parts.length];
+        this.cumulativeWeights = new int[parts.length];
+        int sum = 0;
+        for (int i = 0; i < parts.length; i++) {
+            String[] kv = parts[i].split("=");
+            if (kv.length != 2) throw new IllegalArgumentException("Bad mix entry '" + parts[i] + "'; expected op=weight");
+            ops[i] = LoadOperation.byLabel(kv[0].trim());
+            int weight = Integer.parseInt(kv[1].trim());
+            if (weight < 0) throw new IllegalArgumentException("Negative weight for " + kv[0]);
+            cumulativeWeights[i] = sum += weight;
+            stats.put(ops[i], new OpStats());
+        }
+        if (sum == 0) throw new IllegalArgumentException("The mix has no weight");
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTest test;
+        BenchmarkDatabase db = new BenchmarkDatabase();
+        String csvFile;
+        try {
+            Map<String, String> o = options(args);
+            if (o.containsKey("help")) { System.out.println(USAGE); return; }
+            test = new LoadTest(o);
+            db.enrollments = Integer.parseInt(o.getOrDefault("enrollments", "100000"));
+            db.courses = Integer.parseInt(o.getOrDefault("courses", "200"));
+            if (db.enrollments < 1 || db.courses < 1) throw new IllegalArgumentException("enrollments and courses must be positive");
+            csvFile = o.get("csv");
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage() + "\n" + USAGE);
+            System.exit(64);
+            return;
+        }
+
+        long t0 = System.nanoTime();
+        db.setUp();
+        System.out.printf(Locale.ROOT, "Seeded %d students, %d courses, %d enrollments in %.1f s%n", db.students, db.courses, db.enrollments,
+                          (System.nanoTime() - t0) / 1e9);
+
+        try (PrintWriter csv = csvFile == null ? null : new PrintWriter(Files.newBufferedWriter(Paths.get(csvFile), StandardCharsets.UTF_8))) {
+            test.run(target(db), csv);
+        } finally {
+            db.tearDown();
+        }
+    }
+
+    // The same decorators EduConnectApp picks, instrumented the same way, with their indexes loaded.
+    private static Target target(BenchmarkDatabase db) {
+        CachedStudentDAO students = AppConfig.getBoolean("educonnect.search.students", false) ? new SearchableStudentDAO() : new CachedStudentDAO();
+        EnrollmentDAO enrollments = AppConfig.getBoolean("educonnect.index.enrollments", false) ? new IndexedEnrollmentDAO() : new EnrollmentDAO();
+        if (students instanceof SearchableStudentDAO searchable) searchable.load();
+        if (enrollments instanceof IndexedEnrollmentDAO indexed) indexed.load();
+        return new Target(db, DaoMetrics.instrument(StudentRepository.class, "student", students),
+                          DaoMetrics.instrument(CourseRepository.class, "course", new CachedCourseDAO()),
+                          DaoMetrics.instrument(EnrollmentRepository.class, "enrollment", enrollments));
+    }
+
+    void run(Target target, PrintWriter csv) throws InterruptedException {
+        this.target = target;
+        this.csv = csv;
+        ExecutorService workers = threads == 0 ? Executors.newVirtualThreadPerTaskExecutor() : Executors.newFixedThreadPool(threads);
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+        System.out.printf(Locale.ROOT, "Target %.0f ops/s (%s arrivals), %s, warm-up %d s, measured %d s%n", rate, poisson ? "poisson" : "uniform",
+                          threads == 0 ? "virtual thread per call" : threads + " worker threads",
+                          TimeUnit.NANOSECONDS.toSeconds(warmupNanos), TimeUnit.NANOSECONDS.toSeconds(durationNanos));
+        System.out.println("Response time in microseconds, from each call's scheduled start");
+        System.out.printf("%-7s %8s %9s %7s %7s %8s %9s %9s %9s %9s%n", "phase", "time_s", "ops/s", "errors", "dropped", "inflight", "p50", "p99", "p99.9", "max");
+        if (csv != null) csv.println("time_s,phase,operation,completed,errors,dropped,p50_us,p99_us,p999_us,max_us");
+
+        start = System.nanoTime();
+        lastReport = start;
+        measureFrom = start + warmupNanos;
+        long end = measureFrom + durationNanos;
+        reporter.scheduleAtFixedRate(this::report, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+
+        SplittableRandom rnd = new SplittableRandom(seed);
+        double meanGapNanos = 1e9 / rate;
+        long next = start;
+        while (next < end) {
+            for (long wait = next - System.nanoTime(); wait > 0; wait = next - System.nanoTime()) LockSupport.parkNanos(wait);
+            LoadOperation op = pick(rnd);
+            long intended = next;
+            if (inFlight.get() >= maxInFlight) {
+                OpStats s = stats.get(op);
+                s.intervalDropped.increment();
+                all.intervalDropped.increment();
+                if (intended >= measureFrom) { s.dropped.increment(); all.dropped.increment(); }
+            } else {
+                inFlight.incrementAndGet();
+                workers.execute(() -> call(op, intended));
+            }
+            // Spacing comes from the schedule, never from how long earlier calls took.
+            next += poisson ? (long) (-Math.log(1 - rnd.nextDouble()) * meanGapNanos) : (long) meanGapNanos;
+        }
+
+        workers.shutdown();
+        if (!workers.awaitTermination(60, TimeUnit.SECONDS)) System.out.println("Calls still running after 60 s: " + inFlight.get());
+        reporter.shutdown();
+        reporter.awaitTermination(10, TimeUnit.SECONDS);
+        // Calls still running when the schedule ended.
+        report("drain");
+        summary();
+    }
+
+    private LoadOperation pick(SplittableRandom rnd) {
+        int r = rnd.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; ; i++) {
+            if (r < cumulativeWeights[i]) return ops[i];
+        }
+    }
+
+    private void call(LoadOperation op, long intended) {
+        long begin = System.nanoTime();
+        boolean ok;
+        try {
+            ok = op.run(target);
+        } catch (RuntimeException e) {
+            ok = false;
+        }
+        long done = System.nanoTime();
+        inFlight.decrementAndGet();
+        OpStats s = stats.get(op);
+        s.interval.record(done - intended);
+        all.interval.record(done - intended);
+        if (!ok) { s.intervalErrors.increment(); all.intervalErrors.increment(); }
+        if (intended >= measureFrom) {
+            s.response.record(done - intended);
+            s.service.record(done - begin);
+            all.response.record(done - intended);
+            all.service.record(done - begin);
+            if (!ok) { s.errors.increment(); all.errors.increment(); }
+        }
+    }
+
+    // Interval figures are read and then reset, so a call finishing in between is missed by that line;
+    // the end-of-run summary uses separate histograms and counts every call.
+    private void report() {
+        report(null);
+    }
+
+    private synchronized void report(String label) {
+        long now = System.nanoTime();
+        double seconds = Math.max(1, now - lastReport) / 1e9;
+        String phase = label != null ? label : lastReport < measureFrom ? "warmup" : "run";
+        lastReport = now;
+        long elapsed = TimeUnit.NANOSECONDS.toSeconds(now - start);
+        LatencyHistogram h = all.interval;
+        System.out.printf(Locale.ROOT, "%-7s %8d %9.0f %7d %7d %8d %9d %9d %9d %9d%n", phase, elapsed, h.getCount() / seconds,
+                          all.intervalErrors.sumThenReset(), all.intervalDropped.sumThenReset(), inFlight.get(),
+                          micros(h.getPercentile(0.5)), micros(h.getPercentile(0.99)), micros(h.getPercentile(0.999)), micros(h.getMax()));
+        h.reset();
+        for (Map.Entry<LoadOperation, OpStats> e : stats.entrySet()) {
+            OpStats s = e.getValue();
+            if (csv != null) {
+                csv.printf(Locale.ROOT, "%d,%s,%s,%d,%d,%d,%d,%d,%d,%d%n", elapsed, phase, e.getKey().label, s.interval.getCount(),
+                           s.intervalErrors.sum(), s.intervalDropped.sum(), micros(s.interval.getPercentile(0.5)),
+                           micros(s.interval.getPercentile(0.99)), micros(s.interval.getPercentile(0.999)), micros(s.interval.getMax()));
+            }
+            s.interval.reset();
+            s.intervalErrors.reset();
+            s.intervalDropped.reset();
+        }
+        if (csv != null) csv.flush();
+    }
+
+    private void summary() {
+        double seconds = durationNanos / 1e9;
+        System.out.printf(Locale.ROOT, "%nMeasured %.0f s; response time in microseconds from the scheduled start, svc p99 from the actual start%n", seconds);
+        System.out.printf("%-14s %9s %9s %7s %7s %8s %8s %8s %8s %8s %9s %8s%n", "operation", "count", "ops/s", "errors", "dropped",
+                          "mean", "p50", "p90", "p99", "p99.9", "max", "svc p99");
+        for (Map.Entry<LoadOperation, OpStats> e : stats.entrySet()) summaryLine(e.getKey().label, e.getValue(), seconds);
+        summaryLine("all", all, seconds);
+        System.out.printf(Locale.ROOT, "Offered %.0f ops/s, completed %.0f ops/s%n", rate, all.response.getCount() / seconds);
+        System.out.println("\nDAO Operations (microseconds):\n" + DaoMetrics.report());
+    }
+
+    private static void summaryLine(String name, OpStats s, double seconds) {
+        LatencyHistogram h = s.response;
+        System.out.printf(Locale.ROOT, "%-14s %9d %9.0f %7d %7d %8d %8d %8d %8d %8d %9d %8d%n", name, h.getCount(), h.getCount() / seconds,
+                          s.errors.sum(), s.dropped.sum(), micros(h.getMean()), micros(h.getPercentile(0.5)), micros(h.getPercentile(0.9)),
+                          micros(h.getPercentile(0.99)), micros(h.getPercentile(0.999)), micros(h.getMax()), micros(s.service.getPercentile(0.99)));
+    }
+
+    private static long micros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+
+    private static String defaultMix() {
+        return "getStudent=30,listByCourse=25,enroll=20,updateStudent=15,addStudent=5,search=5";
+    }
+
+    private static Map<String, String> options(String[] args) {
+        Map<String, String> o = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) throw new IllegalArgumentException("Unexpected argument '" + args[i] + "'");
+            String key = args[i].substring(2);
+            if (key.equals("help")) { o.put(key, ""); continue; }
+            if (i + 1 >= args.length) throw new IllegalArgumentException("--" + key + " needs a value");
+            o.put(key, args[++i]);
+        }
+        return o;
+    }
+}
@@ -0,0 +1,600 @@
+package com.EduConnect.app;
+
+import com.EduConnect.async.EnrollmentWriteQueue;
+import com.EduConnect.dao.CascadeDeleter;
+import com.EduConnect.dao.CourseRepository;
+import com.EduConnect.dao.EnrollmentRepository;
+import com.EduConnect.dao.EnrollmentResult;
+import com.EduConnect.dao.StudentRepository;
+import com.EduConnect.dao.StudentResult;
+import com.EduConnect.dao.UncheckedSQLException;
+import com.EduConnect.dao.UpdateResult;
+import com.EduConnect.export.ExportFormat;
+import com.EduConnect.export.ExportReport;
+import com.EduConnect.export.Exporter;
+import com.EduConnect.importer.BulkImporter;
+import com.EduConnect.importer.ImportReport;
+import com.EduConnect.index.IndexedEnrollmentDAO;
+import com.EduConnect.metrics.DaoMetrics;
+import com.EduConnect.metrics.LatencyHistogram;
+import com.EduConnect.metrics.OperationMetrics;
+import com.EduConnect.model.Course;
+import com.EduConnect.model.Enrollment;
+import com.EduConnect.model.Student;
+import com.EduConnect.report.CourseFill;
+import com.EduConnect.report.DailyCount;
+import com.EduConnect.report.EnrollmentReports;
+import com.EduConnect.search.SearchableStudentDAO;
+import com.EduConnect.server.ApiServer;
+import com.EduConnect.snapshot.SnapshotReport;
+import com.EduConnect.snapshot.SnapshotStudentDAO;
+import com.EduConnect.snapshot.SnapshotWriter;
+import com.EduConnect.sync.ChangePoller;
+import com.EduConnect.util.AppConfig;
+import com.EduConnect.util.DatabaseConnection;
+import com.EduConnect.util.Dates;
+import com.EduConnect.util.Json;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Non-interactive front end: runs one command from the program arguments, or a whole script of
+ * commands in one JVM on one connection. Results go to stdout as CSV (default) or JSON lines.
+ */
+public class CommandRunner {
+    public static final int OK = 0;
+    public static final int FAILED = 1;
+    public static final int NOT_FOUND = 2;
+    /** An import finished but some rows were rejected; shares its code with NOT_FOUND. */
+    public static final int REJECTED = 2;
+    public static final int CONFLICT = 3;
+    public static final int USAGE = 64;
+
+    private static final int FETCH_SIZE = 1000;
+    private static final int DEFAULT_SEARCH_LIMIT = 20;
+
+    private static final String USAGE_TEXT = String.join("\n",
+        "Usage: educonnect [--format csv|json] <command>",
+        "  student add --name N --email E [--phone P] [--dob DD-MM-YYYY] [--gender G]",
+        "  student get --id ID | list [--after ID --limit N] | update --id ID [fields] | delete --id ID (with its enrollments)",
+        "  student search --q TEXT [--limit N]   name, email or phone contains TEXT, best matches first (default 20)",
+        "  course add --name N [--duration D]",
+        "  course get --id ID | list [--after ID --limit N] | update --id ID [fields] | delete --id ID",
+        "  enrollment add --student ID --course ID --date DD-MM-YYYY",
+        "  enrollment get --id ID | list [--student ID | --course ID | --after ID --limit N]",
+        "  enrollment update --id ID [--student ID] [--course ID] [--date DD-MM-YYYY] | delete --id ID",
+        "  import <students|courses|enrollments> <file.csv> [batchSize]",
+        "  export <students|courses|enrollments> <file> [csv|jsonl|bin]   format from the extension by default; .gz compresses",
+        "  report courses | daily [--from DATE] [--to DATE]   course fill, or enrollments per day",
+        "  snapshot <file>      write a read-only snapshot for -Deduconnect.snapshot.file=<file>",
+        "  serve [--host H] [--port P]   HTTP/JSON API until interrupted (default 127.0.0.1:8080)",
+        "  stats                per-operation call counts and latency percentiles (microseconds)",
+        "  run <script.txt>     one command per line, '#' starts a comment");
+
+    private final StudentRepository sDao;
+    private final CourseRepository cDao;
+    private final EnrollmentRepository eDao;
+    private final CascadeDeleter cascade;
+    private final EnrollmentReports reports;
+    private final ChangePoller sync;
+    private final PrintWriter out;
+    private boolean json;
+
+    public CommandRunner(StudentRepository sDao, CourseRepository cDao, EnrollmentRepository eDao, PrintWriter out) {
+        this(sDao, cDao, eDao, new EnrollmentReports(cDao), out);
+    }
+
+    public CommandRunner(StudentRepository sDao, CourseRepository cDao, EnrollmentRepository eDao, EnrollmentReports reports, PrintWriter out) {
+        this(sDao, cDao, eDao, reports, null, out);
+    }
+
+    /** The change poller, if any, is started only by serve; a one-shot command has nothing to keep current. */
+    public CommandRunner(StudentRepository sDao, CourseRepository cDao, EnrollmentRepository eDao, EnrollmentReports reports,
+                         ChangePoller sync, PrintWriter out) {
+        this.sDao = sDao;
+        this.cDao = cDao;
+        this.eDao = eDao;
+        this.cascade = new CascadeDeleter(sDao, cDao, eDao);
+        this.reports = reports;
+        this.sync = sync;
+        this.out = out;
+    }
+
+    public int execute(String[] args) {
+        List<String> tokens = new ArrayList<>(Arrays.asList(args));
+        int f = tokens.indexOf("--format");
+        if (f >= 0) {
+            if (f + 1 >= tokens.size()) return usage("--format needs a value");
+            json = tokens.get(f + 1).equalsIgnoreCase("json");
+            tokens.subList(f, f + 2).clear();
+        }
+        try {
+            if (!tokens.isEmpty() && tokens.get(0).equalsIgnoreCase("run")) {
+                if (tokens.size() != 2) return usage("run needs a script file");
+                return runScript(Paths.get(tokens.get(1)));
+            }
+            return dispatch(tokens);
+        } finally {
+            out.flush();
+        }
+    }
+
+    @SuppressWarnings("try")
+    private int runScript(Path script) {
+        int worst = OK;
+        long lineNo = 0;
+        try (DatabaseConnection.Session session = isSnapshot() ? null : DatabaseConnection.openSession();
+             BufferedReader in = Files.newBufferedReader(script, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                lineNo++;
+                String t = line.trim();
+                if (t.isEmpty() || t.startsWith("#")) continue;
+                List<String> tokens;
+                try {
+                    tokens = tokenize(t);
+                } catch (IllegalArgumentException e) {
+                    worst = Math.max(worst, usage("line " + lineNo + ": " + e.getMessage()));
+                    continue;
+                }
+                worst = Math.max(worst, dispatch(tokens));
+                if (session != null) session.reset();
+            }
+        } catch (IOException | SQLException e) {
+            return error(FAILED, "Script Error: " + e.getMessage());
+        }
+        return worst;
+    }
+
+    private int dispatch(List<String> tokens) {
+        if (tokens.isEmpty() || tokens.get(0).equalsIgnoreCase("help")) {
+            out.println(USAGE_TEXT);
+            return tokens.isEmpty() ? USAGE : OK;
+        }
+        String entity = tokens.get(0).toLowerCase();
+        if (entity.equals("import")) return importFile(tokens);
+        if (entity.equals("export")) return exportFile(tokens);
+        if (entity.equals("snapshot")) return snapshot(tokens);
+        if (entity.equals("stats")) return stats();
+        if (entity.equals("serve")) {
+            try {
+                return serve(options(tokens.subList(1, tokens.size())));
+            } catch (IllegalArgumentException e) {
+                return usage(e.getMessage());
+            }
+        }
+        if (tokens.size() < 2) return usage("missing action for " + entity);
+        String action = tokens.get(1).toLowerCase();
+        Map<String, String> opts;
+        try {
+            opts = options(tokens.subList(2, tokens.size()));
+            switch (entity) {
+                case "student": return student(action, opts);
+                case "course": return course(action, opts);
+                case "enrollment": return enrollment(action, opts);
+                case "report": return report(action, opts);
+                default: return usage("unknown command: " + entity);
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return usage(e.getMessage());
+        } catch (UncheckedSQLException e) {
+            // A listing cut short by a failed scan; the rows already printed are incomplete.
+            return error(FAILED, e.getMessage());
+        }
+    }
+
+    private int student(String action, Map<String, String> o) {
+        switch (action) {
+            case "add": {
+                String email = required(o, "email").trim();
+                if (email.equalsIgnoreCase("blank")) throw new IllegalArgumentException("email cannot be 'blank'");
+                Student s = new Student(required(o, "name"), email, o.get("phone"), date(o.get("dob")), o.get("gender"));
+                StudentResult r = sDao.addStudentChecked(s);
+                switch (r) {
+                    case OK: return ok(s.getStudentId());
+                    case DUPLICATE: return error(CONFLICT, r.getMessage());
+                    default: return error(FAILED, r.getMessage());
+                }
+            }
+            case "get": {
+                Student s = sDao.getStudentById(id(o, "id"));
+                if (s == null) return error(NOT_FOUND, "Not found.");
+                print(s);
+                return OK;
+            }
+            case "list": {
+                if (o.containsKey("limit")) {
+                    sDao.getStudentsPage(o.containsKey("after") ? id(o, "after") : 0, id(o, "limit")).forEach(this::print);
+                } else {
+                    try (Stream<Student> rows = sDao.streamAllStudents(FETCH_SIZE)) { rows.forEach(this::print); }
+                }
+                return OK;
+            }
+            case "search": {
+                sDao.searchStudents(required(o, "q"), o.containsKey("limit") ? id(o, "limit") : DEFAULT_SEARCH_LIMIT).forEach(this::print);
+                return OK;
+            }
+            case "update": {
+                Student s = sDao.getStudentById(id(o, "id"));
+                if (s == null) return error(NOT_FOUND, "Not found.");
+                if (o.containsKey("name")) s.setName(o.get("name"));
+                if (o.containsKey("email")) s.setEmail(o.get("email"));
+                if (o.containsKey("phone")) s.setPhone(o.get("phone"));
+                if (o.containsKey("dob")) s.setDob(date(o.get("dob")));
+                if (o.containsKey("gender")) s.setGender(o.get("gender"));
+                return updated(sDao.updateStudentChecked(s), s.getStudentId());
+            }
+            case "delete": {
+                int id = id(o, "id");
+                return cascade.deleteStudent(id) >= 0 ? ok(id) : error(FAILED, "Failed.");
+            }
+            default: return usage("unknown student action: " + action);
+        }
+    }
+
+    private int course(String action, Map<String, String> o) {
+        switch (action) {
+            case "add": {
+                Course c = new Course(required(o, "name"), o.get("duration"));
+                return cDao.addCourse(c) ? ok(c.getCourseId()) : error(FAILED, "Failed.");
+            }
+            case "get": {
+                Course c = cDao.getCourseById(id(o, "id"));
+                if (c == null) return error(NOT_FOUND, "Not found.");
+                print(c);
+                return OK;
+            }
+            case "list": {
+                if (o.containsKey("limit")) {
+                    cDao.getCoursesPage(o.containsKey("after") ? id(o, "after") : 0, id(o, "limit")).forEach(this::print);
+                } else {
+                    try (Stream<Course> rows = cDao.streamAllCourses(FETCH_SIZE)) { rows.forEach(this::print); }
+                }
+                return OK;
+            }
+            case "update": {
+                Course c = cDao.getCourseById(id(o, "id"));
+                if (c == null) return error(NOT_FOUND, "Not found.");
+                if (o.containsKey("name")) c.setCourseName(o.get("name"));
+                if (o.containsKey("duration")) c.setDuration(o.get("duration"));
+                return updated(cDao.updateCourseChecked(c), c.getCourseId());
+            }
+            case "delete": {
+                int id = id(o, "id");
+                return cascade.deleteCourse(id) >= 0 ? ok(id) : error(FAILED, "Failed.");
+            }
+            default: return usage("unknown course action: " + action);
+        }
+    }
+
+    private int updated(UpdateResult r, int id) {
+        switch (r) {
+            case OK: case UNCHANGED: return ok(id);
+            case NOT_FOUND: return error(NOT_FOUND, r.getMessage());
+            case CONFLICT: case DUPLICATE: return error(CONFLICT, r.getMessage());
+            default: return error(FAILED, r.getMessage());
+        }
+    }
+
+    private int enrollment(String action, Map<String, String> o) {
+        switch (action) {
+            case "add": {
+                Date d = date(required(o, "date"));
+                Enrollment e = new Enrollment(id(o, "student"), id(o, "course"), d);
+                EnrollmentResult r = eDao.addEnrollmentChecked(e);
+                switch (r) {
+                    case OK: return ok(e.getEnrollmentId());
+                    case STUDENT_NOT_FOUND: case COURSE_NOT_FOUND: return error(NOT_FOUND, r.getMessage());
+                    case DUPLICATE: return error(CONFLICT, r.getMessage());
+                    default: return error(FAILED, r.getMessage());
+                }
+            }
+            case "get": {
+                Enrollment e = eDao.getEnrollmentById(id(o, "id"));
+                if (e == null) return error(NOT_FOUND, "Not found.");
+                print(e);
+                return OK;
+            }
+            case "list": {
+                if (o.containsKey("student")) {
+                    eDao.getEnrollmentsByStudentId(id(o, "student")).forEach(this::print);
+                } else if (o.containsKey("course")) {
+                    eDao.getEnrollmentsByCourseId(id(o, "course")).forEach(this::print);
+                } else if (o.containsKey("limit")) {
+                    eDao.getEnrollmentsPage(o.containsKey("after") ? id(o, "after") : 0, id(o, "limit")).forEach(this::print);
+                } else {
+                    try (Stream<Enrollment> rows = eDao.streamAllEnrollments(FETCH_SIZE)) { rows.forEach(this::print); }
+                }
+                return OK;
+            }
+            case "update": {
+                Enrollment e = eDao.getEnrollmentById(id(o, "id"));
+                if (e == null) return error(NOT_FOUND, "Not found.");
+                if (o.containsKey("student")) e.setStudentId(id(o, "student"));
+                if (o.containsKey("course")) e.setCourseId(id(o, "course"));
+                if (o.containsKey("date")) e.setEnrollDate(date(o.get("date")));
+                return eDao.updateEnrollment(e) ? ok(e.getEnrollmentId()) : error(FAILED, "Failed.");
+            }
+            case "delete": {
+                int id = id(o, "id");
+                return eDao.deleteEnrollment(id) ? ok(id) : error(FAILED, "Failed.");
+            }
+            default: return usage("unknown enrollment action: " + action);
+        }
+    }
+
+    private int importFile(List<String> t) {
+        if (t.size() < 3) return usage("import <students|courses|enrollments> <file.csv> [batchSize]");
+        if (isSnapshot()) return error(FAILED, "Import Error: the snapshot is read-only");
+        try {
+            BulkImporter.Entity entity = BulkImporter.Entity.parse(t.get(1));
+            int batch = t.size() > 3 ? Integer.parseInt(t.get(3)) : BulkImporter.DEFAULT_BATCH_SIZE;
+            ImportReport r = new BulkImporter(sDao, cDao, eDao, batch).importFile(entity, Paths.get(t.get(2)));
+            if (DaoMetrics.unwrap(sDao) instanceof SearchableStudentDAO searchable) searchable.refresh();
+            if (DaoMetrics.unwrap(eDao) instanceof IndexedEnrollmentDAO indexed) indexed.refresh();
+            if (reports.getSummary() != null) reports.getSummary().refresh(eDao);
+            if (json) {
+                out.println("{\"status\":\"ok\",\"read\":" + r.getRowsRead() + ",\"imported\":" + r.getRowsImported() +
+                            ",\"rejected\":" + r.getRowsRejected() + ",\"rowsPerSecond\":" + Math.round(r.getRowsPerSecond()) + "}");
+            } else {
+                out.println(r);
+            }
+            return r.getRowsRejected() > 0 ? REJECTED : OK;
+        } catch (IllegalArgumentException e) {
+            return usage(e.getMessage());
+        } catch (IOException | SQLException e) {
+            return error(FAILED, "Import Error: " + e.getMessage());
+        }
+    }
+
+    private int exportFile(List<String> t) {
+        if (t.size() < 3 || t.size() > 4) return usage("export <students|courses|enrollments> <file> [csv|jsonl|bin]");
+        try {
+            BulkImporter.Entity entity = BulkImporter.Entity.parse(t.get(1));
+            Path file = Paths.get(t.get(2));
+            ExportFormat format = t.size() > 3 ? ExportFormat.parse(t.get(3)) : ExportFormat.forFile(file);
+            ExportReport r = new Exporter(sDao, cDao, eDao).export(entity, format, file, ExportFormat.isGzip(file));
+            if (json) {
+                out.println("{\"status\":\"ok\",\"rows\":" + r.getRows() + ",\"bytes\":" + r.getFileBytes() +
+                            ",\"rowsPerSecond\":" + Math.round(r.getRowsPerSecond()) + "}");
+            } else {
+                out.println(r);
+            }
+            return OK;
+        } catch (IllegalArgumentException e) {
+            return usage(e.getMessage());
+        } catch (IOException | SQLException e) {
+            return error(FAILED, "Export Error: " + e.getMessage());
+        }
+    }
+
+    private int snapshot(List<String> t) {
+        if (t.size() != 2) return usage("snapshot <file>");
+        try {
+            SnapshotReport r = new SnapshotWriter(sDao, cDao, eDao).write(Paths.get(t.get(1)));
+            if (json) {
+                out.println("{\"status\":\"ok\",\"students\":" + r.getStudents() + ",\"courses\":" + r.getCourses() +
+                            ",\"enrollments\":" + r.getEnrollments() + ",\"bytes\":" + r.getFileBytes() + "}");
+            } else {
+                out.println(r);
+            }
+            return OK;
+        } catch (IOException | SQLException e) {
+            return error(FAILED, "Snapshot Error: " + e.getMessage());
+        }
+    }
+
+    private int serve(Map<String, String> o) {
+        String host = o.getOrDefault("host", AppConfig.get("educonnect.server.host", "127.0.0.1"));
+        int port = o.containsKey("port") ? id(o, "port") : AppConfig.getInt("educonnect.server.port", 8080);
+        EnrollmentWriteQueue writes = AppConfig.getBoolean("educonnect.writeBehind.enabled", false) ? EnrollmentWriteQueue.fromConfig(eDao) : null;
+        ApiServer server = new ApiServer(sDao, cDao, eDao, reports, writes, sync);
+        if (sync != null) sync.start();
+        try {
+            InetSocketAddress addr = server.start(host, port);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                server.stop(2);
+                if (writes != null) writes.close();
+                if (sync != null) sync.close();
+            }, "educonnect-server-stop"));
+            System.err.println("Listening on http://" + addr.getHostString() + ":" + addr.getPort() + " (Ctrl+C to stop)");
+            server.awaitStop();
+            return OK;
+        } catch (IOException e) {
+            if (writes != null) writes.close();
+            if (sync != null) sync.close();
+            return error(FAILED, "Server Error: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            server.stop(0);
+            if (writes != null) writes.close();
+            if (sync != null) sync.close();
+            return OK;
+        }
+    }
+
+    private int report(String action, Map<String, String> o) {
+        switch (action) {
+            case "courses":
+                for (CourseFill f : reports.getCourseFill()) {
+                    out.println(json ? Json.courseFill(new StringBuilder(96), f) : csv(f.getCourseId(), f.getCourseName(), f.getEnrollments(), f.getStudents()));
+                }
+                return OK;
+            case "daily": {
+                LocalDate from = Dates.toLocalDate(Dates.parseDay(o.get("from")));
+                LocalDate to = Dates.toLocalDate(Dates.parseDay(o.get("to")));
+                for (DailyCount d : reports.getDailyCounts(from, to)) {
+                    out.println(json ? Json.dailyCount(new StringBuilder(48), d) : csv(d.getDay(), d.getEnrollments()));
+                }
+                return OK;
+            }
+            default: return usage("unknown report: " + action);
+        }
+    }
+
+    private int stats() {
+        for (OperationMetrics op : DaoMetrics.getOperations()) {
+            if (op.getCalls() == 0) continue;
+            LatencyHistogram t = op.getTotal();
+            if (json) {
+                StringBuilder sb = new StringBuilder(256).append("{\"operation\":");
+                Json.quote(sb, op.getName()).append(",\"calls\":").append(op.getCalls()).append(",\"rows\":").append(op.getRows())
+                    .append(",\"errors\":").append(op.getErrors())
+                    .append(",\"p50\":").append(DaoMetrics.micros(t.getPercentile(0.50)))
+                    .append(",\"p99\":").append(DaoMetrics.micros(t.getPercentile(0.99)))
+                    .append(",\"p999\":").append(DaoMetrics.micros(t.getPercentile(0.999)))
+                    .append(",\"max\":").append(DaoMetrics.micros(t.getMax()))
+                    .append(",\"connectP99\":").append(DaoMetrics.micros(op.getConnect().getPercentile(0.99)))
+                    .append(",\"executeP99\":").append(DaoMetrics.micros(op.getExecute().getPercentile(0.99)))
+                    .append(",\"mapP99\":").append(DaoMetrics.micros(op.getMap().getPercentile(0.99)))
+                    .append(",\"errorsBySqlState\":{");
+                boolean first = true;
+                for (Map.Entry<String, Long> e : op.getErrorsBySqlState().entrySet()) {
+                    if (!first) sb.append(',');
+                    first = false;
+                    Json.quote(sb, e.getKey()).append(':').append(e.getValue());
+                }
+                out.println(sb.append("}}"));
+            } else {
+                out.println(csv(op.getName(), op.getCalls(), op.getRows(), op.getErrors(),
+                                DaoMetrics.micros(t.getPercentile(0.50)), DaoMetrics.micros(t.getPercentile(0.99)),
+                                DaoMetrics.micros(t.getPercentile(0.999)), DaoMetrics.micros(t.getMax()),
+                                DaoMetrics.micros(op.getConnect().getPercentile(0.99)),
+                                DaoMetrics.micros(op.getExecute().getPercentile(0.99)),
+                                DaoMetrics.micros(op.getMap().getPercentile(0.99))));
+            }
+        }
+        return OK;
+    }
+
+    private void print(Student s) {
+        if (json) {
+            out.println(Json.student(new StringBuilder(128), s));
+        } else {
+            out.println(csv(s.getStudentId(), s.getName(), s.getEmail(), s.getPhone(), Dates.toLocalDate(s.getDobDay()), s.getGender()));
+        }
+    }
+
+    private void print(Course c) {
+        if (json) {
+            out.println(Json.course(new StringBuilder(64), c));
+        } else {
+            out.println(csv(c.getCourseId(), c.getCourseName(), c.getDuration()));
+        }
+    }
+
+    private void print(Enrollment e) {
+        if (json) {
+            out.println(Json.enrollment(new StringBuilder(80), e));
+        } else {
+            out.println(csv(e.getEnrollmentId(), e.getStudentId(), e.getCourseId(), Dates.toLocalDate(e.getEnrollDay())));
+        }
+    }
+
+    /** Running on a read-only snapshot: there is no database to open a session on or import into. */
+    private boolean isSnapshot() {
+        return DaoMetrics.unwrap(sDao) instanceof SnapshotStudentDAO;
+    }
+
+    private int ok(int id) {
+        out.println(json ? "{\"status\":\"ok\",\"id\":" + id + "}" : "OK," + id);
+        return OK;
+    }
+
+    private int error(int code, String message) {
+        if (json) out.println("{\"status\":\"error\",\"code\":" + code + ",\"message\":" + Json.quote(message) + "}");
+        else out.println(csv("ERROR", code, message));
+        return code;
+    }
+
+    private int usage(String message) {
+        int code = error(USAGE, message);
+        System.err.println(USAGE_TEXT);
+        return code;
+    }
+
+    private static String csv(Object... fields) {
+        StringBuilder sb = new StringBuilder(64);
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) sb.append(',');
+            String v = fields[i] == null ? "" : fields[i].toString();
+            if (v.indexOf(',') >= 0 || v.indexOf('"') >= 0 || v.indexOf('\n') >= 0 || v.indexOf('\r') >= 0) {
+                sb.append('"').append(v.replace("\"", "\"\"")).append('"');
+            } else {
+                sb.append(v);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static Map<String, String> options(List<String> t) {
+        Map<String, String> o = new HashMap<>();
+        for (int i = 0; i < t.size(); i++) {
+            String k = t.get(i);
+            if (!k.startsWith("--")) throw new IllegalArgumentException("unexpected argument: " + k);
+            if (i + 1 >= t.size()) throw new IllegalArgumentException(k + " needs a value");
+            o.put(k.substring(2).toLowerCase(), t.get(++i));
+        }
+        return o;
+    }
+
+    private static String required(Map<String, String> o, String key) {
+        String v = o.get(key);
+        if (v == null || v.isBlank()) throw new IllegalArgumentException("--" + key + " is required");
+        return v;
+    }
+
+    private static int id(Map<String, String> o, String key) {
+        String v = required(o, key);
+        try {
+            return Integer.parseInt(v.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("--" + key + " must be a number: " + v);
+        }
+    }
+
+    private static Date date(String s) {
+        return Dates.parse(s);
+    }
+
+    /** Splits a script line on whitespace, keeping "double" or 'single' quoted text together. */
+    static List<String> tokenize(String line) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder cur = new StringBuilder();
+        boolean inToken = false;
+        char quote = 0;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quote != 0) {
+                if (c == quote) quote = 0; else cur.append(c);
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+                inToken = true;
+            } else if (Character.isWhitespace(c)) {
+                if (inToken) { tokens.add(cur.toString()); cur.setLength(0); inToken = false; }
+            } else {
+                cur.append(c);
+                inToken = true;
+            }
+        }
+        if (quote != 0) throw new IllegalArgumentException("unterminated quote");
+        if (inToken) tokens.add(cur.toString());
+        return tokens;
+    }
+}
@@ -1,42 +1,252 @@
 package com.EduConnect.app;
 
-import com.EduConnect.dao.CourseDAO;
+import com.EduConnect.async.AsyncDAO;
+import com.EduConnect.cache.CachedCourseDAO;
+import com.EduConnect.cache.CachedStudentDAO;
+import com.EduConnect.dao.CascadeDeleter;
+import com.EduConnect.dao.CourseRepository;
 import com.EduConnect.dao.EnrollmentDAO;
-import com.EduConnect.dao.StudentDAO;
+import com.EduConnect.dao.EnrollmentRepository;
+import com.EduConnect.dao.ShardedEnrollmentDAO;
+import com.EduConnect.dao.StudentRepository;
+import com.EduConnect.dao.UncheckedSQLException;
+import com.EduConnect.dao.UniqueKeys;
+import com.EduConnect.export.Exporter;
+import com.EduConnect.importer.BulkImporter;
+import com.EduConnect.index.EnrollmentIndex;
+import com.EduConnect.index.IndexedEnrollmentDAO;
+import com.EduConnect.metrics.DaoMetrics;
 import com.EduConnect.model.Course;
 import com.EduConnect.model.Enrollment;
 import com.EduConnect.model.Student;
+import com.EduConnect.report.CourseFill;
+import com.EduConnect.report.DailyCount;
+import com.EduConnect.report.EnrollmentReports;
+import com.EduConnect.report.EnrollmentSummary;
+import com.EduConnect.search.SearchableStudentDAO;
+import com.EduConnect.snapshot.Snapshot;
+import com.EduConnect.snapshot.SnapshotCourseDAO;
+import com.EduConnect.snapshot.SnapshotEnrollmentDAO;
+import com.EduConnect.snapshot.SnapshotReports;
+import com.EduConnect.snapshot.SnapshotStudentDAO;
+import com.EduConnect.sync.ChangePoller;
+import com.EduConnect.util.AppConfig;
 import com.EduConnect.util.DatabaseConnection;
+import com.EduConnect.util.Dates;
+import com.EduConnect.util.PoolStats;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.sql.Date;
-import java.text.SimpleDateFormat;
+import java.sql.SQLException;
 import java.util.List;
 import java.util.Scanner;
+import java.util.function.BiFunction;
+import java.util.function.ToIntFunction;
 
 public class EduConnectApp {
-    private static StudentDAO sDao = new StudentDAO();
-    private static CourseDAO cDao = new CourseDAO();
-    private static EnrollmentDAO eDao = new EnrollmentDAO();
+    // Set when running read-only on a snapshot file; then nothing below touches the database.
+    private static Snapshot snapshot = openSnapshot();
+    private static StudentRepository sDao = DaoMetrics.instrument(StudentRepository.class, "student",
+            snapshot != null ? new SnapshotStudentDAO(snapshot)
+            : AppConfig.getBoolean("educonnect.search.students", false) ? new SearchableStudentDAO() : new CachedStudentDAO());
+    private static CourseRepository cDao = DaoMetrics.instrument(CourseRepository.class, "course",
+            snapshot != null ? new SnapshotCourseDAO(snapshot) : new CachedCourseDAO());
+    // Sharded enrollments always keep a summary: the reports' SQL would only see the primary's table.
+    private static EnrollmentSummary summary = snapshot == null && (AppConfig.getBoolean("educonnect.report.summary", false) || DatabaseConnection.getShardCount() > 0)
+            ? new EnrollmentSummary() : null;
+    private static EnrollmentRepository eDao = DaoMetrics.instrument(EnrollmentRepository.class, "enrollment",
+            snapshot != null ? new SnapshotEnrollmentDAO(snapshot)
+            : DatabaseConnection.getShardCount() > 0 ? openShards()
+            : AppConfig.getBoolean("educonnect.index.enrollments", false) ? new IndexedEnrollmentDAO(new EnrollmentIndex(), summary) : new EnrollmentDAO(summary));
+    private static EnrollmentReports reports = snapshot != null ? new SnapshotReports(snapshot) : new EnrollmentReports(cDao, summary);
+    private static CascadeDeleter cascade = new CascadeDeleter(sDao, cDao, eDao);
+    private static AsyncDAO async = new AsyncDAO(sDao, cDao, eDao);
 
     private static Scanner sc = new Scanner(System.in);
 
-    private static final SimpleDateFormat DF = new SimpleDateFormat("dd-MM-yyyy");
+    private static final int PAGE_SIZE = AppConfig.getInt("educonnect.pageSize", 20);
 
     public static void main(String[] args) {
+        DaoMetrics.startDumperFromConfig();
+        if (snapshot == null) {
+            try {
+                DatabaseConnection.startRouting();
+            } catch (IllegalArgumentException e) {
+                System.err.println("Database Config Error: " + e.getMessage());
+                System.exit(1);
+            }
+        }
+        // Mark the change log before loading, so changes made while the indexes load are picked up.
+        ChangePoller sync = openSync();
+        if (args.length > 0) {
+            loadIndexes();
+            PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16));
+            int code = new CommandRunner(sDao, cDao, eDao, reports, sync, out).execute(args);
+            DaoMetrics.stopDumper();
+            DatabaseConnection.shutdown();
+            System.exit(code);
+        }
         System.out.println("--- EduConnect ---");
+        if (snapshot != null) {
+            System.out.println("Read-only " + snapshot);
+        } else {
+            try { DatabaseConnection.warmUp(); } catch (SQLException e) { System.err.println("Connection Pool Warm-up Error: " + e.getMessage()); }
+        }
+        loadIndexes();
+        if (sync != null) sync.start();
         int ch;
         do {
-            System.out.println("\nMain Menu:\n1. Students\n2. Courses\n3. Enrollments\n4. Exit");
+            System.out.println("\nMain Menu:\n1. Students\n2. Courses\n3. Enrollments\n4. Bulk Import\n5. Export\n6. Reports\n7. Statistics\n8. Exit");
             System.out.print("\nChoice: ");
             ch = getInt();
             switch (ch) {
                 case 1: handleStudentOps(); break;
                 case 2: handleCourseOps(); break;
                 case 3: handleEnrollmentOps(); break;
-                case 4: System.out.println("Exiting EduConnect!"); break;
+                case 4: bulkImport(); break;
+                case 5: export(); break;
+                case 6: handleReports(); break;
+                case 7: showStatistics(sync); break;
+                case 8: System.out.println("Exiting EduConnect!"); break;
                 default: System.out.println("Invalid option.");
             }
-        } while (ch != 4);
+        } while (ch != 8);
         sc.close();
+        if (sync != null) sync.close();
+        async.close();
+        DaoMetrics.stopDumper();
+        DatabaseConnection.shutdown();
+    }
+
+    private static Snapshot openSnapshot() {
+        String file = AppConfig.get("educonnect.snapshot.file", null);
+        if (file == null || file.isBlank()) return null;
+        try {
+            Snapshot s = Snapshot.open(Paths.get(file.trim()));
+            DatabaseConnection.disable("No database in read-only snapshot mode");
+            return s;
+        } catch (IOException e) {
+            System.err.println("Snapshot Error: " + e.getMessage());
+            System.exit(1);
+            return null;
+        }
+    }
+
+    private static ShardedEnrollmentDAO openShards() {
+        try {
+            return ShardedEnrollmentDAO.fromConfig(summary);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Shard Config Error: " + e.getMessage());
+            System.exit(1);
+            return null;
+        }
+    }
+
+    private static ChangePoller openSync() {
+        if (snapshot != null) return null;
+        try {
+            return ChangePoller.fromConfig(sDao, cDao, eDao, summary);
+        } catch (SQLException e) {
+            System.err.println("Change Sync Error: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static void loadIndexes() {
+        try {
+            if (DaoMetrics.unwrap(sDao) instanceof SearchableStudentDAO searchable) searchable.load();
+            if (DaoMetrics.unwrap(eDao) instanceof IndexedEnrollmentDAO indexed) indexed.load();
+            if (summary != null) summary.load(eDao);
+        } catch (UncheckedSQLException e) {
+            // Serving searches and reports from a half-loaded index would be silently wrong.
+            System.err.println("Index Load Error: " + e.getMessage());
+            System.exit(1);
+        }
+        if (snapshot == null) UniqueKeys.load(sDao, eDao);
+    }
+
+    private static void bulkImport() {
+        if (snapshot != null) { System.out.println("Import is not available on a read-only snapshot."); return; }
+        System.out.print("Entity (students/courses/enrollments): "); String en = sc.nextLine().trim();
+        BulkImporter.Entity entity;
+        try { entity = BulkImporter.Entity.parse(en); } catch (IllegalArgumentException e) { System.out.println("Invalid entity."); return; }
+        System.out.print("CSV File Path: "); Path file = Paths.get(sc.nextLine().trim());
+        System.out.print("Batch Size (press Enter for " + BulkImporter.DEFAULT_BATCH_SIZE + "): "); String b = sc.nextLine().trim();
+        int batch = BulkImporter.DEFAULT_BATCH_SIZE;
+        if (!b.isEmpty()) {
+            try { batch = Integer.parseInt(b); } catch (NumberFormatException e) { System.out.println("Invalid batch size. Using " + batch + "."); }
+        }
+        try {
+            System.out.println(new BulkImporter(sDao, cDao, eDao, batch).importFile(entity, file));
+            if (DaoMetrics.unwrap(sDao) instanceof SearchableStudentDAO searchable) searchable.refresh();
+            if (DaoMetrics.unwrap(eDao) instanceof IndexedEnrollmentDAO indexed) indexed.refresh();
+            if (summary != null) summary.refresh(eDao);
+        } catch (IllegalArgumentException | IOException | SQLException e) {
+            System.out.println("Import failed: " + e.getMessage());
+        }
+    }
+
+    private static void export() {
+        System.out.print("Entity (students/courses/enrollments): "); String en = sc.nextLine().trim();
+        BulkImporter.Entity entity;
+        try { entity = BulkImporter.Entity.parse(en); } catch (IllegalArgumentException e) { System.out.println("Invalid entity."); return; }
+        System.out.print("Output File (.csv, .jsonl or .bin, add .gz to compress): "); Path file = Paths.get(sc.nextLine().trim());
+        try {
+            System.out.println(new Exporter(sDao, cDao, eDao).export(entity, file));
+        } catch (IOException | SQLException e) {
+            System.out.println("Export failed: " + e.getMessage());
+        }
+    }
+
+    private static void handleReports() {
+        int ch;
+        do {
+            System.out.println("\nReport Menu:\n1. Course Fill\n2. Enrollments Per Day\n3. Back");
+            System.out.print("\nChoice: ");
+            ch = getInt();
+            switch (ch) {
+                case 1: {
+                    List<CourseFill> fill = reports.getCourseFill();
+                    if (fill.isEmpty()) System.out.println("No records.");
+                    fill.forEach(System.out::println);
+                    break;
+                }
+                case 2: {
+                    Date from = getDate("From (DD-MM-YYYY, press Enter for the earliest): ");
+                    Date to = getDate("To (DD-MM-YYYY, press Enter for the latest): ");
+                    List<DailyCount> days = reports.getDailyCounts(from == null ? null : from.toLocalDate(), to == null ? null : to.toLocalDate());
+                    if (days.isEmpty()) System.out.println("No records.");
+                    days.forEach(System.out::println);
+                    break;
+                }
+                case 3: break;
+                default: System.out.println("Invalid option.");
+            }
+        } while (ch != 3);
+    }
+
+    private static void showStatistics(ChangePoller sync) {
+        System.out.println(snapshot != null ? snapshot : "Connection Pool: " + DatabaseConnection.getPoolStats());
+        if (snapshot == null) {
+            List<PoolStats> replicas = DatabaseConnection.getReplicaPoolStats();
+            for (int i = 0; i < replicas.size(); i++) System.out.println("Replica " + (i + 1) + " Pool: " + replicas.get(i));
+            if (!replicas.isEmpty()) System.out.println("Routed Reads: " + DatabaseConnection.getReadStats());
+            List<PoolStats> shards = DatabaseConnection.getShardPoolStats();
+            for (int i = 0; i < shards.size(); i++) System.out.println("Shard " + (i + 1) + " Pool: " + shards.get(i));
+        }
+        if (DaoMetrics.unwrap(sDao) instanceof CachedStudentDAO cached) System.out.println(cached.getCacheStats());
+        if (DaoMetrics.unwrap(cDao) instanceof CachedCourseDAO cached) System.out.println(cached.getCacheStats());
+        if (DaoMetrics.unwrap(sDao) instanceof SearchableStudentDAO searchable) System.out.println("Student Search Index: " + searchable.getIndex().size() + " rows");
+        if (summary != null) System.out.println("Enrollment Summary: " + summary.size() + " rows");
+        if (DaoMetrics.unwrap(eDao) instanceof IndexedEnrollmentDAO indexed) System.out.println("Enrollment Index: " + indexed.getIndex().size() + " rows");
+        if (sync != null) System.out.println("Change Sync: " + sync.getStats());
+        if (snapshot == null && UniqueKeys.isEnabled()) System.out.println("Unique Filter: " + UniqueKeys.getStats());
+        System.out.println("\nDAO Operations (microseconds):\n" + DaoMetrics.report());
     }
 
     private static int getInt() {
@@ -49,6 +259,19 @@ public class EduConnectApp {
         return i;
     }
 
+    private static <T> void showPaged(BiFunction<Integer, Integer, List<T>> pager, ToIntFunction<T> idOf) {
+        int lastId = 0;
+        while (true) {
+            List<T> page = pager.apply(lastId, PAGE_SIZE);
+            if (page.isEmpty()) { if (lastId == 0) System.out.println("No records."); return; }
+            page.forEach(System.out::println);
+            if (page.size() < PAGE_SIZE) return;
+            lastId = idOf.applyAsInt(page.get(page.size() - 1));
+            System.out.print("-- Enter for next page, 'q' to stop: ");
+            if (sc.nextLine().trim().equalsIgnoreCase("q")) return;
+        }
+    }
+
     private static Date getDate(String p) {
         String dateString;
         Date parsedDate = null;
@@ -63,7 +286,7 @@ public class EduConnectApp {
                 isValidDate = true;
             } else {
                 try {
-                    parsedDate = new Date(DF.parse(dateString).getTime());
+                    parsedDate = Dates.parse(dateString);
                     isValidDate = true;
                 } catch (Exception e) {
                     System.out.println("Invalid date (DD-MM-YYYY). Please try again or press Enter to skip.");
@@ -78,19 +301,20 @@ public class EduConnectApp {
     private static void handleStudentOps() {
         int ch;
         do {
-            System.out.println("\nStudent Menu:\n1. Add\n2. View All\n3. View By ID\n4. Update\n5. Delete\n6. Back");
+            System.out.println("\nStudent Menu:\n1. Add\n2. View All\n3. View By ID\n4. Search\n5. Update\n6. Delete\n7. Back");
             System.out.print("\nChoice: ");
             ch = getInt();
             switch (ch) {
                 case 1: addStudent(); break;
-                case 2: sDao.getAllStudents().forEach(System.out::println); break;
+                case 2: showPaged(sDao::getStudentsPage, Student::getStudentId); break;
                 case 3: viewStudentById(); break;
-                case 4: updateStudent(); break;
-                case 5: deleteStudent(); break;
-                case 6: break;
+                case 4: searchStudents(); break;
+                case 5: updateStudent(); break;
+                case 6: deleteStudent(); break;
+                case 7: break;
                 default: System.out.println("Invalid option.");
             }
-        } while (ch != 6);
+        } while (ch != 7);
     }
 
     private static void addStudent() {
@@ -107,7 +331,7 @@ public class EduConnectApp {
         System.out.print("Enter Phone: "); String p = sc.nextLine();
         Date d = getDate("Enter DOB (DD-MM-YYYY): ");
         System.out.print("Enter Gender: "); String g = sc.nextLine();
-        System.out.println(sDao.addStudent(new Student(n, e, p, d, g)) ? "Added." : "Failed.");
+        System.out.println(sDao.addStudentChecked(new Student(n, e, p, d, g)).getMessage());
     }
 
     private static void viewStudentById() {
@@ -116,6 +340,14 @@ public class EduConnectApp {
         System.out.println(s != null ? s : "Not found.");
     }
 
+    private static void searchStudents() {
+        System.out.print("Name, email or phone contains: "); String q = sc.nextLine().trim();
+        if (q.isEmpty()) { System.out.println("Nothing to search for."); return; }
+        List<Student> found = sDao.searchStudents(q, PAGE_SIZE);
+        if (found.isEmpty()) System.out.println("No matches.");
+        found.forEach(System.out::println);
+    }
+
     private static void updateStudent() {
         System.out.print("ID to update: "); int id = getInt();
         Student s = sDao.getStudentById(id);
@@ -171,12 +403,13 @@ public class EduConnectApp {
             }
         }
 
-        System.out.println(sDao.updateStudent(s) ? "Updated." : "Failed.");
+        System.out.println(sDao.updateStudentChecked(s).getMessage());
     }
 
     private static void deleteStudent() {
         System.out.print("ID to delete: "); int id = getInt();
-        System.out.println(sDao.deleteStudent(id) ? "Deleted." : "Failed.");
+        int n = cascade.deleteStudent(id);
+        System.out.println(n >= 0 ? "Deleted, along with " + n + " enrollment(s)." : "Failed.");
     }
 
     private static void handleCourseOps() {
@@ -187,7 +420,7 @@ public class EduConnectApp {
             ch = getInt();
             switch (ch) {
                 case 1: addCourse(); break;
-                case 2: cDao.getAllCourses().forEach(System.out::println); break;
+                case 2: showPaged(cDao::getCoursesPage, Course::getCourseId); break;
                 case 3: viewCourseById(); break;
                 case 4: updateCourse(); break;
                 case 5: deleteCourse(); break;
@@ -235,12 +468,13 @@ public class EduConnectApp {
             }
         }
 
-        System.out.println(cDao.updateCourse(c) ? "Updated." : "Failed.");
+        System.out.println(cDao.updateCourseChecked(c).getMessage());
     }
 
     private static void deleteCourse() {
         System.out.print("ID to delete: "); int id = getInt();
-        System.out.println(cDao.deleteCourse(id) ? "Deleted." : "Failed.");
+        int n = cascade.deleteCourse(id);
+        System.out.println(n >= 0 ? "Deleted, along with " + n + " enrollment(s)." : "Failed.");
     }
 
     private static void handleEnrollmentOps() {
@@ -251,7 +485,7 @@ public class EduConnectApp {
             ch = getInt();
             switch (ch) {
                 case 1: addEnrollment(); break;
-                case 2: eDao.getAllEnrollments().forEach(System.out::println); break;
+                case 2: showPaged(eDao::getEnrollmentsPage, Enrollment::getEnrollmentId); break;
                 case 3: viewEnrollmentById(); break;
                 case 4: viewEnrollmentsByStudentId(); break;
                 case 5: viewEnrollmentsByCourseId(); break;
@@ -268,9 +502,7 @@ public class EduConnectApp {
         System.out.print("Course ID: "); int cId = getInt();
         Date d = getDate("Enrollment Date (DD-MM-YYYY): ");
         if (d == null) return;
-        if (sDao.getStudentById(sId) == null) { System.out.println("Student not found."); return; }
-        if (cDao.getCourseById(cId) == null) { System.out.println("Course not found."); return; }
-        System.out.println(eDao.addEnrollment(new Enrollment(sId, cId, d)) ? "Added." : "Failed.");
+        System.out.println(eDao.addEnrollmentChecked(new Enrollment(sId, cId, d)).getMessage());
     }
 
     private static void viewEnrollmentById() {
@@ -280,12 +512,22 @@ public class EduConnectApp {
 
     private static void viewEnrollmentsByStudentId() {
         System.out.print("Student ID: "); int sId = getInt();
-        eDao.getEnrollmentsByStudentId(sId).forEach(System.out::println);
+        AsyncDAO.StudentView v = async.getStudentView(sId).join();
+        if (v.getStudent() != null) System.out.println("Student: " + v.getStudent().getName());
+        for (Enrollment e : v.getEnrollments()) {
+            Course c = v.getCourse(e.getCourseId());
+            System.out.println(e + (c != null ? ", Course: " + c.getCourseName() : ""));
+        }
     }
 
     private static void viewEnrollmentsByCourseId() {
         System.out.print("Course ID: "); int cId = getInt();
-        eDao.getEnrollmentsByCourseId(cId).forEach(System.out::println);
+        AsyncDAO.CourseView v = async.getCourseView(cId).join();
+        if (v.getCourse() != null) System.out.println("Course: " + v.getCourse().getCourseName());
+        for (Enrollment e : v.getEnrollments()) {
+            Student s = v.getStudent(e.getStudentId());
+            System.out.println(e + (s != null ? ", Student: " + s.getName() : ""));
+        }
     }
 
     private static void updateEnrollment() {
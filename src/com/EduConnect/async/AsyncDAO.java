@@ -0,0 +1,165 @@
+package com.EduConnect.async;
+
+import com.EduConnect.dao.CourseRepository;
+import com.EduConnect.dao.EnrollmentRepository;
+import com.EduConnect.dao.StudentRepository;
+import com.EduConnect.model.Course;
+import com.EduConnect.model.Enrollment;
+import com.EduConnect.model.Student;
+import com.EduConnect.util.PoolConfig;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking view of the repositories. Each call runs on its own virtual thread; a semaphore sized
+ * to the connection pool keeps the number of calls in flight at what the pool can serve, so a large
+ * fan-out queues here instead of timing out on a pool borrow.
+ */
+public class AsyncDAO implements AutoCloseable {
+    private final StudentRepository sDao;
+    private final CourseRepository cDao;
+    private final EnrollmentRepository eDao;
+    private final Semaphore permits;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public AsyncDAO(StudentRepository sDao, CourseRepository cDao, EnrollmentRepository eDao) {
+        this(sDao, cDao, eDao, PoolConfig.fromConfig().getMaxSize());
+    }
+
+    public AsyncDAO(StudentRepository sDao, CourseRepository cDao, EnrollmentRepository eDao, int maxConcurrency) {
+        if (maxConcurrency < 1) throw new IllegalArgumentException("Concurrency must be positive: " + maxConcurrency);
+        this.sDao = sDao;
+        this.cDao = cDao;
+        this.eDao = eDao;
+        this.permits = new Semaphore(maxConcurrency);
+    }
+
+    public CompletableFuture<Student> getStudentById(int id) {
+        return submit(() -> sDao.getStudentById(id));
+    }
+
+    public CompletableFuture<Course> getCourseById(int id) {
+        return submit(() -> cDao.getCourseById(id));
+    }
+
+    public CompletableFuture<Enrollment> getEnrollmentById(int id) {
+        return submit(() -> eDao.getEnrollmentById(id));
+    }
+
+    public CompletableFuture<List<Enrollment>> getEnrollmentsByStudentId(int studentId) {
+        return submit(() -> eDao.getEnrollmentsByStudentId(studentId));
+    }
+
+    public CompletableFuture<List<Enrollment>> getEnrollmentsByCourseId(int courseId) {
+        return submit(() -> eDao.getEnrollmentsByCourseId(courseId));
+    }
+
+    /** Looks up every distinct student and course id in parallel; ids that do not exist are left out of the result. */
+    public CompletableFuture<Resolved> resolve(Collection<Integer> studentIds, Collection<Integer> courseIds) {
+        CompletableFuture<Map<Integer, Student>> students = resolveAll(studentIds, this::getStudentById);
+        CompletableFuture<Map<Integer, Course>> courses = resolveAll(courseIds, this::getCourseById);
+        return students.thenCombine(courses, Resolved::new);
+    }
+
+    /** A student together with their enrollments and the courses those point at. */
+    public CompletableFuture<StudentView> getStudentView(int studentId) {
+        CompletableFuture<List<Enrollment>> enrollments = getEnrollmentsByStudentId(studentId);
+        CompletableFuture<Map<Integer, Course>> courses = enrollments.thenCompose(list ->
+                resolveAll(list.stream().map(Enrollment::getCourseId).toList(), this::getCourseById));
+        CompletableFuture<Student> student = getStudentById(studentId);
+        return CompletableFuture.allOf(student, courses)
+                .thenApply(v -> new StudentView(student.join(), enrollments.join(), courses.join()));
+    }
+
+    /** A course together with its enrollments and the students enrolled. */
+    public CompletableFuture<CourseView> getCourseView(int courseId) {
+        CompletableFuture<List<Enrollment>> enrollments = getEnrollmentsByCourseId(courseId);
+        CompletableFuture<Map<Integer, Student>> students = enrollments.thenCompose(list ->
+                resolveAll(list.stream().map(Enrollment::getStudentId).toList(), this::getStudentById));
+        CompletableFuture<Course> course = getCourseById(courseId);
+        return CompletableFuture.allOf(course, students)
+                .thenApply(v -> new CourseView(course.join(), enrollments.join(), students.join()));
+    }
+
+    public int getAvailablePermits() { return permits.availablePermits(); }
+
+    @Override
+    public void close() {
+        executor.close();
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> call) {
+        return CompletableFuture.supplyAsync(() -> {
+            permits.acquireUninterruptibly();
+            try { return call.get(); } finally { permits.release(); }
+        }, executor);
+    }
+
+    private static <T> CompletableFuture<Map<Integer, T>> resolveAll(Collection<Integer> ids, IntFunction<CompletableFuture<T>> lookup) {
+        Set<Integer> distinct = new LinkedHashSet<>(ids);
+        Map<Integer, CompletableFuture<T>> pending = new LinkedHashMap<>();
+        for (int id : distinct) pending.put(id, lookup.apply(id));
+        return CompletableFuture.allOf(pending.values().toArray(new CompletableFuture<?>[0])).thenApply(v -> {
+            Map<Integer, T> found = new LinkedHashMap<>();
+            pending.forEach((id, f) -> { T t = f.join(); if (t != null) found.put(id, t); });
+            return found;
+        });
+    }
+
+    public static final class Resolved {
+        private final Map<Integer, Student> students;
+        private final Map<Integer, Course> courses;
+
+        Resolved(Map<Integer, Student> students, Map<Integer, Course> courses) {
+            this.students = students;
+            this.courses = courses;
+        }
+
+        public Map<Integer, Student> getStudents() { return students; }
+        public Map<Integer, Course> getCourses() { return courses; }
+        public Student getStudent(int id) { return students.get(id); }
+        public Course getCourse(int id) { return courses.get(id); }
+    }
+
+    public static final class StudentView {
+        private final Student student;
+        private final List<Enrollment> enrollments;
+        private final Map<Integer, Course> courses;
+
+        StudentView(Student student, List<Enrollment> enrollments, Map<Integer, Course> courses) {
+            this.student = student;
+            this.enrollments = enrollments;
+            this.courses = courses;
+        }
+
+        public Student getStudent() { return student; }
+        public List<Enrollment> getEnrollments() { return enrollments; }
+        public Course getCourse(int courseId) { return courses.get(courseId); }
+    }
+
+    public static final class CourseView {
+        private final Course course;
+        private final List<Enrollment> enrollments;
+        private final Map<Integer, Student> students;
+
+        CourseView(Course course, List<Enrollment> enrollments, Map<Integer, Student> students) {
+            this.course = course;
+            this.enrollments = enrollments;
+            this.students = students;
+        }
+
+        public Course getCourse() { return course; }
+        public List<Enrollment> getEnrollments() { return enrollments; }
+        public Student getStudent(int studentId) { return students.get(studentId); }
+    }
+}
@@ -0,0 +1,259 @@
+package com.EduConnect.async;
+
+import com.EduConnect.dao.EnrollmentRepository;
+import com.EduConnect.dao.EnrollmentResult;
+import com.EduConnect.dao.UnitOfWork;
+import com.EduConnect.model.Enrollment;
+import com.EduConnect.util.AppConfig;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Write-behind path for enrollment inserts and updates. Callers queue a write and get a future; one
+ * writer thread takes whatever has queued up (up to maxBatch, lingering up to maxDelayMs for more)
+ * and runs it through the repository in a single transaction, so a burst of writes shares one commit
+ * and one log flush instead of paying for one each. Futures complete once that commit is done. If it
+ * fails, or the repository reports a write in it as failed (the DAOs catch their own SQL errors), the
+ * batch is rolled back and replayed one write per transaction so only the bad writes fail.
+ *
+ * <p>The queue is bounded: when it is full, a caller waits up to offerTimeoutMs and then gets a
+ * future failed with {@link RejectedExecutionException}. The writer fills in the enrollment id of an
+ * insert, so callers should leave the Enrollment alone until its future completes. Futures complete
+ * on the writer thread; dependent stages that block should use an async variant.
+ */
+public class EnrollmentWriteQueue implements AutoCloseable {
+    // The writer is never interrupted (that can close a file-backed database's channel mid-write),
+    // so it polls and checks for close() this often while idle.
+    private static final long IDLE_POLL_MS = 100;
+
+    private final EnrollmentRepository eDao;
+    private final BlockingQueue<Write<?>> queue;
+    private final int maxBatch;
+    private final long maxDelayNanos;
+    private final long offerTimeoutMs;
+    private final Thread writer;
+    private volatile boolean closed;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder replays = new LongAdder();
+    private volatile int largestBatch;
+
+    public EnrollmentWriteQueue(EnrollmentRepository eDao, int capacity, int maxBatch, long maxDelayMs, long offerTimeoutMs) {
+        if (capacity < 1 || maxBatch < 1 || maxDelayMs < 0 || offerTimeoutMs < 0) {
+            throw new IllegalArgumentException("Invalid write queue settings: capacity " + capacity + ", maxBatch " + maxBatch +
+                                               ", maxDelayMs " + maxDelayMs + ", offerTimeoutMs " + offerTimeoutMs);
+        }
+        this.eDao = eDao;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxBatch = maxBatch;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.writer = new Thread(this::run, "educonnect-write-behind");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public static EnrollmentWriteQueue fromConfig(EnrollmentRepository eDao) {
+        return new EnrollmentWriteQueue(eDao, AppConfig.getInt("educonnect.writeBehind.queueSize", 10_000),
+                                        AppConfig.getInt("educonnect.writeBehind.maxBatch", 256),
+                                        AppConfig.getLong("educonnect.writeBehind.maxDelayMs", 2),
+                                        AppConfig.getLong("educonnect.writeBehind.offerTimeoutMs", 5_000));
+    }
+
+    /** Queues a checked insert; the future holds the same result addEnrollmentChecked would return. */
+    public CompletableFuture<EnrollmentResult> addEnrollment(Enrollment e) {
+        int originalId = e.getEnrollmentId();
+        return submit(new Write<>(repo -> {
+            // A replay after a rolled-back batch must not leave the rolled-back id behind.
+            e.setEnrollmentId(originalId);
+            return repo.addEnrollmentChecked(e);
+        }, EnrollmentResult.FAILED));
+    }
+
+    /** Queues an update; the future holds true if the row was updated. */
+    public CompletableFuture<Boolean> updateEnrollment(Enrollment e) {
+        // false also means no such row; that costs a replay but leaves nothing to roll back.
+        return submit(new Write<>(repo -> repo.updateEnrollment(e), false));
+    }
+
+    public int getQueued() { return queue.size(); }
+
+    public Stats getStats() {
+        return new Stats(queue.size(), submitted.sum(), rejected.sum(), written.sum(), failed.sum(), batches.sum(),
+                         replays.sum(), largestBatch);
+    }
+
+    /** Stops taking writes, commits everything already queued, then stops the writer. */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Writes offered while the writer was finishing up.
+        Write<?> w;
+        while ((w = queue.poll()) != null) reject(w, "Write queue is closed");
+    }
+
+    private <T> CompletableFuture<T> submit(Write<T> w) {
+        if (closed) return reject(w, "Write queue is closed");
+        try {
+            if (!queue.offer(w, offerTimeoutMs, TimeUnit.MILLISECONDS)) return reject(w, "Write queue is full");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return reject(w, "Interrupted while waiting for the write queue");
+        }
+        submitted.increment();
+        // close() may have finished between the check above and the offer.
+        if (closed && !writer.isAlive() && queue.remove(w)) return reject(w, "Write queue is closed");
+        return w.future;
+    }
+
+    private <T> CompletableFuture<T> reject(Write<T> w, String message) {
+        rejected.increment();
+        w.future.completeExceptionally(new RejectedExecutionException(message));
+        return w.future;
+    }
+
+    private void run() {
+        List<Write<?>> batch = new ArrayList<>(maxBatch);
+        while (true) {
+            try {
+                Write<?> first = queue.poll(IDLE_POLL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (closed && queue.isEmpty()) return;
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - batch.size());
+                // Linger for stragglers, unless the batch is full or we are shutting down.
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < maxBatch && !closed) {
+                    long left = deadline - System.nanoTime();
+                    Write<?> w = left > 0 ? queue.poll(left, TimeUnit.NANOSECONDS) : null;
+                    if (w == null) break;
+                    batch.add(w);
+                    queue.drainTo(batch, maxBatch - batch.size());
+                }
+            } catch (InterruptedException e) {
+                // Not expected; whatever was taken is still written below.
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<Write<?>> batch) {
+        batches.increment();
+        if (batch.size() > largestBatch) largestBatch = batch.size();
+        try {
+            UnitOfWork.execute(conn -> {
+                for (Write<?> w : batch) w.apply(eDao);
+                return null;
+            });
+            for (Write<?> w : batch) w.complete();
+            written.add(batch.size());
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("Write Queue Error: " + e.getMessage() + "; retrying " + batch.size() + " writes one at a time");
+            replays.increment();
+            for (Write<?> w : batch) {
+                try {
+                    UnitOfWork.execute(conn -> { w.apply(eDao); return null; });
+                    w.complete();
+                    written.increment();
+                } catch (SQLException | RuntimeException ex) {
+                    failed.increment();
+                    // A refused write was rolled back with its transaction; report it as the repository did.
+                    if (w.refused) w.complete(); else w.future.completeExceptionally(ex);
+                }
+            }
+        }
+    }
+
+    private static final class Write<T> {
+        final Function<EnrollmentRepository, T> op;
+        final T failure;
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        T result;
+        boolean refused;
+
+        Write(Function<EnrollmentRepository, T> op, T failure) {
+            this.op = op;
+            this.failure = failure;
+        }
+
+        /**
+         * Throws when the repository reports the write as failed, so its transaction rolls back: the
+         * failed statement may have followed others that succeeded, such as the row before its change
+         * log entry, and earlier writes in the batch must not commit as if nothing had gone wrong.
+         */
+        void apply(EnrollmentRepository repo) throws SQLException {
+            result = op.apply(repo);
+            refused = failure.equals(result);
+            if (refused) throw new SQLException("Write reported " + result);
+        }
+
+        void complete() {
+            future.complete(result);
+        }
+    }
+
+    public static final class Stats {
+        private final int queued;
+        private final long submitted;
+        private final long rejected;
+        private final long written;
+        private final long failed;
+        private final long batches;
+        private final long replays;
+        private final int largestBatch;
+
+        Stats(int queued, long submitted, long rejected, long written, long failed, long batches, long replays, int largestBatch) {
+            this.queued = queued;
+            this.submitted = submitted;
+            this.rejected = rejected;
+            this.written = written;
+            this.failed = failed;
+            this.batches = batches;
+            this.replays = replays;
+            this.largestBatch = largestBatch;
+        }
+
+        public int getQueued() { return queued; }
+        public long getSubmitted() { return submitted; }
+        public long getRejected() { return rejected; }
+        public long getWritten() { return written; }
+        public long getFailed() { return failed; }
+        public long getBatches() { return batches; }
+        public long getReplays() { return replays; }
+        public int getLargestBatch() { return largestBatch; }
+
+        /** Writes per commit; how much the group commit is saving. */
+        public double getAverageBatch() {
+            return batches == 0 ? 0 : written / (double) batches;
+        }
+
+        @Override
+        public String toString() {
+            return "Queued: " + queued + ", Submitted: " + submitted + ", Rejected: " + rejected + ", Written: " + written +
+                   ", Failed: " + failed + ", Batches: " + batches + ", Replays: " + replays +
+                   ", Avg Batch: " + String.format("%.1f", getAverageBatch()) + ", Largest Batch: " + largestBatch;
+        }
+    }
+}
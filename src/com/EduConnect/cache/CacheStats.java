@@ -0,0 +1,45 @@
+package com.EduConnect.cache;
+
+public class CacheStats {
+    private final String name;
+    private final int size;
+    private final int maxSize;
+    private final long hits;
+    private final long negativeHits;
+    private final long misses;
+    private final long evictions;
+    private final long expirations;
+
+    public CacheStats(String name, int size, int maxSize, long hits, long negativeHits, long misses,
+                      long evictions, long expirations) {
+        this.name = name;
+        this.size = size;
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.negativeHits = negativeHits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.expirations = expirations;
+    }
+
+    public String getName() { return name; }
+    public int getSize() { return size; }
+    public int getMaxSize() { return maxSize; }
+    public long getHits() { return hits; }
+    public long getNegativeHits() { return negativeHits; }
+    public long getMisses() { return misses; }
+    public long getEvictions() { return evictions; }
+    public long getExpirations() { return expirations; }
+
+    public double getHitRate() {
+        long total = hits + negativeHits + misses;
+        return total == 0 ? 0 : (hits + negativeHits) / (double) total;
+    }
+
+    @Override
+    public String toString() {
+        return "Cache: " + name + ", Size: " + size + "/" + maxSize + ", Hits: " + hits +
+               ", Negative Hits: " + negativeHits + ", Misses: " + misses + ", Evictions: " + evictions +
+               ", Expirations: " + expirations + ", Hit Rate: " + String.format("%.1f%%", getHitRate() * 100);
+    }
+}
@@ -0,0 +1,76 @@
+package com.EduConnect.cache;
+
+import com.EduConnect.dao.CourseDAO;
+import com.EduConnect.dao.UnitOfWork;
+import com.EduConnect.dao.UpdateResult;
+import com.EduConnect.model.Course;
+import com.EduConnect.util.DatabaseConnection;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+public class CachedCourseDAO extends CourseDAO {
+    private final EntityCache<Course> cache;
+
+    public CachedCourseDAO() {
+        this(EntityCache.fromConfig("courses"));
+    }
+
+    public CachedCourseDAO(EntityCache<Course> cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public boolean addCourse(Course c) {
+        boolean ok = super.addCourse(c);
+        if (ok) cache.invalidateMisses();
+        return ok;
+    }
+
+    @Override
+    public int[] addCourses(Connection conn, List<Course> courses) throws SQLException {
+        int[] counts = super.addCourses(conn, courses);
+        cache.invalidateMisses();
+        return counts;
+    }
+
+    @Override
+    public Course getCourseById(int id) {
+        return copy(cache.get(id, this::loadFromPrimary));
+    }
+
+    // Read on the primary for the same reason as CachedStudentDAO: a lagging replica row would stay cached for the TTL.
+    @SuppressWarnings("try")
+    private Course loadFromPrimary(int id) {
+        try (DatabaseConnection.Session session = DatabaseConnection.openSession()) {
+            return super.getCourseById(id);
+        } catch (SQLException e) { System.err.println("Get Course By ID Error: " + e.getMessage()); }
+        return null;
+    }
+
+    @Override
+    public UpdateResult updateCourseChecked(Course c) {
+        UpdateResult result = UpdateResult.FAILED;
+        try { return result = super.updateCourseChecked(c); } finally { if (result != UpdateResult.UNCHANGED) invalidate(c.getCourseId()); }
+    }
+
+    @Override
+    public boolean deleteCourse(int id) {
+        try { return super.deleteCourse(id); } finally { invalidate(id); }
+    }
+
+    public EntityCache<Course> getCache() { return cache; }
+
+    public CacheStats getCacheStats() { return cache.getStats(); }
+
+    // Drop the entry now, and again once any surrounding transaction ends so a read that raced with it is not kept.
+    private void invalidate(int id) {
+        cache.invalidate(id);
+        UnitOfWork.afterCompletion(() -> cache.invalidate(id));
+    }
+
+    // Callers edit the returned object in place before saving it, so never hand out the cached instance.
+    private static Course copy(Course c) {
+        return c == null ? null : new Course(c);
+    }
+}
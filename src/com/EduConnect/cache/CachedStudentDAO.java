@@ -0,0 +1,78 @@
+package com.EduConnect.cache;
+
+import com.EduConnect.dao.StudentDAO;
+import com.EduConnect.dao.StudentResult;
+import com.EduConnect.dao.UnitOfWork;
+import com.EduConnect.dao.UpdateResult;
+import com.EduConnect.model.Student;
+import com.EduConnect.util.DatabaseConnection;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+public class CachedStudentDAO extends StudentDAO {
+    private final EntityCache<Student> cache;
+
+    public CachedStudentDAO() {
+        this(EntityCache.fromConfig("students"));
+    }
+
+    public CachedStudentDAO(EntityCache<Student> cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public StudentResult addStudentChecked(Student s) {
+        StudentResult result = super.addStudentChecked(s);
+        if (result == StudentResult.OK) cache.invalidateMisses();
+        return result;
+    }
+
+    @Override
+    public int[] addStudents(Connection conn, List<Student> students) throws SQLException {
+        int[] counts = super.addStudents(conn, students);
+        cache.invalidateMisses();
+        return counts;
+    }
+
+    @Override
+    public Student getStudentById(int id) {
+        return copy(cache.get(id, this::loadFromPrimary));
+    }
+
+    // A replica's row may be up to its lag old and would then be served for the whole TTL, long past
+    // readYourWritesMs, so misses are read inside a session, which keeps them on the primary.
+    @SuppressWarnings("try")
+    private Student loadFromPrimary(int id) {
+        try (DatabaseConnection.Session session = DatabaseConnection.openSession()) {
+            return super.getStudentById(id);
+        } catch (SQLException e) { System.err.println("Get Student By ID Error: " + e.getMessage()); }
+        return null;
+    }
+
+    @Override
+    public UpdateResult updateStudentChecked(Student s) {
+        UpdateResult result = UpdateResult.FAILED;
+        try { return result = super.updateStudentChecked(s); } finally { if (result != UpdateResult.UNCHANGED) invalidate(s.getStudentId()); }
+    }
+
+    @Override
+    public boolean deleteStudent(int id) {
+        try { return super.deleteStudent(id); } finally { invalidate(id); }
+    }
+
+    public EntityCache<Student> getCache() { return cache; }
+
+    public CacheStats getCacheStats() { return cache.getStats(); }
+
+    // Drop the entry now, and again once any surrounding transaction ends so a read that raced with it is not kept.
+    private void invalidate(int id) {
+        cache.invalidate(id);
+        UnitOfWork.afterCompletion(() -> cache.invalidate(id));
+    }
+
+    // Callers edit the returned object in place before saving it, so never hand out the cached instance.
+    private static Student copy(Student s) {
+        return s == null ? null : new Student(s);
+    }
+}
@@ -0,0 +1,126 @@
+package com.EduConnect.cache;
+
+import com.EduConnect.util.AppConfig;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntFunction;
+
+public class EntityCache<V> {
+    private final String name;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<Integer, Entry<V>> map;
+    // Bumped by every invalidation so a load that raced with a write is not cached.
+    private long generation;
+    // Bumped by invalidateMisses; a negative entry from an earlier epoch is treated as absent, so
+    // dropping every miss costs O(1) under the lock instead of a scan of the whole map.
+    private long missEpoch;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder negativeHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public EntityCache(String name, int maxSize, long ttlMs, long negativeTtlMs) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+        this.negativeTtlNanos = TimeUnit.MILLISECONDS.toNanos(negativeTtlMs);
+        // Access order makes the eldest entry the least recently used one.
+        this.map = new LinkedHashMap<>(Math.min(maxSize, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Entry<V>> eldest) {
+                if (size() <= EntityCache.this.maxSize) return false;
+                evictions.increment();
+                return true;
+            }
+        };
+    }
+
+    public static <V> EntityCache<V> fromConfig(String name) {
+        String p = "educonnect.cache." + name + ".";
+        return new EntityCache<>(name, AppConfig.getInt(p + "size", AppConfig.getInt("educonnect.cache.size", 10_000)),
+                                 AppConfig.getLong(p + "ttlMs", AppConfig.getLong("educonnect.cache.ttlMs", 300_000)),
+                                 AppConfig.getLong(p + "negativeTtlMs", AppConfig.getLong("educonnect.cache.negativeTtlMs", 30_000)));
+    }
+
+    /** Returns the cached value, or loads it on a miss. A null load result is cached as a negative entry. */
+    public V get(int id, IntFunction<V> loader) {
+        long now = System.nanoTime();
+        long gen;
+        lock.lock();
+        try {
+            gen = generation;
+            Entry<V> e = map.get(id);
+            if (e != null) {
+                if (e.value == null && e.epoch != missEpoch) {
+                    map.remove(id);
+                } else if (now - e.expiresAt < 0) {
+                    if (e.value == null) negativeHits.increment(); else hits.increment();
+                    return e.value;
+                } else {
+                    map.remove(id);
+                    expirations.increment();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        misses.increment();
+        V v = loader.apply(id);
+        if (v != null ? ttlNanos > 0 : negativeTtlNanos > 0) {
+            lock.lock();
+            try {
+                if (gen == generation) map.put(id, new Entry<>(v, System.nanoTime() + (v != null ? ttlNanos : negativeTtlNanos), missEpoch));
+            } finally {
+                lock.unlock();
+            }
+        }
+        return v;
+    }
+
+    public void invalidate(int id) {
+        lock.lock();
+        try { generation++; map.remove(id); } finally { lock.unlock(); }
+    }
+
+    /**
+     * Drops cached misses, e.g. after an insert may have created a previously missing id. The stale
+     * entries stay in the map until they are next read or fall off the LRU end.
+     */
+    public void invalidateMisses() {
+        lock.lock();
+        try { generation++; missEpoch++; } finally { lock.unlock(); }
+    }
+
+    public void clear() {
+        lock.lock();
+        try { generation++; map.clear(); } finally { lock.unlock(); }
+    }
+
+    public CacheStats getStats() {
+        int size;
+        lock.lock();
+        try { size = map.size(); } finally { lock.unlock(); }
+        return new CacheStats(name, size, maxSize, hits.sum(), negativeHits.sum(), misses.sum(),
+                              evictions.sum(), expirations.sum());
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        final long expiresAt;
+        final long epoch;
+
+        Entry(V value, long expiresAt, long epoch) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.epoch = epoch;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.EduConnect.dao;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/** Deletes a student or course together with its enrollments, as one transaction. */
+public class CascadeDeleter {
+    private final StudentRepository sDao;
+    private final CourseRepository cDao;
+    private final EnrollmentRepository eDao;
+    private final int isolation;
+
+    public CascadeDeleter(StudentRepository sDao, CourseRepository cDao, EnrollmentRepository eDao) {
+        this(sDao, cDao, eDao, Connection.TRANSACTION_READ_COMMITTED);
+    }
+
+    public CascadeDeleter(StudentRepository sDao, CourseRepository cDao, EnrollmentRepository eDao, int isolation) {
+        this.sDao = sDao;
+        this.cDao = cDao;
+        this.eDao = eDao;
+        this.isolation = isolation;
+    }
+
+    /** Returns the number of enrollments removed with the student, or -1 if nothing was deleted. */
+    public int deleteStudent(int id) {
+        try {
+            return UnitOfWork.execute(isolation, conn -> {
+                int n = eDao.deleteEnrollmentsByStudentId(id);
+                if (n < 0) throw new SQLException("Could not delete enrollments of student " + id);
+                if (!sDao.deleteStudent(id)) throw new SQLException("Student " + id + " was not deleted");
+                return n;
+            });
+        } catch (SQLException e) { System.err.println("Delete Student Error: " + e.getMessage()); return -1; }
+    }
+
+    /** Returns the number of enrollments removed with the course, or -1 if nothing was deleted. */
+    public int deleteCourse(int id) {
+        try {
+            return UnitOfWork.execute(isolation, conn -> {
+                int n = eDao.deleteEnrollmentsByCourseId(id);
+                if (n < 0) throw new SQLException("Could not delete enrollments of course " + id);
+                if (!cDao.deleteCourse(id)) throw new SQLException("Course " + id + " was not deleted");
+                return n;
+            });
+        } catch (SQLException e) { System.err.println("Delete Course Error: " + e.getMessage()); return -1; }
+    }
+}
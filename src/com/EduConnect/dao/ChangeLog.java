@@ -0,0 +1,88 @@
+package com.EduConnect.dao;
+
+import com.EduConnect.util.AppConfig;
+import com.EduConnect.util.DatabaseConnection;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.function.ToIntFunction;
+
+/**
+ * The ChangeLog table: one row per changed Students, Courses or Enrollments row, written by the DAOs
+ * in the same transaction as the change, so other processes sharing the database can refresh just
+ * those rows (see {@link com.EduConnect.sync.ChangePoller}). A row names the entity and the row id;
+ * readers fetch the row's current state, so inserts, updates and deletes need not be told apart and
+ * applying an entry twice is harmless.
+ * Batch inserts log one row under an *_APPENDED entity. For students and enrollments its row id is the
+ * highest id the table held before the batch: identities only grow, so every row of the batch is above
+ * it, even when a concurrent insert committed a higher id first; course batches log 0, since readers
+ * only drop their cached misses. Deleting all enrollments of a student or course logs the student or
+ * course id. Off unless educonnect.sync.enabled is set, since
+ * it makes every write a two-statement transaction.
+ */
+public final class ChangeLog {
+    public static final int STUDENT = 1;
+    public static final int COURSE = 2;
+    public static final int ENROLLMENT = 3;
+    public static final int STUDENT_ENROLLMENTS = 4;
+    public static final int COURSE_ENROLLMENTS = 5;
+    public static final int STUDENTS_APPENDED = 6;
+    public static final int COURSES_APPENDED = 7;
+    public static final int ENROLLMENTS_APPENDED = 8;
+
+    private static final String INSERT_SQL = "INSERT INTO ChangeLog (entity, row_id) VALUES (?, ?)";
+    private static final boolean ENABLED = AppConfig.getBoolean("educonnect.sync.enabled", false);
+
+    private ChangeLog() {}
+
+    public static boolean isEnabled() { return ENABLED; }
+
+    /**
+     * Runs a write on a connection from {@link DatabaseConnection}. With the log enabled it runs in a
+     * unit of work, and if changedId maps the result to a row id other than 0, that row is logged
+     * before the commit. Either way the thread's next reads go to the primary.
+     */
+    static <T> T write(int entity, UnitOfWork.Work<T> write, ToIntFunction<T> changedId) throws SQLException {
+        if (!ENABLED) {
+            try (Connection conn = DatabaseConnection.getConnection()) {
+                return write.run(conn);
+            } finally {
+                DatabaseConnection.markWritten();
+            }
+        }
+        return UnitOfWork.execute(conn -> {
+            T result = write.run(conn);
+            int id = changedId.applyAsInt(result);
+            if (id != 0) record(conn, entity, id);
+            return result;
+        });
+    }
+
+    /** Logs a batch insert whose rows all have ids above afterId, on the caller's connection, inside the caller's transaction. */
+    static void recordAppended(Connection conn, int entity, int afterId) throws SQLException {
+        if (ENABLED) record(conn, entity, afterId);
+    }
+
+    /** The single int maxIdSql selects, read before a batch insert to name where the batch's ids start. */
+    static int highestId(Connection conn, String maxIdSql) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(maxIdSql); ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /** Logs a change that was committed outside the primary (on an enrollment shard), on its own connection. */
+    static void recordCommitted(int entity, int rowId) throws SQLException {
+        if (!ENABLED) return;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            record(conn, entity, rowId);
+        }
+    }
+
+    private static void record(Connection conn, int entity, int rowId) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(INSERT_SQL)) {
+            ps.setInt(1, entity); ps.setInt(2, rowId);
+            ps.executeUpdate();
+        }
+    }
+}
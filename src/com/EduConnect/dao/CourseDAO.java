@@ -5,37 +5,77 @@ import com.EduConnect.util.DatabaseConnection;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
-public class CourseDAO {
+public class CourseDAO implements CourseRepository {
     private static final String INSERT_SQL = "INSERT INTO Courses (course_name, duration) VALUES (?, ?)";
-    private static final String SELECT_ALL_SQL = "SELECT course_id, course_name, duration FROM Courses";
-    private static final String SELECT_BY_ID_SQL = "SELECT course_id, course_name, duration FROM Courses WHERE course_id = ?";
-    private static final String UPDATE_SQL = "UPDATE Courses SET course_name = ?, duration = ? WHERE course_id = ?";
+    private static final String SELECT_ALL_SQL = "SELECT course_id, course_name, duration, version FROM Courses";
+    private static final String SELECT_BY_ID_SQL = "SELECT course_id, course_name, duration, version FROM Courses WHERE course_id = ?";
+    private static final String SELECT_PAGE_SQL = "SELECT TOP (?) course_id, course_name, duration, version FROM Courses WHERE course_id > ? ORDER BY course_id";
+    private static final String SELECT_ALL_ORDERED_SQL = SELECT_ALL_SQL + " ORDER BY course_id";
+    // Columns in the order of the Course.NAME and DURATION bits.
+    private static final PartialUpdate UPDATE = new PartialUpdate("Courses", "course_id", "course_name", "duration");
     private static final String DELETE_SQL = "DELETE FROM Courses WHERE course_id = ?";
 
     public boolean addCourse(Course c) {
-        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement ps = conn.prepareStatement(INSERT_SQL)) {
-            ps.setString(1, c.getCourseName()); ps.setString(2, c.getDuration());
-            return ps.executeUpdate() > 0;
+        try {
+            return ChangeLog.write(ChangeLog.COURSE, conn -> {
+                try (PreparedStatement ps = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                    bindInsert(ps, c);
+                    if (ps.executeUpdate() == 0) return false;
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        if (keys.next()) c.setCourseId(keys.getInt(1));
+                    }
+                    return true;
+                }
+            }, ok -> ok ? c.getCourseId() : 0);
         } catch (SQLException e) { System.err.println("Add Course Error: " + e.getMessage()); return false; }
     }
 
+    public int[] addCourses(Connection conn, List<Course> courses) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(INSERT_SQL)) {
+            for (Course c : courses) { bindInsert(ps, c); ps.addBatch(); }
+            int[] counts = ps.executeBatch();
+            ChangeLog.recordAppended(conn, ChangeLog.COURSES_APPENDED, 0);
+            return counts;
+        }
+    }
+
     public List<Course> getAllCourses() {
         List<Course> courses = new ArrayList<>();
-        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement ps = conn.prepareStatement(SELECT_ALL_SQL); ResultSet rs = ps.executeQuery()) {
+        try (Connection conn = DatabaseConnection.getReadConnection(); PreparedStatement ps = conn.prepareStatement(SELECT_ALL_SQL); ResultSet rs = ps.executeQuery()) {
+            RowMapper<Course> mapper = RowMappers.COURSE.compile(rs);
             while (rs.next()) {
-                courses.add(new Course(rs.getInt("course_id"), rs.getString("course_name"), rs.getString("duration")));
+                courses.add(mapper.map(rs));
             }
         } catch (SQLException e) { System.err.println("Get All Courses Error: " + e.getMessage()); }
         return courses;
     }
 
+    public List<Course> getCoursesPage(int afterId, int pageSize) {
+        List<Course> courses = new ArrayList<>(pageSize);
+        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement ps = conn.prepareStatement(SELECT_PAGE_SQL)) {
+            ps.setInt(1, pageSize); ps.setInt(2, afterId);
+            try (ResultSet rs = ps.executeQuery()) {
+                RowMapper<Course> mapper = RowMappers.COURSE.compile(rs);
+                while (rs.next()) {
+                    courses.add(mapper.map(rs));
+                }
+            }
+        } catch (SQLException e) { System.err.println("Get Courses Page Error: " + e.getMessage()); }
+        return courses;
+    }
+
+    public Stream<Course> streamAllCourses(int fetchSize) {
+        return ResultSetStreams.stream(SELECT_ALL_ORDERED_SQL, fetchSize, RowMappers.COURSE, "Stream Courses");
+    }
+
     public Course getCourseById(int id) {
-        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement ps = conn.prepareStatement(SELECT_BY_ID_SQL)) {
+        try (Connection conn = DatabaseConnection.getReadConnection(); PreparedStatement ps = conn.prepareStatement(SELECT_BY_ID_SQL)) {
             ps.setInt(1, id);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
-                    return new Course(rs.getInt("course_id"), rs.getString("course_name"), rs.getString("duration"));
+                    return RowMappers.COURSE.compile(rs).map(rs);
                 }
             }
         } catch (SQLException e) { System.err.println("Get Course By ID Error: " + e.getMessage()); }
@@ -43,17 +83,39 @@ public class CourseDAO {
     }
 
     public boolean updateCourse(Course c) {
-        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement ps = conn.prepareStatement(UPDATE_SQL)) {
-            ps.setString(1, c.getCourseName()); ps.setString(2, c.getDuration()); ps.setInt(3, c.getCourseId());
-            return ps.executeUpdate() > 0;
-        } catch (SQLException e) { System.err.println("Update Course Error: " + e.getMessage()); return false; }
+        return updateCourseChecked(c).isSaved();
+    }
+
+    /** Writes only the changed fields, under the same version check as {@link StudentDAO#updateStudentChecked}. */
+    public UpdateResult updateCourseChecked(Course c) {
+        int changed = c.getChangedFields();
+        if (changed == 0) return UpdateResult.UNCHANGED;
+        try {
+            UpdateResult result = ChangeLog.write(ChangeLog.COURSE, conn -> UPDATE.run(conn, c.getCourseId(), c.getVersion(), changed, (ps, i) -> {
+                if ((changed & Course.NAME) != 0) ps.setString(i++, c.getCourseName());
+                if ((changed & Course.DURATION) != 0) ps.setString(i++, c.getDuration());
+                return i;
+            }), r -> r == UpdateResult.OK ? c.getCourseId() : 0);
+            if (result == UpdateResult.OK) {
+                if (c.getVersion() != 0) c.setVersion(c.getVersion() + 1);
+                c.markSaved();
+            }
+            return result;
+        } catch (SQLException e) { System.err.println("Update Course Error: " + e.getMessage()); return UpdateResult.FAILED; }
     }
 
     public boolean deleteCourse(int id) {
-        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement ps = conn.prepareStatement(DELETE_SQL)) {
-            ps.setInt(1, id);
-            return ps.executeUpdate() > 0;
+        try {
+            return ChangeLog.write(ChangeLog.COURSE, conn -> {
+                try (PreparedStatement ps = conn.prepareStatement(DELETE_SQL)) {
+                    ps.setInt(1, id);
+                    return ps.executeUpdate() > 0;
+                }
+            }, ok -> ok ? id : 0);
         } catch (SQLException e) { System.err.println("Delete Course Error: " + e.getMessage()); return false; }
     }
-}
 
+    private static void bindInsert(PreparedStatement ps, Course c) throws SQLException {
+        ps.setString(1, c.getCourseName()); ps.setString(2, c.getDuration());
+    }
+}
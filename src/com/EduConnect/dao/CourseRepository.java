@@ -0,0 +1,34 @@
+package com.EduConnect.dao;
+
+import com.EduConnect.model.Course;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface CourseRepository {
+    boolean addCourse(Course c);
+
+    /** Batch insert on a caller-managed connection; the caller owns the transaction. */
+    int[] addCourses(Connection conn, List<Course> courses) throws SQLException;
+
+    List<Course> getAllCourses();
+
+    List<Course> getCoursesPage(int afterId, int pageSize);
+
+    /**
+     * Lazily streams every course in id order; close the stream to release its connection. A failed
+     * query throws {@link UncheckedSQLException}, when the stream is opened or part-way through.
+     */
+    Stream<Course> streamAllCourses(int fetchSize);
+
+    Course getCourseById(int id);
+
+    /** True if the course was saved or had nothing to save; see {@link #updateCourseChecked} for why not. */
+    boolean updateCourse(Course c);
+
+    /** Saves only the changed fields, refusing with CONFLICT if the row changed since c was read. */
+    UpdateResult updateCourseChecked(Course c);
+
+    boolean deleteCourse(int id);
+}
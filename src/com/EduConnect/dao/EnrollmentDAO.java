@@ -5,87 +5,255 @@ import com.EduConnect.util.DatabaseConnection;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
-public class EnrollmentDAO {
-    private static final String INSERT_SQL = "INSERT INTO Enrollments (student_id, course_id, enroll_date) VALUES (?, ?, ?)";
-    private static final String SELECT_ALL_SQL = "SELECT enrollment_id, student_id, course_id, enroll_date FROM Enrollments";
-    private static final String SELECT_BY_ID_SQL = "SELECT enrollment_id, student_id, course_id, enroll_date FROM Enrollments WHERE enrollment_id = ?";
-    private static final String SELECT_BY_STUDENT_ID_SQL = "SELECT enrollment_id, student_id, course_id, enroll_date FROM Enrollments WHERE student_id = ?";
-    private static final String SELECT_BY_COURSE_ID_SQL = "SELECT enrollment_id, student_id, course_id, enroll_date FROM Enrollments WHERE course_id = ?";
-    private static final String UPDATE_SQL = "UPDATE Enrollments SET student_id = ?, course_id = ?, enroll_date = ? WHERE enrollment_id = ?";
-    private static final String DELETE_SQL = "DELETE FROM Enrollments WHERE enrollment_id = ?";
+public class EnrollmentDAO implements EnrollmentRepository {
+    static final String INSERT_SQL = "INSERT INTO Enrollments (student_id, course_id, enroll_date) VALUES (?, ?, ?)";
+    private static final String INSERT_CHECKED_SQL = "INSERT INTO Enrollments (student_id, course_id, enroll_date) SELECT ?, ?, ? " +
+            "WHERE EXISTS (SELECT 1 FROM Students WHERE student_id = ?) AND EXISTS (SELECT 1 FROM Courses WHERE course_id = ?) " +
+            "AND NOT EXISTS (SELECT 1 FROM Enrollments WHERE student_id = ? AND course_id = ?)";
+    static final String DIAGNOSE_INSERT_SQL = "SELECT CASE WHEN EXISTS (SELECT 1 FROM Students WHERE student_id = ?) THEN 1 ELSE 0 END, " +
+            "CASE WHEN EXISTS (SELECT 1 FROM Courses WHERE course_id = ?) THEN 1 ELSE 0 END";
+    static final String SELECT_ALL_SQL = "SELECT enrollment_id, student_id, course_id, enroll_date FROM Enrollments";
+    static final String SELECT_BY_ID_SQL = "SELECT enrollment_id, student_id, course_id, enroll_date FROM Enrollments WHERE enrollment_id = ?";
+    static final String SELECT_PAGE_SQL = "SELECT TOP (?) enrollment_id, student_id, course_id, enroll_date FROM Enrollments WHERE enrollment_id > ? ORDER BY enrollment_id";
+    private static final String SELECT_ALL_ORDERED_SQL = SELECT_ALL_SQL + " ORDER BY enrollment_id";
+    static final String MAX_ID_SQL = "SELECT COALESCE(MAX(enrollment_id), 0) FROM Enrollments";
+    static final String SELECT_BY_STUDENT_ID_SQL = "SELECT enrollment_id, student_id, course_id, enroll_date FROM Enrollments WHERE student_id = ?";
+    static final String SELECT_BY_COURSE_ID_SQL = "SELECT enrollment_id, student_id, course_id, enroll_date FROM Enrollments WHERE course_id = ?";
+    static final String UPDATE_SQL = "UPDATE Enrollments SET student_id = ?, course_id = ?, enroll_date = ? WHERE enrollment_id = ?";
+    static final String DELETE_SQL = "DELETE FROM Enrollments WHERE enrollment_id = ?";
+    static final String DELETE_BY_STUDENT_ID_SQL = "DELETE FROM Enrollments WHERE student_id = ?";
+    static final String DELETE_BY_COURSE_ID_SQL = "DELETE FROM Enrollments WHERE course_id = ?";
+
+    private final EnrollmentListener listener;
+
+    public EnrollmentDAO() {
+        this(null);
+    }
+
+    /** Reports every change this DAO commits to the listener, if one is given. */
+    public EnrollmentDAO(EnrollmentListener listener) {
+        this.listener = listener;
+    }
 
     public boolean addEnrollment(Enrollment e) {
-        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement ps = conn.prepareStatement(INSERT_SQL)) {
-            ps.setInt(1, e.getStudentId()); ps.setInt(2, e.getCourseId()); ps.setDate(3, e.getEnrollDate());
-            return ps.executeUpdate() > 0;
+        try {
+            boolean ok = ChangeLog.write(ChangeLog.ENROLLMENT, conn -> {
+                try (PreparedStatement ps = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                    bindInsert(ps, e);
+                    if (ps.executeUpdate() == 0) return false;
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        if (keys.next()) e.setEnrollmentId(keys.getInt(1));
+                    }
+                    firePut(e);
+                    return true;
+                }
+            }, added -> added ? e.getEnrollmentId() : 0);
+            if (ok) UniqueKeys.putEnrollment(e);
+            return ok;
         } catch (SQLException ex) { System.err.println("Add Enrollment Error: " + ex.getMessage()); return false; }
     }
 
+    /**
+     * Validates the student and course ids and inserts in a single statement, so the happy path is one
+     * round trip and the checks cannot race with a concurrent delete. Only a refused insert pays for a
+     * second query to tell the caller why. The pair check is part of the same statement, so the
+     * {@link UniqueKeys} filter is only fed here, not asked.
+     */
+    public EnrollmentResult addEnrollmentChecked(Enrollment e) {
+        try {
+            EnrollmentResult result = ChangeLog.write(ChangeLog.ENROLLMENT, conn -> {
+                try (PreparedStatement ps = conn.prepareStatement(INSERT_CHECKED_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                    bindInsert(ps, e);
+                    ps.setInt(4, e.getStudentId()); ps.setInt(5, e.getCourseId());
+                    ps.setInt(6, e.getStudentId()); ps.setInt(7, e.getCourseId());
+                    if (ps.executeUpdate() > 0) {
+                        try (ResultSet keys = ps.getGeneratedKeys()) {
+                            if (keys.next()) e.setEnrollmentId(keys.getInt(1));
+                        }
+                        firePut(e);
+                        return EnrollmentResult.OK;
+                    }
+                } catch (SQLException ex) {
+                    // A foreign key violation means a referenced row vanished mid-statement; diagnose below.
+                    if (ex.getSQLState() == null || !ex.getSQLState().startsWith("23")) throw ex;
+                }
+                try (PreparedStatement ps = conn.prepareStatement(DIAGNOSE_INSERT_SQL)) {
+                    ps.setInt(1, e.getStudentId()); ps.setInt(2, e.getCourseId());
+                    try (ResultSet rs = ps.executeQuery()) {
+                        rs.next();
+                        if (rs.getInt(1) == 0) return EnrollmentResult.STUDENT_NOT_FOUND;
+                        if (rs.getInt(2) == 0) return EnrollmentResult.COURSE_NOT_FOUND;
+                        return EnrollmentResult.DUPLICATE;
+                    }
+                }
+            }, r -> r == EnrollmentResult.OK ? e.getEnrollmentId() : 0);
+            if (result == EnrollmentResult.OK) UniqueKeys.putEnrollment(e);
+            return result;
+        } catch (SQLException ex) { System.err.println("Add Enrollment Error: " + ex.getMessage()); return EnrollmentResult.FAILED; }
+    }
+
+    /** Skips rows whose pair is already enrolled or repeats an earlier row, when the uniqueness filter is on; they count 0. */
+    public int[] addEnrollments(Connection conn, List<Enrollment> enrollments) throws SQLException {
+        boolean[] duplicate = UniqueKeys.duplicateEnrollments(conn, enrollments);
+        try (PreparedStatement ps = conn.prepareStatement(INSERT_SQL)) {
+            if (UniqueKeys.bindUnique(ps, enrollments, duplicate, EnrollmentDAO::bindInsert) == 0) return new int[enrollments.size()];
+            int after = ChangeLog.isEnabled() ? ChangeLog.highestId(conn, MAX_ID_SQL) : 0;
+            int[] counts = ps.executeBatch();
+            ChangeLog.recordAppended(conn, ChangeLog.ENROLLMENTS_APPENDED, after);
+            UniqueKeys.putEnrollments(enrollments, duplicate);
+            return UniqueKeys.withSkipped(counts, duplicate);
+        }
+    }
+
     public List<Enrollment> getAllEnrollments() {
         List<Enrollment> enrollments = new ArrayList<>();
-        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement ps = conn.prepareStatement(SELECT_ALL_SQL); ResultSet rs = ps.executeQuery()) {
+        try (Connection conn = DatabaseConnection.getReadConnection(); PreparedStatement ps = conn.prepareStatement(SELECT_ALL_SQL); ResultSet rs = ps.executeQuery()) {
+            RowMapper<Enrollment> mapper = RowMappers.ENROLLMENT.compile(rs);
             while (rs.next()) {
-                enrollments.add(new Enrollment(rs.getInt("enrollment_id"), rs.getInt("student_id"),
-                                               rs.getInt("course_id"), rs.getDate("enroll_date")));
+                enrollments.add(mapper.map(rs));
             }
         } catch (SQLException e) { System.err.println("Get All Enrollments Error: " + e.getMessage()); }
         return enrollments;
     }
 
-    public Enrollment getEnrollmentById(int id) {
-        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement ps = conn.prepareStatement(SELECT_BY_ID_SQL)) {
-            ps.setInt(1, id);
+    public List<Enrollment> getEnrollmentsPage(int afterId, int pageSize) {
+        try {
+            return findEnrollmentsPage(afterId, pageSize);
+        } catch (SQLException e) { System.err.println("Get Enrollments Page Error: " + e.getMessage()); }
+        return new ArrayList<>();
+    }
+
+    public List<Enrollment> findEnrollmentsPage(int afterId, int pageSize) throws SQLException {
+        List<Enrollment> enrollments = new ArrayList<>(pageSize);
+        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement ps = conn.prepareStatement(SELECT_PAGE_SQL)) {
+            ps.setInt(1, pageSize); ps.setInt(2, afterId);
             try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    return new Enrollment(rs.getInt("enrollment_id"), rs.getInt("student_id"),
-                                          rs.getInt("course_id"), rs.getDate("enroll_date"));
+                RowMapper<Enrollment> mapper = RowMappers.ENROLLMENT.compile(rs);
+                while (rs.next()) {
+                    enrollments.add(mapper.map(rs));
                 }
             }
+        }
+        return enrollments;
+    }
+
+    public Stream<Enrollment> streamAllEnrollments(int fetchSize) {
+        return ResultSetStreams.stream(SELECT_ALL_ORDERED_SQL, fetchSize, RowMappers.ENROLLMENT, "Stream Enrollments");
+    }
+
+    public Enrollment getEnrollmentById(int id) {
+        try {
+            return findEnrollmentById(id);
         } catch (SQLException e) { System.err.println("Get Enrollment By ID Error: " + e.getMessage()); }
         return null;
     }
 
     public List<Enrollment> getEnrollmentsByStudentId(int studentId) {
-        List<Enrollment> enrollments = new ArrayList<>();
-        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement ps = conn.prepareStatement(SELECT_BY_STUDENT_ID_SQL)) {
-            ps.setInt(1, studentId);
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    enrollments.add(new Enrollment(rs.getInt("enrollment_id"), rs.getInt("student_id"),
-                                                   rs.getInt("course_id"), rs.getDate("enroll_date")));
-                }
-            }
+        try {
+            return findEnrollmentsByStudentId(studentId);
         } catch (SQLException e) { System.err.println("Get Enrollments By Student ID Error: " + e.getMessage()); }
-        return enrollments;
+        return new ArrayList<>();
     }
 
     public List<Enrollment> getEnrollmentsByCourseId(int courseId) {
+        try {
+            return findEnrollmentsByCourseId(courseId);
+        } catch (SQLException e) { System.err.println("Get Enrollments By Course ID Error: " + e.getMessage()); }
+        return new ArrayList<>();
+    }
+
+    public Enrollment findEnrollmentById(int id) throws SQLException {
+        List<Enrollment> found = query(SELECT_BY_ID_SQL, id);
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    public List<Enrollment> findEnrollmentsByStudentId(int studentId) throws SQLException {
+        return query(SELECT_BY_STUDENT_ID_SQL, studentId);
+    }
+
+    public List<Enrollment> findEnrollmentsByCourseId(int courseId) throws SQLException {
+        return query(SELECT_BY_COURSE_ID_SQL, courseId);
+    }
+
+    private static List<Enrollment> query(String sql, int param) throws SQLException {
         List<Enrollment> enrollments = new ArrayList<>();
-        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement ps = conn.prepareStatement(SELECT_BY_COURSE_ID_SQL)) {
-            ps.setInt(1, courseId);
+        try (Connection conn = DatabaseConnection.getReadConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, param);
             try (ResultSet rs = ps.executeQuery()) {
+                RowMapper<Enrollment> mapper = RowMappers.ENROLLMENT.compile(rs);
                 while (rs.next()) {
-                    enrollments.add(new Enrollment(rs.getInt("enrollment_id"), rs.getInt("student_id"),
-                                                   rs.getInt("course_id"), rs.getDate("enroll_date")));
+                    enrollments.add(mapper.map(rs));
                 }
             }
-        } catch (SQLException e) { System.err.println("Get Enrollments By Course ID Error: " + e.getMessage()); }
+        }
         return enrollments;
     }
 
     public boolean updateEnrollment(Enrollment e) {
-        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement ps = conn.prepareStatement(UPDATE_SQL)) {
-            ps.setInt(1, e.getStudentId()); ps.setInt(2, e.getCourseId()); ps.setDate(3, e.getEnrollDate());
-            ps.setInt(4, e.getEnrollmentId());
-            return ps.executeUpdate() > 0;
+        try {
+            boolean ok = ChangeLog.write(ChangeLog.ENROLLMENT, conn -> {
+                try (PreparedStatement ps = conn.prepareStatement(UPDATE_SQL)) {
+                    ps.setInt(1, e.getStudentId()); ps.setInt(2, e.getCourseId()); RowMappers.setDay(ps, 3, e.getEnrollDay());
+                    ps.setInt(4, e.getEnrollmentId());
+                    if (ps.executeUpdate() == 0) return false;
+                    firePut(e);
+                    return true;
+                }
+            }, updated -> updated ? e.getEnrollmentId() : 0);
+            if (ok) UniqueKeys.putEnrollment(e);
+            return ok;
         } catch (SQLException ex) { System.err.println("Update Enrollment Error: " + ex.getMessage()); return false; }
     }
 
     public boolean deleteEnrollment(int id) {
-        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement ps = conn.prepareStatement(DELETE_SQL)) {
-            ps.setInt(1, id);
-            return ps.executeUpdate() > 0;
+        try {
+            return ChangeLog.write(ChangeLog.ENROLLMENT, conn -> {
+                try (PreparedStatement ps = conn.prepareStatement(DELETE_SQL)) {
+                    ps.setInt(1, id);
+                    if (ps.executeUpdate() == 0) return false;
+                    if (listener != null) UnitOfWork.afterCommit(() -> listener.remove(id));
+                    return true;
+                }
+            }, ok -> ok ? id : 0);
         } catch (SQLException e) { System.err.println("Delete Enrollment Error: " + e.getMessage()); return false; }
     }
+
+    public int deleteEnrollmentsByStudentId(int studentId) {
+        try {
+            return ChangeLog.write(ChangeLog.STUDENT_ENROLLMENTS, conn -> {
+                try (PreparedStatement ps = conn.prepareStatement(DELETE_BY_STUDENT_ID_SQL)) {
+                    ps.setInt(1, studentId);
+                    int n = ps.executeUpdate();
+                    if (n > 0 && listener != null) UnitOfWork.afterCommit(() -> listener.removeAll(studentId, false));
+                    return n;
+                }
+            }, n -> n > 0 ? studentId : 0);
+        } catch (SQLException e) { System.err.println("Delete Enrollments By Student ID Error: " + e.getMessage()); return -1; }
+    }
+
+    public int deleteEnrollmentsByCourseId(int courseId) {
+        try {
+            return ChangeLog.write(ChangeLog.COURSE_ENROLLMENTS, conn -> {
+                try (PreparedStatement ps = conn.prepareStatement(DELETE_BY_COURSE_ID_SQL)) {
+                    ps.setInt(1, courseId);
+                    int n = ps.executeUpdate();
+                    if (n > 0 && listener != null) UnitOfWork.afterCommit(() -> listener.removeAll(courseId, true));
+                    return n;
+                }
+            }, n -> n > 0 ? courseId : 0);
+        } catch (SQLException e) { System.err.println("Delete Enrollments By Course ID Error: " + e.getMessage()); return -1; }
+    }
+
+    // The caller may keep editing its instance after the call, so the listener gets its own copy.
+    private void firePut(Enrollment e) {
+        if (listener == null || e.getEnrollmentId() <= 0) return;
+        Enrollment copy = new Enrollment(e.getEnrollmentId(), e.getStudentId(), e.getCourseId(), e.getEnrollDay());
+        UnitOfWork.afterCommit(() -> listener.put(copy));
+    }
+
+    static void bindInsert(PreparedStatement ps, Enrollment e) throws SQLException {
+        ps.setInt(1, e.getStudentId()); ps.setInt(2, e.getCourseId()); RowMappers.setDay(ps, 3, e.getEnrollDay());
+    }
 }
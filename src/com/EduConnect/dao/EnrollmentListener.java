@@ -0,0 +1,18 @@
+package com.EduConnect.dao;
+
+import com.EduConnect.model.Enrollment;
+
+/**
+ * Told about each enrollment change once it has committed, so state derived from the table can
+ * follow it without rescanning. Batch inserts on a caller-managed connection are not reported; the
+ * sharded DAO commits its batches itself and does report their rows.
+ */
+public interface EnrollmentListener {
+    /** A row was inserted, or an existing row was updated. */
+    void put(Enrollment e);
+
+    void remove(int enrollmentId);
+
+    /** Every row of a student (or of a course, when byCourse is set) was deleted. */
+    void removeAll(int id, boolean byCourse);
+}
@@ -0,0 +1,58 @@
+package com.EduConnect.dao;
+
+import com.EduConnect.model.Enrollment;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface EnrollmentRepository {
+    boolean addEnrollment(Enrollment e);
+
+    /** Inserts only if the student and course exist and the pair is not already enrolled. */
+    EnrollmentResult addEnrollmentChecked(Enrollment e);
+
+    /**
+     * Batch insert on a caller-managed connection; the caller owns the transaction. Rows skipped as
+     * duplicates count 0.
+     */
+    int[] addEnrollments(Connection conn, List<Enrollment> enrollments) throws SQLException;
+
+    List<Enrollment> getAllEnrollments();
+
+    List<Enrollment> getEnrollmentsPage(int afterId, int pageSize);
+
+    /**
+     * Lazily streams every enrollment in id order; close the stream to release its connection. A failed
+     * query throws {@link UncheckedSQLException}, when the stream is opened or part-way through.
+     */
+    Stream<Enrollment> streamAllEnrollments(int fetchSize);
+
+    Enrollment getEnrollmentById(int id);
+
+    List<Enrollment> getEnrollmentsByStudentId(int studentId);
+
+    List<Enrollment> getEnrollmentsByCourseId(int courseId);
+
+    /**
+     * The find methods read like the get methods above but throw a failed query instead of returning
+     * null or an empty list, for callers that must not mistake an error for a missing row.
+     */
+    Enrollment findEnrollmentById(int id) throws SQLException;
+
+    List<Enrollment> findEnrollmentsByStudentId(int studentId) throws SQLException;
+
+    List<Enrollment> findEnrollmentsByCourseId(int courseId) throws SQLException;
+
+    List<Enrollment> findEnrollmentsPage(int afterId, int pageSize) throws SQLException;
+
+    boolean updateEnrollment(Enrollment e);
+
+    boolean deleteEnrollment(int id);
+
+    /** Removes all of a student's enrollments in one statement; returns the row count, or -1 on error. */
+    int deleteEnrollmentsByStudentId(int studentId);
+
+    /** Removes all of a course's enrollments in one statement; returns the row count, or -1 on error. */
+    int deleteEnrollmentsByCourseId(int courseId);
+}
@@ -0,0 +1,15 @@
+package com.EduConnect.dao;
+
+public enum EnrollmentResult {
+    OK("Added."),
+    STUDENT_NOT_FOUND("Student not found."),
+    COURSE_NOT_FOUND("Course not found."),
+    DUPLICATE("Student is already enrolled in this course."),
+    FAILED("Failed.");
+
+    private final String message;
+
+    EnrollmentResult(String message) { this.message = message; }
+
+    public String getMessage() { return message; }
+}
@@ -0,0 +1,59 @@
+package com.EduConnect.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * The UPDATE statements of one table that set just the changed columns. There is one per combination
+ * of columns, built up front so each is a fixed string the statement cache can keep. Every statement
+ * bumps the row's version column; given the version the caller read, it also requires that version,
+ * so a concurrent update is reported as a conflict instead of being overwritten, without holding a
+ * lock between the read and the write.
+ */
+final class PartialUpdate {
+    @FunctionalInterface
+    interface Binder {
+        /** Binds the changed columns, in column order, from parameter index on; returns the next free index. */
+        int bind(PreparedStatement ps, int index) throws SQLException;
+    }
+
+    private final String[] sql;
+    private final String versionSql;
+
+    PartialUpdate(String table, String idColumn, String... columns) {
+        int combinations = 1 << columns.length;
+        sql = new String[combinations * 2];
+        for (int changed = 1; changed < combinations; changed++) {
+            StringBuilder sb = new StringBuilder("UPDATE ").append(table).append(" SET ");
+            for (int i = 0; i < columns.length; i++) {
+                if ((changed & (1 << i)) != 0) sb.append(columns[i]).append(" = ?, ");
+            }
+            sb.append("version = version + 1 WHERE ").append(idColumn).append(" = ?");
+            sql[changed * 2] = sb.toString();
+            sql[changed * 2 + 1] = sb.append(" AND version = ?").toString();
+        }
+        versionSql = "SELECT version FROM " + table + " WHERE " + idColumn + " = ?";
+    }
+
+    /**
+     * Updates the changed columns of row id; a version of 0 updates whatever version the row has. Only
+     * a refused versioned update pays for a second query, to tell a conflict from a deleted row.
+     */
+    UpdateResult run(Connection conn, int id, int version, int changed, Binder binder) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(sql[changed * 2 + (version != 0 ? 1 : 0)])) {
+            int i = binder.bind(ps, 1);
+            ps.setInt(i++, id);
+            if (version != 0) ps.setInt(i, version);
+            if (ps.executeUpdate() > 0) return UpdateResult.OK;
+        }
+        if (version == 0) return UpdateResult.NOT_FOUND;
+        try (PreparedStatement ps = conn.prepareStatement(versionSql)) {
+            ps.setInt(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? UpdateResult.CONFLICT : UpdateResult.NOT_FOUND;
+            }
+        }
+    }
+}
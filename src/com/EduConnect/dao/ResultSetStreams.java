@@ -0,0 +1,66 @@
+package com.EduConnect.dao;
+
+import com.EduConnect.util.DatabaseConnection;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+final class ResultSetStreams {
+    static final int DEFAULT_FETCH_SIZE = 500;
+
+    private ResultSetStreams() {}
+
+    /**
+     * Lazily maps a forward-only result set. The connection stays borrowed until the stream is
+     * closed, even once it is exhausted, so callers must use try-with-resources. The mapper is
+     * compiled once the query has run. A failure to run the query or to read a row is thrown as
+     * {@link UncheckedSQLException} rather than ending the stream early.
+     */
+    static <T> Stream<T> stream(String sql, int fetchSize, RowMappers.Compiler<T> compiler, String label) {
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs;
+        RowMapper<T> mapper;
+        try {
+            conn = DatabaseConnection.getConnection();
+            ps = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize > 0 ? fetchSize : DEFAULT_FETCH_SIZE);
+            rs = ps.executeQuery();
+            mapper = compiler.compile(rs);
+        } catch (SQLException e) {
+            System.err.println(label + " Error: " + e.getMessage());
+            closeQuietly(ps, conn);
+            throw new UncheckedSQLException(e);
+        }
+        Connection c = conn;
+        PreparedStatement p = ps;
+        ResultSet r = rs;
+        Spliterator<T> rows = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    if (!r.next()) return false;
+                    action.accept(mapper.map(r));
+                    return true;
+                } catch (SQLException e) {
+                    System.err.println(label + " Error: " + e.getMessage());
+                    throw new UncheckedSQLException(e);
+                }
+            }
+        };
+        return StreamSupport.stream(rows, false).onClose(() -> closeQuietly(r, p, c));
+    }
+
+    private static void closeQuietly(AutoCloseable... resources) {
+        for (AutoCloseable r : resources) {
+            if (r == null) continue;
+            try { r.close(); } catch (Exception ignored) { }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.EduConnect.dao;
+
+import com.EduConnect.model.Course;
+import com.EduConnect.model.Enrollment;
+import com.EduConnect.model.Student;
+import com.EduConnect.util.Dates;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+
+/**
+ * Row mappers compiled against one result set: column names are looked up once, when the statement's
+ * results arrive, and every row after that is read by position. Dates are read as {@link LocalDate}
+ * and kept as epoch days, skipping the time-zone work and the {@link java.sql.Date} per row that
+ * {@code getDate} costs.
+ */
+final class RowMappers {
+    /** Resolves the columns a mapper needs from a result set's metadata. */
+    @FunctionalInterface
+    interface Compiler<T> {
+        RowMapper<T> compile(ResultSet rs) throws SQLException;
+    }
+
+    static final Compiler<Student> STUDENT = rs -> {
+        int id = rs.findColumn("student_id"), name = rs.findColumn("name"), email = rs.findColumn("email"),
+            phone = rs.findColumn("phone"), dob = rs.findColumn("dob"), gender = rs.findColumn("gender"), version = rs.findColumn("version");
+        return r -> {
+            Student s = new Student(r.getInt(id), r.getString(name), r.getString(email), r.getString(phone), day(r, dob), r.getString(gender));
+            s.setVersion(r.getInt(version));
+            s.markSaved();
+            return s;
+        };
+    };
+
+    static final Compiler<Course> COURSE = rs -> {
+        int id = rs.findColumn("course_id"), name = rs.findColumn("course_name"), duration = rs.findColumn("duration"), version = rs.findColumn("version");
+        return r -> {
+            Course c = new Course(r.getInt(id), r.getString(name), r.getString(duration));
+            c.setVersion(r.getInt(version));
+            c.markSaved();
+            return c;
+        };
+    };
+
+    static final Compiler<Enrollment> ENROLLMENT = rs -> {
+        int id = rs.findColumn("enrollment_id"), student = rs.findColumn("student_id"),
+            course = rs.findColumn("course_id"), date = rs.findColumn("enroll_date");
+        return r -> new Enrollment(r.getInt(id), r.getInt(student), r.getInt(course), day(r, date));
+    };
+
+    private RowMappers() {}
+
+    static int day(ResultSet rs, int column) throws SQLException {
+        return Dates.toDay(rs.getObject(column, LocalDate.class));
+    }
+
+    static void setDay(PreparedStatement ps, int index, int epochDay) throws SQLException {
+        if (epochDay == Dates.NONE) ps.setNull(index, Types.DATE);
+        else ps.setObject(index, LocalDate.ofEpochDay(epochDay));
+    }
+}
@@ -0,0 +1,474 @@
+package com.EduConnect.dao;
+
+import com.EduConnect.model.Enrollment;
+import com.EduConnect.util.AppConfig;
+import com.EduConnect.util.DatabaseConnection;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Enrollments partitioned across the educonnect.db.shard.* databases by student_id range, while
+ * students and courses stay on the primary. A student's enrollments all live on one shard, so the
+ * by-student reads and deletes touch one database; by-course reads and deletes, full listings and
+ * pages are sent to every shard in parallel and merged. Shard i (0-based) hands out the ids i + 1,
+ * i + 1 + n, i + 1 + 2n, ..., so an enrollment id names its shard and ids stay unique.
+ *
+ * <p>Shards have no foreign keys to the primary: inserts and updates check the student and course on
+ * the primary first, which a concurrent delete can race. Shard writes commit on their own, not with
+ * the caller's unit of work, and an update may not move an enrollment to a student on another shard.
+ */
+public class ShardedEnrollmentDAO implements EnrollmentRepository {
+    private static final String INSERT_UNIQUE_SQL = "INSERT INTO Enrollments (student_id, course_id, enroll_date) SELECT ?, ?, ? " +
+            "WHERE NOT EXISTS (SELECT 1 FROM Enrollments WHERE student_id = ? AND course_id = ?)";
+    // Keeps a batch's IN lists under SQL Server's 2100 parameter limit.
+    private static final int IN_LIST_SIZE = 1_000;
+    private static final int READ_BACK_PAGE_SIZE = 5_000;
+
+    private final int shards;
+    private final int[] bounds;
+    private final EnrollmentListener listener;
+
+    /**
+     * @param bounds the lowest student_id of shards 1 to n - 1, ascending; students below bounds[0]
+     *               go to shard 0. One bound fewer than there are shards.
+     */
+    public ShardedEnrollmentDAO(int[] bounds, EnrollmentListener listener) {
+        for (int i = 1; i < bounds.length; i++) {
+            if (bounds[i] <= bounds[i - 1]) throw new IllegalArgumentException("Shard bounds must ascend: " + Arrays.toString(bounds));
+        }
+        this.shards = bounds.length + 1;
+        this.bounds = bounds.clone();
+        this.listener = listener;
+    }
+
+    /**
+     * The DAO for the educonnect.db.shards databases, split at the educonnect.db.shard.bounds student
+     * ids, or null if enrollments are not sharded.
+     */
+    public static ShardedEnrollmentDAO fromConfig(EnrollmentListener listener) {
+        int count = DatabaseConnection.getShardCount();
+        if (count < 1) return null;
+        String spec = AppConfig.get("educonnect.db.shard.bounds", "").trim();
+        String[] parts = spec.isEmpty() ? new String[0] : spec.split(",");
+        if (parts.length != count - 1) {
+            throw new IllegalArgumentException("educonnect.db.shard.bounds needs " + (count - 1) + " student ids for " + count + " shards: '" + spec + "'");
+        }
+        int[] bounds = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) bounds[i] = Integer.parseInt(parts[i].trim());
+        return new ShardedEnrollmentDAO(bounds, listener);
+    }
+
+    public int getShardCount() { return shards; }
+
+    /** The shard holding a student's enrollments. */
+    public int shardOfStudent(int studentId) {
+        int i = Arrays.binarySearch(bounds, studentId);
+        return i >= 0 ? i + 1 : -i - 1;
+    }
+
+    /** The shard that handed out an enrollment id. */
+    public int shardOfEnrollment(int enrollmentId) {
+        return (enrollmentId - 1) % shards;
+    }
+
+    public boolean addEnrollment(Enrollment e) {
+        try {
+            EnrollmentResult missing = checkReferences(e);
+            if (missing != null) throw new SQLException(missing == EnrollmentResult.STUDENT_NOT_FOUND ? "Student " + e.getStudentId() + " does not exist" : "Course " + e.getCourseId() + " does not exist");
+            try (Connection conn = DatabaseConnection.getShardConnection(shardOfStudent(e.getStudentId()));
+                 PreparedStatement ps = conn.prepareStatement(EnrollmentDAO.INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                EnrollmentDAO.bindInsert(ps, e);
+                if (ps.executeUpdate() == 0) return false;
+                readKey(ps, e);
+            }
+            committed(ChangeLog.ENROLLMENT, e.getEnrollmentId());
+            firePut(e);
+            UniqueKeys.putEnrollment(e);
+            return true;
+        } catch (SQLException ex) { System.err.println("Add Enrollment Error: " + ex.getMessage()); return false; }
+    }
+
+    /** Checks the student and course on the primary, then inserts on the student's shard unless the pair is already there. */
+    public EnrollmentResult addEnrollmentChecked(Enrollment e) {
+        try {
+            EnrollmentResult missing = checkReferences(e);
+            if (missing != null) return missing;
+            try (Connection conn = DatabaseConnection.getShardConnection(shardOfStudent(e.getStudentId()));
+                 PreparedStatement ps = conn.prepareStatement(INSERT_UNIQUE_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                EnrollmentDAO.bindInsert(ps, e);
+                ps.setInt(4, e.getStudentId()); ps.setInt(5, e.getCourseId());
+                if (ps.executeUpdate() == 0) return EnrollmentResult.DUPLICATE;
+                readKey(ps, e);
+            } catch (SQLException ex) {
+                // A concurrent insert of the same pair got past the NOT EXISTS first.
+                if (UniqueKeys.refusedAsDuplicate(ex)) return EnrollmentResult.DUPLICATE;
+                throw ex;
+            }
+            committed(ChangeLog.ENROLLMENT, e.getEnrollmentId());
+            firePut(e);
+            UniqueKeys.putEnrollment(e);
+            return EnrollmentResult.OK;
+        } catch (SQLException ex) { System.err.println("Add Enrollment Error: " + ex.getMessage()); return EnrollmentResult.FAILED; }
+    }
+
+    /**
+     * Checks every student and course on the caller's (primary) connection, then writes each shard's
+     * rows as one batch. All shards' batches run before any commits, so a failing batch leaves no rows
+     * behind for the caller's row-by-row retry to duplicate. With the uniqueness filter on, each shard's
+     * batch first drops the pairs that shard already holds. Once every shard has committed, each
+     * shard's new rows are read back for the listener: the shards' id sequences interleave, so a batch
+     * on a smaller shard gets ids below the highest one seen, which a refresh would never reach.
+     */
+    public int[] addEnrollments(Connection conn, List<Enrollment> enrollments) throws SQLException {
+        checkReferences(conn, enrollments);
+        List<List<Integer>> rowsByShard = new ArrayList<>();
+        for (int i = 0; i < shards; i++) rowsByShard.add(new ArrayList<>());
+        for (int row = 0; row < enrollments.size(); row++) rowsByShard.get(shardOfStudent(enrollments.get(row).getStudentId())).add(row);
+        int[] counts = new int[enrollments.size()];
+        // Each shard's highest id before its batch ran, or -1 if it took no batch or nothing needs it. The
+        // lowest of them is logged, since a global page above it reaches every shard's new rows.
+        boolean track = listener != null || ChangeLog.isEnabled();
+        int[] before = new int[shards];
+        Arrays.fill(before, -1);
+        List<Connection> open = new ArrayList<>();
+        boolean committed = false;
+        try {
+            for (int shard = 0; shard < shards; shard++) {
+                List<Integer> rows = rowsByShard.get(shard);
+                if (rows.isEmpty()) continue;
+                Connection sc = DatabaseConnection.getShardConnection(shard);
+                open.add(sc);
+                sc.setAutoCommit(false);
+                List<Enrollment> batch = new ArrayList<>(rows.size());
+                for (int row : rows) batch.add(enrollments.get(row));
+                boolean[] duplicate = UniqueKeys.duplicateEnrollments(sc, batch);
+                try (PreparedStatement ps = sc.prepareStatement(EnrollmentDAO.INSERT_SQL)) {
+                    if (UniqueKeys.bindUnique(ps, batch, duplicate, EnrollmentDAO::bindInsert) == 0) continue;
+                    if (track) before[shard] = ChangeLog.highestId(sc, EnrollmentDAO.MAX_ID_SQL);
+                    int[] shardCounts = UniqueKeys.withSkipped(ps.executeBatch(), duplicate);
+                    for (int i = 0; i < rows.size(); i++) counts[rows.get(i)] = shardCounts[i];
+                }
+                UniqueKeys.putEnrollments(batch, duplicate);
+            }
+            for (Connection sc : open) sc.commit();
+            committed = true;
+        } finally {
+            for (Connection sc : open) {
+                try {
+                    if (!committed) sc.rollback();
+                    sc.setAutoCommit(true);
+                } catch (SQLException e) { System.err.println("Shard Rollback Error: " + e.getMessage()); }
+                try { sc.close(); } catch (SQLException e) { System.err.println("Shard Close Error: " + e.getMessage()); }
+            }
+        }
+        int after = Integer.MAX_VALUE;
+        for (int shard = 0; shard < shards; shard++) {
+            if (before[shard] < 0) continue;
+            if (listener != null) fireAppended(shard, before[shard]);
+            after = Math.min(after, before[shard]);
+        }
+        if (after != Integer.MAX_VALUE) ChangeLog.recordAppended(conn, ChangeLog.ENROLLMENTS_APPENDED, after);
+        return counts;
+    }
+
+    public List<Enrollment> getAllEnrollments() {
+        List<Enrollment> enrollments = new ArrayList<>();
+        try {
+            for (List<Enrollment> part : onEveryShard(conn -> query(conn, EnrollmentDAO.SELECT_ALL_SQL))) enrollments.addAll(part);
+        } catch (SQLException e) { System.err.println("Get All Enrollments Error: " + e.getMessage()); }
+        return enrollments;
+    }
+
+    /** Takes a page from every shard and keeps the lowest ids, so pages come in id order as on one database. */
+    public List<Enrollment> getEnrollmentsPage(int afterId, int pageSize) {
+        try {
+            return findEnrollmentsPage(afterId, pageSize);
+        } catch (SQLException e) { System.err.println("Get Enrollments Page Error: " + e.getMessage()); return new ArrayList<>(); }
+    }
+
+    public List<Enrollment> findEnrollmentsPage(int afterId, int pageSize) throws SQLException {
+        List<Enrollment> enrollments = new ArrayList<>();
+        for (List<Enrollment> part : onEveryShard(conn -> query(conn, EnrollmentDAO.SELECT_PAGE_SQL, pageSize, afterId))) enrollments.addAll(part);
+        enrollments.sort(Comparator.comparingInt(Enrollment::getEnrollmentId));
+        return enrollments.size() > pageSize ? new ArrayList<>(enrollments.subList(0, pageSize)) : enrollments;
+    }
+
+    /** Streams page by page, holding no connection between pages; a failed page throws UncheckedSQLException. */
+    public Stream<Enrollment> streamAllEnrollments(int fetchSize) {
+        int pageSize = fetchSize > 0 ? fetchSize : ResultSetStreams.DEFAULT_FETCH_SIZE;
+        Spliterator<Enrollment> rows = new Spliterators.AbstractSpliterator<Enrollment>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            private Iterator<Enrollment> page = Collections.emptyIterator();
+            private int afterId;
+            private boolean last;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super Enrollment> action) {
+                while (!page.hasNext()) {
+                    if (last) return false;
+                    List<Enrollment> next;
+                    try {
+                        next = findEnrollmentsPage(afterId, pageSize);
+                    } catch (SQLException e) {
+                        System.err.println("Stream Enrollments Error: " + e.getMessage());
+                        throw new UncheckedSQLException(e);
+                    }
+                    last = next.size() < pageSize;
+                    if (next.isEmpty()) return false;
+                    afterId = next.get(next.size() - 1).getEnrollmentId();
+                    page = next.iterator();
+                }
+                action.accept(page.next());
+                return true;
+            }
+        };
+        return StreamSupport.stream(rows, false);
+    }
+
+    public Enrollment getEnrollmentById(int id) {
+        try {
+            return findEnrollmentById(id);
+        } catch (SQLException e) { System.err.println("Get Enrollment By ID Error: " + e.getMessage()); }
+        return null;
+    }
+
+    public List<Enrollment> getEnrollmentsByStudentId(int studentId) {
+        try {
+            return findEnrollmentsByStudentId(studentId);
+        } catch (SQLException e) { System.err.println("Get Enrollments By Student ID Error: " + e.getMessage()); }
+        return new ArrayList<>();
+    }
+
+    public List<Enrollment> getEnrollmentsByCourseId(int courseId) {
+        try {
+            return findEnrollmentsByCourseId(courseId);
+        } catch (SQLException e) { System.err.println("Get Enrollments By Course ID Error: " + e.getMessage()); }
+        return new ArrayList<>();
+    }
+
+    public Enrollment findEnrollmentById(int id) throws SQLException {
+        if (id < 1) return null;
+        try (Connection conn = DatabaseConnection.getShardConnection(shardOfEnrollment(id))) {
+            List<Enrollment> found = query(conn, EnrollmentDAO.SELECT_BY_ID_SQL, id);
+            return found.isEmpty() ? null : found.get(0);
+        }
+    }
+
+    public List<Enrollment> findEnrollmentsByStudentId(int studentId) throws SQLException {
+        try (Connection conn = DatabaseConnection.getShardConnection(shardOfStudent(studentId))) {
+            return query(conn, EnrollmentDAO.SELECT_BY_STUDENT_ID_SQL, studentId);
+        }
+    }
+
+    public List<Enrollment> findEnrollmentsByCourseId(int courseId) throws SQLException {
+        List<Enrollment> enrollments = new ArrayList<>();
+        for (List<Enrollment> part : onEveryShard(conn -> query(conn, EnrollmentDAO.SELECT_BY_COURSE_ID_SQL, courseId))) enrollments.addAll(part);
+        return enrollments;
+    }
+
+    public boolean updateEnrollment(Enrollment e) {
+        int id = e.getEnrollmentId();
+        if (id < 1) return false;
+        try {
+            int shard = shardOfEnrollment(id);
+            if (shardOfStudent(e.getStudentId()) != shard) {
+                throw new SQLException("Enrollment " + id + " cannot move to student " + e.getStudentId() + " on another shard; delete it and enroll again");
+            }
+            EnrollmentResult missing = checkReferences(e);
+            if (missing != null) throw new SQLException(missing == EnrollmentResult.STUDENT_NOT_FOUND ? "Student " + e.getStudentId() + " does not exist" : "Course " + e.getCourseId() + " does not exist");
+            try (Connection conn = DatabaseConnection.getShardConnection(shard); PreparedStatement ps = conn.prepareStatement(EnrollmentDAO.UPDATE_SQL)) {
+                ps.setInt(1, e.getStudentId()); ps.setInt(2, e.getCourseId()); RowMappers.setDay(ps, 3, e.getEnrollDay());
+                ps.setInt(4, id);
+                if (ps.executeUpdate() == 0) return false;
+            }
+            committed(ChangeLog.ENROLLMENT, id);
+            firePut(e);
+            UniqueKeys.putEnrollment(e);
+            return true;
+        } catch (SQLException ex) { System.err.println("Update Enrollment Error: " + ex.getMessage()); return false; }
+    }
+
+    public boolean deleteEnrollment(int id) {
+        if (id < 1) return false;
+        try {
+            try (Connection conn = DatabaseConnection.getShardConnection(shardOfEnrollment(id)); PreparedStatement ps = conn.prepareStatement(EnrollmentDAO.DELETE_SQL)) {
+                ps.setInt(1, id);
+                if (ps.executeUpdate() == 0) return false;
+            }
+            committed(ChangeLog.ENROLLMENT, id);
+            if (listener != null) listener.remove(id);
+            return true;
+        } catch (SQLException e) { System.err.println("Delete Enrollment Error: " + e.getMessage()); return false; }
+    }
+
+    public int deleteEnrollmentsByStudentId(int studentId) {
+        try {
+            int n;
+            try (Connection conn = DatabaseConnection.getShardConnection(shardOfStudent(studentId)); PreparedStatement ps = conn.prepareStatement(EnrollmentDAO.DELETE_BY_STUDENT_ID_SQL)) {
+                ps.setInt(1, studentId);
+                n = ps.executeUpdate();
+            }
+            if (n > 0) {
+                committed(ChangeLog.STUDENT_ENROLLMENTS, studentId);
+                if (listener != null) listener.removeAll(studentId, false);
+            }
+            return n;
+        } catch (SQLException e) { System.err.println("Delete Enrollments By Student ID Error: " + e.getMessage()); return -1; }
+    }
+
+    /** Deletes on every shard in parallel; a shard that fails keeps its rows while the others' deletes stand. */
+    public int deleteEnrollmentsByCourseId(int courseId) {
+        try {
+            int n = 0;
+            for (int count : onEveryShard(conn -> {
+                try (PreparedStatement ps = conn.prepareStatement(EnrollmentDAO.DELETE_BY_COURSE_ID_SQL)) {
+                    ps.setInt(1, courseId);
+                    return ps.executeUpdate();
+                }
+            })) n += count;
+            if (n > 0) {
+                committed(ChangeLog.COURSE_ENROLLMENTS, courseId);
+                if (listener != null) listener.removeAll(courseId, true);
+            }
+            return n;
+        } catch (SQLException e) { System.err.println("Delete Enrollments By Course ID Error: " + e.getMessage()); return -1; }
+    }
+
+    /** Runs the work on every shard at once, each on its own virtual thread and connection; results are in shard order. */
+    private <T> List<T> onEveryShard(UnitOfWork.Work<T> work) throws SQLException {
+        if (shards == 1) {
+            try (Connection conn = DatabaseConnection.getShardConnection(0)) {
+                return List.of(work.run(conn));
+            }
+        }
+        List<Future<T>> parts = new ArrayList<>(shards);
+        try (ExecutorService scatter = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < shards; i++) {
+                int shard = i;
+                parts.add(scatter.submit(() -> {
+                    try (Connection conn = DatabaseConnection.getShardConnection(shard)) {
+                        return work.run(conn);
+                    }
+                }));
+            }
+        }
+        List<T> results = new ArrayList<>(shards);
+        for (Future<T> part : parts) {
+            try {
+                results.add(part.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for the shards", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof SQLException sql) throw sql;
+                throw new SQLException(e.getCause());
+            }
+        }
+        return results;
+    }
+
+    /** Returns why the enrollment's student or course would be refused, or null if both exist on the primary. */
+    private static EnrollmentResult checkReferences(Enrollment e) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement ps = conn.prepareStatement(EnrollmentDAO.DIAGNOSE_INSERT_SQL)) {
+            ps.setInt(1, e.getStudentId()); ps.setInt(2, e.getCourseId());
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                if (rs.getInt(1) == 0) return EnrollmentResult.STUDENT_NOT_FOUND;
+                if (rs.getInt(2) == 0) return EnrollmentResult.COURSE_NOT_FOUND;
+                return null;
+            }
+        }
+    }
+
+    // Fails the way a foreign key would, so a bulk import's row-by-row retry rejects just the bad rows.
+    private static void checkReferences(Connection conn, List<Enrollment> enrollments) throws SQLException {
+        Set<Integer> students = new HashSet<>(), courses = new HashSet<>();
+        for (Enrollment e : enrollments) { students.add(e.getStudentId()); courses.add(e.getCourseId()); }
+        students.removeAll(existing(conn, "SELECT student_id FROM Students WHERE student_id IN (", students));
+        if (!students.isEmpty()) throw new SQLException("Student " + students.iterator().next() + " does not exist", "23000");
+        courses.removeAll(existing(conn, "SELECT course_id FROM Courses WHERE course_id IN (", courses));
+        if (!courses.isEmpty()) throw new SQLException("Course " + courses.iterator().next() + " does not exist", "23000");
+    }
+
+    private static Set<Integer> existing(Connection conn, String sqlPrefix, Set<Integer> ids) throws SQLException {
+        Set<Integer> found = new HashSet<>();
+        List<Integer> all = new ArrayList<>(ids);
+        for (int from = 0; from < all.size(); from += IN_LIST_SIZE) {
+            List<Integer> chunk = all.subList(from, Math.min(all.size(), from + IN_LIST_SIZE));
+            StringBuilder sql = new StringBuilder(sqlPrefix);
+            for (int i = 0; i < chunk.size(); i++) sql.append(i == 0 ? "?" : ", ?");
+            try (PreparedStatement ps = conn.prepareStatement(sql.append(')').toString())) {
+                for (int i = 0; i < chunk.size(); i++) ps.setInt(i + 1, chunk.get(i));
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) found.add(rs.getInt(1));
+                }
+            }
+        }
+        return found;
+    }
+
+    private static List<Enrollment> query(Connection conn, String sql, int... params) throws SQLException {
+        List<Enrollment> enrollments = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) ps.setInt(i + 1, params[i]);
+            try (ResultSet rs = ps.executeQuery()) {
+                RowMapper<Enrollment> mapper = RowMappers.ENROLLMENT.compile(rs);
+                while (rs.next()) {
+                    enrollments.add(mapper.map(rs));
+                }
+            }
+        }
+        return enrollments;
+    }
+
+    private static void readKey(PreparedStatement ps, Enrollment e) throws SQLException {
+        try (ResultSet keys = ps.getGeneratedKeys()) {
+            if (keys.next()) e.setEnrollmentId(keys.getInt(1));
+        }
+    }
+
+    // The shard write has committed, so a failure to log it is reported rather than failing the write.
+    private static void committed(int entity, int rowId) {
+        try {
+            ChangeLog.recordCommitted(entity, rowId);
+        } catch (SQLException e) { System.err.println("Change Log Error: " + e.getMessage()); }
+    }
+
+    // Shard writes commit straight away, so the listener is told now rather than after the caller's unit of work.
+    private void firePut(Enrollment e) {
+        if (listener == null || e.getEnrollmentId() <= 0) return;
+        listener.put(new Enrollment(e.getEnrollmentId(), e.getStudentId(), e.getCourseId(), e.getEnrollDay()));
+    }
+
+    // The batch has committed, so a failed read-back is reported rather than failing the batch. Rows
+    // other writers added to the shard meanwhile are put too, which is harmless.
+    private void fireAppended(int shard, int afterId) {
+        try (Connection conn = DatabaseConnection.getShardConnection(shard)) {
+            List<Enrollment> page;
+            do {
+                page = query(conn, EnrollmentDAO.SELECT_PAGE_SQL, READ_BACK_PAGE_SIZE, afterId);
+                for (Enrollment e : page) listener.put(e);
+                if (!page.isEmpty()) afterId = page.get(page.size() - 1).getEnrollmentId();
+            } while (page.size() == READ_BACK_PAGE_SIZE);
+        } catch (SQLException e) { System.err.println("Shard Read Back Error: " + e.getMessage()); }
+    }
+}
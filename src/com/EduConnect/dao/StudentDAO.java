@@ -5,59 +5,195 @@ import com.EduConnect.util.DatabaseConnection;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
 
-public class StudentDAO {
+public class StudentDAO implements StudentRepository {
     private static final String INSERT_SQL = "INSERT INTO Students (name, email, phone, dob, gender) VALUES (?, ?, ?, ?, ?)";
-    private static final String SELECT_ALL_SQL = "SELECT student_id, name, email, phone, dob, gender FROM Students";
-    private static final String SELECT_BY_ID_SQL = "SELECT student_id, name, email, phone, dob, gender FROM Students WHERE student_id = ?";
-    private static final String UPDATE_SQL = "UPDATE Students SET name = ?, email = ?, phone = ?, dob = ?, gender = ? WHERE student_id = ?";
+    private static final String SELECT_ALL_SQL = "SELECT student_id, name, email, phone, dob, gender, version FROM Students";
+    private static final String SELECT_BY_ID_SQL = "SELECT student_id, name, email, phone, dob, gender, version FROM Students WHERE student_id = ?";
+    private static final String SELECT_PAGE_SQL = "SELECT TOP (?) student_id, name, email, phone, dob, gender, version FROM Students WHERE student_id > ? ORDER BY student_id";
+    private static final String SELECT_ALL_ORDERED_SQL = SELECT_ALL_SQL + " ORDER BY student_id";
+    private static final String MAX_ID_SQL = "SELECT COALESCE(MAX(student_id), 0) FROM Students";
+    private static final String SEARCH_SQL = "SELECT TOP (?) student_id, name, email, phone, dob, gender, version FROM Students"
+            + " WHERE LOWER(name) LIKE ? ESCAPE '\\' OR LOWER(email) LIKE ? ESCAPE '\\' OR phone LIKE ? ESCAPE '\\'"
+            + " ORDER BY CASE WHEN LOWER(name) LIKE ? ESCAPE '\\' THEN 0 WHEN LOWER(email) LIKE ? ESCAPE '\\' THEN 1 ELSE 2 END, student_id";
+    // Columns in the order of the Student.NAME, EMAIL, ... bits.
+    private static final PartialUpdate UPDATE = new PartialUpdate("Students", "student_id", "name", "email", "phone", "dob", "gender");
     private static final String DELETE_SQL = "DELETE FROM Students WHERE student_id = ?";
 
     public boolean addStudent(Student s) {
-        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement ps = conn.prepareStatement(INSERT_SQL)) {
-            ps.setString(1, s.getName()); ps.setString(2, s.getEmail()); ps.setString(3, s.getPhone());
-            ps.setDate(4, s.getDob()); ps.setString(5, s.getGender());
-            return ps.executeUpdate() > 0;
-        } catch (SQLException e) { System.err.println("Add Student Error: " + e.getMessage()); return false; }
+        return addStudentChecked(s) == StudentResult.OK;
+    }
+
+    /**
+     * Inserts unless another student has the same email. An email the {@link UniqueKeys} filter has
+     * never seen goes straight to the INSERT; one it may have seen is looked up first. Either way the
+     * unique index has the last word.
+     */
+    public StudentResult addStudentChecked(Student s) {
+        try {
+            StudentResult result = ChangeLog.write(ChangeLog.STUDENT, conn -> {
+                if (UniqueKeys.mayHaveEmail(s.getEmail()) && UniqueKeys.emailExists(conn, s.getEmail(), 0)) return StudentResult.DUPLICATE;
+                try (PreparedStatement ps = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                    bindInsert(ps, s);
+                    if (ps.executeUpdate() == 0) return StudentResult.FAILED;
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        if (keys.next()) s.setStudentId(keys.getInt(1));
+                    }
+                    return StudentResult.OK;
+                } catch (SQLException ex) {
+                    if (UniqueKeys.refusedAsDuplicate(ex)) return StudentResult.DUPLICATE;
+                    throw ex;
+                }
+            }, r -> r == StudentResult.OK ? s.getStudentId() : 0);
+            if (result == StudentResult.OK) UniqueKeys.putEmail(s.getEmail());
+            return result;
+        } catch (SQLException e) { System.err.println("Add Student Error: " + e.getMessage()); return StudentResult.FAILED; }
+    }
+
+    /** Skips rows whose email is taken or repeats an earlier row, when the uniqueness filter is on; they count 0. */
+    public int[] addStudents(Connection conn, List<Student> students) throws SQLException {
+        boolean[] duplicate = UniqueKeys.duplicateEmails(conn, students);
+        try (PreparedStatement ps = conn.prepareStatement(INSERT_SQL)) {
+            if (UniqueKeys.bindUnique(ps, students, duplicate, StudentDAO::bindInsert) == 0) return new int[students.size()];
+            int after = ChangeLog.isEnabled() ? ChangeLog.highestId(conn, MAX_ID_SQL) : 0;
+            int[] counts = ps.executeBatch();
+            ChangeLog.recordAppended(conn, ChangeLog.STUDENTS_APPENDED, after);
+            UniqueKeys.putEmails(students, duplicate);
+            return UniqueKeys.withSkipped(counts, duplicate);
+        }
     }
 
     public List<Student> getAllStudents() {
         List<Student> students = new ArrayList<>();
-        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement ps = conn.prepareStatement(SELECT_ALL_SQL); ResultSet rs = ps.executeQuery()) {
+        try (Connection conn = DatabaseConnection.getReadConnection(); PreparedStatement ps = conn.prepareStatement(SELECT_ALL_SQL); ResultSet rs = ps.executeQuery()) {
+            RowMapper<Student> mapper = RowMappers.STUDENT.compile(rs);
             while (rs.next()) {
-                students.add(new Student(rs.getInt("student_id"), rs.getString("name"), rs.getString("email"),
-                                        rs.getString("phone"), rs.getDate("dob"), rs.getString("gender")));
+                students.add(mapper.map(rs));
             }
         } catch (SQLException e) { System.err.println("Get All Students Error: " + e.getMessage()); }
         return students;
     }
 
+    public List<Student> getStudentsPage(int afterId, int pageSize) {
+        try {
+            return findStudentsPage(afterId, pageSize);
+        } catch (SQLException e) { System.err.println("Get Students Page Error: " + e.getMessage()); }
+        return new ArrayList<>();
+    }
+
+    /** As getStudentsPage, but a failed query throws rather than reading as the end of the table. */
+    public List<Student> findStudentsPage(int afterId, int pageSize) throws SQLException {
+        List<Student> students = new ArrayList<>(pageSize);
+        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement ps = conn.prepareStatement(SELECT_PAGE_SQL)) {
+            ps.setInt(1, pageSize); ps.setInt(2, afterId);
+            try (ResultSet rs = ps.executeQuery()) {
+                RowMapper<Student> mapper = RowMappers.STUDENT.compile(rs);
+                while (rs.next()) {
+                    students.add(mapper.map(rs));
+                }
+            }
+        }
+        return students;
+    }
+
+    public Stream<Student> streamAllStudents(int fetchSize) {
+        return ResultSetStreams.stream(SELECT_ALL_ORDERED_SQL, fetchSize, RowMappers.STUDENT, "Stream Students");
+    }
+
     public Student getStudentById(int id) {
-        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement ps = conn.prepareStatement(SELECT_BY_ID_SQL)) {
+        try {
+            return findStudentById(id);
+        } catch (SQLException e) { System.err.println("Get Student By ID Error: " + e.getMessage()); }
+        return null;
+    }
+
+    /** As getStudentById, but a failed query throws rather than reading as a missing row. */
+    public Student findStudentById(int id) throws SQLException {
+        try (Connection conn = DatabaseConnection.getReadConnection(); PreparedStatement ps = conn.prepareStatement(SELECT_BY_ID_SQL)) {
             ps.setInt(1, id);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
-                    return new Student(rs.getInt("student_id"), rs.getString("name"), rs.getString("email"),
-                                       rs.getString("phone"), rs.getDate("dob"), rs.getString("gender"));
+                    return RowMappers.STUDENT.compile(rs).map(rs);
                 }
             }
-        } catch (SQLException e) { System.err.println("Get Student By ID Error: " + e.getMessage()); }
+        }
         return null;
     }
 
+    public List<Student> searchStudents(String query, int limit) {
+        List<Student> students = new ArrayList<>();
+        String q = query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+        if (q.isEmpty() || limit <= 0) return students;
+        String escaped = q.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        String contains = "%" + escaped + "%";
+        try (Connection conn = DatabaseConnection.getReadConnection(); PreparedStatement ps = conn.prepareStatement(SEARCH_SQL)) {
+            ps.setInt(1, limit); ps.setString(2, contains); ps.setString(3, contains); ps.setString(4, contains);
+            ps.setString(5, escaped + "%"); ps.setString(6, escaped + "%");
+            try (ResultSet rs = ps.executeQuery()) {
+                RowMapper<Student> mapper = RowMappers.STUDENT.compile(rs);
+                while (rs.next()) {
+                    students.add(mapper.map(rs));
+                }
+            }
+        } catch (SQLException e) { System.err.println("Search Students Error: " + e.getMessage()); }
+        return students;
+    }
+
     public boolean updateStudent(Student s) {
-        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement ps = conn.prepareStatement(UPDATE_SQL)) {
-            ps.setString(1, s.getName()); ps.setString(2, s.getEmail()); ps.setString(3, s.getPhone());
-            ps.setDate(4, s.getDob()); ps.setString(5, s.getGender()); ps.setInt(6, s.getStudentId());
-            return ps.executeUpdate() > 0;
-        } catch (SQLException e) { System.err.println("Update Student Error: " + e.getMessage()); return false; }
+        return updateStudentChecked(s).isSaved();
+    }
+
+    /**
+     * Writes only the fields changed since the student was read, and nothing at all if none were.
+     * A student read from the database is only updated if its row version has not moved on since.
+     */
+    public UpdateResult updateStudentChecked(Student s) {
+        int changed = s.getChangedFields();
+        if (changed == 0) return UpdateResult.UNCHANGED;
+        boolean emailChanged = (changed & Student.EMAIL) != 0;
+        try {
+            UpdateResult result = ChangeLog.write(ChangeLog.STUDENT, conn -> {
+                if (emailChanged && UniqueKeys.mayHaveEmail(s.getEmail()) && UniqueKeys.emailExists(conn, s.getEmail(), s.getStudentId())) {
+                    return UpdateResult.DUPLICATE;
+                }
+                try {
+                    return UPDATE.run(conn, s.getStudentId(), s.getVersion(), changed, (ps, i) -> {
+                        if ((changed & Student.NAME) != 0) ps.setString(i++, s.getName());
+                        if (emailChanged) ps.setString(i++, s.getEmail());
+                        if ((changed & Student.PHONE) != 0) ps.setString(i++, s.getPhone());
+                        if ((changed & Student.DOB) != 0) RowMappers.setDay(ps, i++, s.getDobDay());
+                        if ((changed & Student.GENDER) != 0) ps.setString(i++, s.getGender());
+                        return i;
+                    });
+                } catch (SQLException ex) {
+                    if (UniqueKeys.refusedAsDuplicate(ex)) return UpdateResult.DUPLICATE;
+                    throw ex;
+                }
+            }, r -> r == UpdateResult.OK ? s.getStudentId() : 0);
+            if (result == UpdateResult.OK) {
+                if (emailChanged) UniqueKeys.putEmail(s.getEmail());
+                if (s.getVersion() != 0) s.setVersion(s.getVersion() + 1);
+                s.markSaved();
+            }
+            return result;
+        } catch (SQLException e) { System.err.println("Update Student Error: " + e.getMessage()); return UpdateResult.FAILED; }
     }
 
     public boolean deleteStudent(int id) {
-        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement ps = conn.prepareStatement(DELETE_SQL)) {
-            ps.setInt(1, id);
-            return ps.executeUpdate() > 0;
+        try {
+            return ChangeLog.write(ChangeLog.STUDENT, conn -> {
+                try (PreparedStatement ps = conn.prepareStatement(DELETE_SQL)) {
+                    ps.setInt(1, id);
+                    return ps.executeUpdate() > 0;
+                }
+            }, ok -> ok ? id : 0);
         } catch (SQLException e) { System.err.println("Delete Student Error: " + e.getMessage()); return false; }
     }
-}
 
+    private static void bindInsert(PreparedStatement ps, Student s) throws SQLException {
+        ps.setString(1, s.getName()); ps.setString(2, s.getEmail()); ps.setString(3, s.getPhone());
+        RowMappers.setDay(ps, 4, s.getDobDay()); ps.setString(5, s.getGender());
+    }
+}
@@ -0,0 +1,44 @@
+package com.EduConnect.dao;
+
+import com.EduConnect.model.Student;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface StudentRepository {
+    /** True if the student was added; see {@link #addStudentChecked} for why not. */
+    boolean addStudent(Student s);
+
+    /** Inserts unless another student already has the email, ignoring case. */
+    StudentResult addStudentChecked(Student s);
+
+    /**
+     * Batch insert on a caller-managed connection; the caller owns the transaction. Rows skipped as
+     * duplicates count 0.
+     */
+    int[] addStudents(Connection conn, List<Student> students) throws SQLException;
+
+    List<Student> getAllStudents();
+
+    List<Student> getStudentsPage(int afterId, int pageSize);
+
+    /**
+     * Lazily streams every student in id order; close the stream to release its connection. A failed
+     * query throws {@link UncheckedSQLException}, when the stream is opened or part-way through.
+     */
+    Stream<Student> streamAllStudents(int fetchSize);
+
+    Student getStudentById(int id);
+
+    /** Students whose name, email or phone contains the query, ignoring case; best matches first. */
+    List<Student> searchStudents(String query, int limit);
+
+    /** True if the student was saved or had nothing to save; see {@link #updateStudentChecked} for why not. */
+    boolean updateStudent(Student s);
+
+    /** Saves only the changed fields, refusing with CONFLICT if the row changed since s was read. */
+    UpdateResult updateStudentChecked(Student s);
+
+    boolean deleteStudent(int id);
+}
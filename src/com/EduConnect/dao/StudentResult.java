@@ -0,0 +1,13 @@
+package com.EduConnect.dao;
+
+public enum StudentResult {
+    OK("Added."),
+    DUPLICATE("A student with this email already exists."),
+    FAILED("Failed.");
+
+    private final String message;
+
+    StudentResult(String message) { this.message = message; }
+
+    public String getMessage() { return message; }
+}
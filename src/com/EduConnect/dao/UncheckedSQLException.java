@@ -0,0 +1,20 @@
+package com.EduConnect.dao;
+
+import java.sql.SQLException;
+
+/**
+ * Thrown by a row stream whose query fails, so a consumer can tell a failed or cut-short scan from
+ * a complete one; the stream is already closed when it reaches the caller's try-with-resources.
+ */
+public class UncheckedSQLException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public UncheckedSQLException(SQLException cause) {
+        super(cause.getMessage(), cause);
+    }
+
+    @Override
+    public synchronized SQLException getCause() {
+        return (SQLException) super.getCause();
+    }
+}
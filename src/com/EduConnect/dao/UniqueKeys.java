@@ -0,0 +1,335 @@
+package com.EduConnect.dao;
+
+import com.EduConnect.index.BloomFilter;
+import com.EduConnect.model.Enrollment;
+import com.EduConnect.model.Student;
+import com.EduConnect.util.AppConfig;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+/**
+ * The two uniqueness rules, one student per email (ignoring case) and one enrollment per
+ * student and course, checked in memory before the database is asked. Each rule has a
+ * {@link BloomFilter} loaded at startup and fed by every insert and update, so a key it has never seen
+ * is known to be new without a query. A key it may have seen (a real duplicate, a row deleted or
+ * changed since, or the odd false positive) is looked up; batches look their suspects up together.
+ * The unique indexes UX_Students_email and UX_Enrollments_student_course stay the source of truth: a
+ * duplicate the filter could not know about, such as one written by another process, is refused by
+ * the database and reported the same way. Off unless educonnect.unique.filter is set; when off, the
+ * unique indexes alone refuse duplicates.
+ */
+public final class UniqueKeys {
+    private static final boolean ENABLED = AppConfig.getBoolean("educonnect.unique.filter", false);
+    private static final double FPP = 0.01;
+    private static final long MIN_CAPACITY = 1 << 20;
+    private static final int LOAD_FETCH_SIZE = 5000;
+    // Suspects are looked up this many per query. A short last chunk repeats its last value, so every
+    // lookup uses the same statement text.
+    private static final int LOOKUP_CHUNK = 100;
+    private static final String SELECT_EMAIL_SQL = "SELECT TOP (1) student_id FROM Students WHERE email = ? AND student_id <> ?";
+    private static final String SELECT_EMAILS_SQL = "SELECT email FROM Students WHERE email IN (" + params(LOOKUP_CHUNK) + ")";
+    private static final String SELECT_PAIRS_SQL = "SELECT student_id, course_id FROM Enrollments WHERE student_id IN (" + params(LOOKUP_CHUNK) + ")";
+
+    private static volatile BloomFilter emails;
+    private static volatile BloomFilter pairs;
+    private static final LongAdder checks = new LongAdder();
+    private static final LongAdder cleared = new LongAdder();
+    private static final LongAdder duplicates = new LongAdder();
+    private static final LongAdder falsePositives = new LongAdder();
+    private static final LongAdder refused = new LongAdder();
+
+    @FunctionalInterface
+    interface Binder<T> {
+        void bind(PreparedStatement ps, T row) throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface KeyReader<K> {
+        K read(ResultSet rs) throws SQLException;
+    }
+
+    private UniqueKeys() {}
+
+    public static boolean isEnabled() { return ENABLED; }
+
+    /**
+     * Builds both filters from full scans, sized for twice the rows found (at least a million keys) at
+     * a 1% false positive rate. Keys added after that only raise the rate past twice the loaded size.
+     */
+    public static void load(StudentRepository students, EnrollmentRepository enrollments) {
+        if (!ENABLED) return;
+        try {
+            try (Stream<Student> rows = students.streamAllStudents(LOAD_FETCH_SIZE)) {
+                emails = fill(rows.iterator(), s -> emailKey(s.getEmail()));
+            }
+            try (Stream<Enrollment> rows = enrollments.streamAllEnrollments(LOAD_FETCH_SIZE)) {
+                pairs = fill(rows.iterator(), e -> pairKey(e.getStudentId(), e.getCourseId()));
+            }
+        } catch (UncheckedSQLException e) {
+            // A partial filter would wave real duplicates through; without one every key goes to the index.
+            System.err.println("Unique Filter Error: " + e.getMessage());
+            emails = null;
+            pairs = null;
+        }
+    }
+
+    // The form the filter keys emails by: trimmed and lower-cased, or null if blank.
+    static String normalizeEmail(String email) {
+        if (email == null || email.isBlank()) return null;
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * True if the filter may have seen the email, so the caller should look it up before inserting.
+     * False when the filter is off or not loaded, so the caller goes straight to the database.
+     */
+    static boolean mayHaveEmail(String email) {
+        BloomFilter f = emails;
+        long key = emailKey(email);
+        if (f == null || key == 0) return false;
+        return check(f, key);
+    }
+
+    /** Looks up an email the filter may have seen, on a student other than exceptId. */
+    static boolean emailExists(Connection conn, String email, int exceptId) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(SELECT_EMAIL_SQL)) {
+            ps.setString(1, email); ps.setInt(2, exceptId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return confirmed(rs.next());
+            }
+        }
+    }
+
+    static void putEmail(String email) {
+        BloomFilter f = emails;
+        long key = emailKey(email);
+        if (f != null && key != 0) f.put(key);
+    }
+
+    static void putEnrollment(Enrollment e) {
+        BloomFilter f = pairs;
+        if (f != null) f.put(pairKey(e.getStudentId(), e.getCourseId()));
+    }
+
+    /** Feeds the filter the rows of a batch that were not skipped as duplicates. */
+    static void putEmails(List<Student> batch, boolean[] duplicate) {
+        for (int i = 0; i < batch.size(); i++) {
+            if (duplicate == null || !duplicate[i]) putEmail(batch.get(i).getEmail());
+        }
+    }
+
+    static void putEnrollments(List<Enrollment> batch, boolean[] duplicate) {
+        for (int i = 0; i < batch.size(); i++) {
+            if (duplicate == null || !duplicate[i]) putEnrollment(batch.get(i));
+        }
+    }
+
+    /**
+     * Marks the students of a batch that would break the email rule: a repeat of an earlier row of
+     * the batch, or an email the filter may have seen that the lookup finds. Null when the filter is
+     * off or not loaded.
+     */
+    static boolean[] duplicateEmails(Connection conn, List<Student> batch) throws SQLException {
+        BloomFilter f = emails;
+        if (f == null) return null;
+        boolean[] duplicate = new boolean[batch.size()];
+        Set<String> seen = new HashSet<>();
+        List<Integer> suspects = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            String email = normalizeEmail(batch.get(i).getEmail());
+            if (email == null) continue;
+            if (!seen.add(email)) {
+                duplicate[i] = true;
+                duplicates.increment();
+            } else if (check(f, emailKey(email))) {
+                suspects.add(i);
+            }
+        }
+        if (suspects.isEmpty()) return duplicate;
+        Set<String> values = new LinkedHashSet<>();
+        for (int i : suspects) values.add(batch.get(i).getEmail());
+        Set<String> found = lookup(conn, SELECT_EMAILS_SQL, values, rs -> normalizeEmail(rs.getString(1)));
+        for (int i : suspects) duplicate[i] = confirmed(found.contains(normalizeEmail(batch.get(i).getEmail())));
+        return duplicate;
+    }
+
+    /**
+     * Marks the enrollments of a batch that repeat an earlier row of the batch or a pair already in
+     * the table, looking up only the students of pairs the filter may have seen. Runs on the
+     * connection that holds the rows, the primary or a shard. Null when the filter is off or not loaded.
+     */
+    static boolean[] duplicateEnrollments(Connection conn, List<Enrollment> batch) throws SQLException {
+        BloomFilter f = pairs;
+        if (f == null) return null;
+        boolean[] duplicate = new boolean[batch.size()];
+        Set<Long> seen = new HashSet<>();
+        List<Integer> suspects = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            Enrollment e = batch.get(i);
+            long key = pairKey(e.getStudentId(), e.getCourseId());
+            if (!seen.add(key)) {
+                duplicate[i] = true;
+                duplicates.increment();
+            } else if (check(f, key)) {
+                suspects.add(i);
+            }
+        }
+        if (suspects.isEmpty()) return duplicate;
+        Set<Integer> studentIds = new LinkedHashSet<>();
+        for (int i : suspects) studentIds.add(batch.get(i).getStudentId());
+        Set<Long> found = lookup(conn, SELECT_PAIRS_SQL, studentIds, rs -> pairKey(rs.getInt(1), rs.getInt(2)));
+        for (int i : suspects) {
+            Enrollment e = batch.get(i);
+            duplicate[i] = confirmed(found.contains(pairKey(e.getStudentId(), e.getCourseId())));
+        }
+        return duplicate;
+    }
+
+    /** Binds the rows not marked as duplicates; returns how many were bound. */
+    static <T> int bindUnique(PreparedStatement ps, List<T> rows, boolean[] duplicate, Binder<T> binder) throws SQLException {
+        int n = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            if (duplicate != null && duplicate[i]) continue;
+            binder.bind(ps, rows.get(i));
+            ps.addBatch();
+            n++;
+        }
+        return n;
+    }
+
+    /** Spreads a batch's update counts over all its rows, with 0 for the rows skipped as duplicates. */
+    static int[] withSkipped(int[] counts, boolean[] duplicate) {
+        if (duplicate == null) return counts;
+        int[] all = new int[duplicate.length];
+        for (int i = 0, j = 0; i < all.length; i++) {
+            if (!duplicate[i]) all[i] = counts[j++];
+        }
+        return all;
+    }
+
+    /** True if e is a unique index violation: SQLState 23505 (H2), or SQL Server error 2627 or 2601. */
+    static boolean refusedAsDuplicate(SQLException e) {
+        boolean duplicate = "23505".equals(e.getSQLState()) || e.getErrorCode() == 2627 || e.getErrorCode() == 2601;
+        if (duplicate) refused.increment();
+        return duplicate;
+    }
+
+    public static Stats getStats() {
+        BloomFilter e = emails, p = pairs;
+        return new Stats(e == null ? 0 : e.size(), p == null ? 0 : p.size(), checks.sum(), cleared.sum(), duplicates.sum(),
+                         falsePositives.sum(), refused.sum(), Math.max(e == null ? 0 : e.expectedFpp(), p == null ? 0 : p.expectedFpp()));
+    }
+
+    private static boolean check(BloomFilter f, long key) {
+        checks.increment();
+        if (f.mightContain(key)) return true;
+        cleared.increment();
+        return false;
+    }
+
+    private static boolean confirmed(boolean exists) {
+        (exists ? duplicates : falsePositives).increment();
+        return exists;
+    }
+
+    private static <T> BloomFilter fill(Iterator<T> rows, ToLongFunction<T> key) {
+        long[] keys = new long[1024];
+        int n = 0;
+        while (rows.hasNext()) {
+            long k = key.applyAsLong(rows.next());
+            if (k == 0) continue;
+            if (n == keys.length) keys = Arrays.copyOf(keys, n + (n >> 1));
+            keys[n++] = k;
+        }
+        BloomFilter f = new BloomFilter(Math.max(MIN_CAPACITY, 2L * n), FPP);
+        for (int i = 0; i < n; i++) f.put(keys[i]);
+        return f;
+    }
+
+    private static <K> Set<K> lookup(Connection conn, String sql, Set<?> values, KeyReader<K> reader) throws SQLException {
+        Set<K> found = new HashSet<>();
+        List<?> list = new ArrayList<>(values);
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int from = 0; from < list.size(); from += LOOKUP_CHUNK) {
+                for (int i = 0; i < LOOKUP_CHUNK; i++) ps.setObject(i + 1, list.get(Math.min(from + i, list.size() - 1)));
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) found.add(reader.read(rs));
+                }
+            }
+        }
+        return found;
+    }
+
+    // FNV-1a over the normalized email; 0 stands for "no email".
+    private static long emailKey(String email) {
+        String normalized = normalizeEmail(email);
+        if (normalized == null) return 0;
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < normalized.length(); i++) {
+            h = (h ^ normalized.charAt(i)) * 0x100000001B3L;
+        }
+        return h == 0 ? 1 : h;
+    }
+
+    private static long pairKey(int studentId, int courseId) {
+        return (long) studentId << 32 | (courseId & 0xFFFFFFFFL);
+    }
+
+    private static String params(int n) {
+        return String.join(", ", Collections.nCopies(n, "?"));
+    }
+
+    public static final class Stats {
+        private final long emails;
+        private final long pairs;
+        private final long checks;
+        private final long cleared;
+        private final long duplicates;
+        private final long falsePositives;
+        private final long refused;
+        private final double fpp;
+
+        Stats(long emails, long pairs, long checks, long cleared, long duplicates, long falsePositives, long refused, double fpp) {
+            this.emails = emails;
+            this.pairs = pairs;
+            this.checks = checks;
+            this.cleared = cleared;
+            this.duplicates = duplicates;
+            this.falsePositives = falsePositives;
+            this.refused = refused;
+            this.fpp = fpp;
+        }
+
+        public long getEmails() { return emails; }
+        public long getPairs() { return pairs; }
+        public long getChecks() { return checks; }
+        /** Checks answered "new" in memory, without a query. */
+        public long getCleared() { return cleared; }
+        public long getDuplicates() { return duplicates; }
+        public long getFalsePositives() { return falsePositives; }
+        /** Duplicates refused by the unique indexes, because the filter was off or could not know. */
+        public long getRefused() { return refused; }
+        /** The higher of the two filters' expected false positive rates at their current size. */
+        public double getFpp() { return fpp; }
+
+        @Override
+        public String toString() {
+            return String.format("Emails: %d, Pairs: %d, Checks: %d, Cleared: %d, Duplicates: %d, False Positives: %d, Refused: %d, Expected FPP: %.2f%%",
+                                 emails, pairs, checks, cleared, duplicates, falsePositives, refused, fpp * 100);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.EduConnect.dao;
+
+import com.EduConnect.util.DatabaseConnection;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs several DAO calls on one connection in one transaction. While the work runs, every
+ * DatabaseConnection.getConnection() on this thread returns the transaction's connection, so plain
+ * DAO methods take part without any extra parameters. A nested unit of work joins the outer one.
+ * DAO methods report failures through their return values; throw from the work to roll back.
+ */
+public final class UnitOfWork {
+
+    @FunctionalInterface
+    public interface Work<T> {
+        T run(Connection conn) throws SQLException;
+    }
+
+    private static final ThreadLocal<UnitOfWork> CURRENT = new ThreadLocal<>();
+
+    private final List<Runnable> afterCommit = new ArrayList<>();
+    private final List<Runnable> afterCompletion = new ArrayList<>();
+
+    private UnitOfWork() {}
+
+    public static <T> T execute(Work<T> work) throws SQLException {
+        return execute(Connection.TRANSACTION_READ_COMMITTED, work);
+    }
+
+    @SuppressWarnings("try")
+    public static <T> T execute(int isolation, Work<T> work) throws SQLException {
+        try (DatabaseConnection.Session session = DatabaseConnection.openSession()) {
+            Connection conn = session.getConnection();
+            if (CURRENT.get() != null) return work.run(conn);
+            UnitOfWork uow = new UnitOfWork();
+            int previousIsolation = conn.getTransactionIsolation();
+            boolean committed = false;
+            CURRENT.set(uow);
+            try {
+                if (isolation != previousIsolation) conn.setTransactionIsolation(isolation);
+                conn.setAutoCommit(false);
+                T result = work.run(conn);
+                conn.commit();
+                committed = true;
+                DatabaseConnection.markWritten();
+                return result;
+            } finally {
+                CURRENT.remove();
+                if (!committed) {
+                    try { conn.rollback(); } catch (SQLException e) { System.err.println("Rollback Error: " + e.getMessage()); }
+                }
+                try {
+                    conn.setAutoCommit(true);
+                    if (isolation != previousIsolation) conn.setTransactionIsolation(previousIsolation);
+                } catch (SQLException e) { System.err.println("Transaction Reset Error: " + e.getMessage()); }
+                uow.complete(committed);
+            }
+        }
+    }
+
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    /** Runs the action once the current unit of work commits, or right away if there is none. */
+    public static void afterCommit(Runnable action) {
+        UnitOfWork uow = CURRENT.get();
+        if (uow == null) action.run(); else uow.afterCommit.add(action);
+    }
+
+    /** Runs the action when the current unit of work commits or rolls back, or right away if there is none. */
+    public static void afterCompletion(Runnable action) {
+        UnitOfWork uow = CURRENT.get();
+        if (uow == null) action.run(); else uow.afterCompletion.add(action);
+    }
+
+    private void complete(boolean committed) {
+        if (committed) afterCommit.forEach(UnitOfWork::runQuietly);
+        afterCompletion.forEach(UnitOfWork::runQuietly);
+    }
+
+    private static void runQuietly(Runnable r) {
+        try { r.run(); } catch (RuntimeException e) { System.err.println("Transaction Callback Error: " + e.getMessage()); }
+    }
+}
@@ -0,0 +1,19 @@
+package com.EduConnect.dao;
+
+public enum UpdateResult {
+    OK("Updated."),
+    UNCHANGED("Nothing changed."),
+    NOT_FOUND("Not found."),
+    CONFLICT("Changed by someone else since it was read; nothing was saved. Load it again and retry."),
+    DUPLICATE("Another student already has this email."),
+    FAILED("Failed.");
+
+    private final String message;
+
+    UpdateResult(String message) { this.message = message; }
+
+    public String getMessage() { return message; }
+
+    /** True if the row now holds the caller's values. */
+    public boolean isSaved() { return this == OK || this == UNCHANGED; }
+}
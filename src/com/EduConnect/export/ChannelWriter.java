@@ -0,0 +1,92 @@
+package com.EduConnect.export;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Encodes text and numbers straight into one reusable direct buffer and hands it to the channel only
+ * when it fills, so a row never exists as a byte[] or String of its own.
+ */
+final class ChannelWriter implements AutoCloseable {
+    private final WritableByteChannel channel;
+    private final ByteBuffer buf;
+    private long flushed;
+
+    ChannelWriter(WritableByteChannel channel, int bufferSize) {
+        this.channel = channel;
+        this.buf = ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    void put(char ascii) throws IOException {
+        if (!buf.hasRemaining()) drain();
+        buf.put((byte) ascii);
+    }
+
+    /** UTF-8; an unpaired surrogate becomes '?'. */
+    void putUtf8(CharSequence s) throws IOException {
+        for (int i = 0, n = s.length(); i < n; i++) {
+            if (buf.remaining() < 4) drain();
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                buf.put((byte) c);
+            } else if (c < 0x800) {
+                buf.put((byte) (0xC0 | c >> 6)).put((byte) (0x80 | c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                buf.put((byte) (0xF0 | cp >> 18)).put((byte) (0x80 | cp >> 12 & 0x3F))
+                   .put((byte) (0x80 | cp >> 6 & 0x3F)).put((byte) (0x80 | cp & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                buf.put((byte) '?');
+            } else {
+                buf.put((byte) (0xE0 | c >> 12)).put((byte) (0x80 | c >> 6 & 0x3F)).put((byte) (0x80 | c & 0x3F));
+            }
+        }
+    }
+
+    /** Unsigned LEB128: seven bits per byte, high bit set on all but the last. */
+    void putVarLong(long v) throws IOException {
+        if (buf.remaining() < 10) drain();
+        while ((v & ~0x7FL) != 0) {
+            buf.put((byte) (v & 0x7F | 0x80));
+            v >>>= 7;
+        }
+        buf.put((byte) v);
+    }
+
+    /** Null as 0, otherwise the UTF-8 length plus one followed by the bytes. */
+    void putString(String s) throws IOException {
+        if (s == null) { putVarLong(0); return; }
+        putVarLong(utf8Length(s) + 1L);
+        putUtf8(s);
+    }
+
+    long getBytesWritten() {
+        return flushed + buf.position();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try { drain(); } finally { channel.close(); }
+    }
+
+    private void drain() throws IOException {
+        buf.flip();
+        flushed += buf.remaining();
+        while (buf.hasRemaining()) channel.write(buf);
+        buf.clear();
+    }
+
+    private static int utf8Length(String s) {
+        int len = 0;
+        for (int i = 0, n = s.length(); i < n; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) len++;
+            else if (c < 0x800) len += 2;
+            else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(s.charAt(i + 1))) { len += 4; i++; }
+            else if (Character.isSurrogate(c)) len++;
+            else len += 3;
+        }
+        return len;
+    }
+}
@@ -0,0 +1,38 @@
+package com.EduConnect.export;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+public enum ExportFormat {
+    CSV(".csv"), JSONL(".jsonl"), BINARY(".bin");
+
+    private final String extension;
+
+    ExportFormat(String extension) { this.extension = extension; }
+
+    public String getExtension() { return extension; }
+
+    public static ExportFormat parse(String s) {
+        String t = s.trim().toUpperCase(Locale.ROOT);
+        if (t.equals("BIN")) return BINARY;
+        if (t.equals("JSON")) return JSONL;
+        return valueOf(t);
+    }
+
+    /** The format named by the file's extension, ignoring a trailing .gz; CSV when there is none. */
+    public static ExportFormat forFile(Path file) {
+        String name = stripGzip(file.getFileName().toString().toLowerCase(Locale.ROOT));
+        for (ExportFormat f : values()) {
+            if (name.endsWith(f.extension)) return f;
+        }
+        return name.endsWith(".json") ? JSONL : CSV;
+    }
+
+    public static boolean isGzip(Path file) {
+        return file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".gz");
+    }
+
+    private static String stripGzip(String name) {
+        return name.endsWith(".gz") ? name.substring(0, name.length() - 3) : name;
+    }
+}
@@ -0,0 +1,53 @@
+package com.EduConnect.export;
+
+import com.EduConnect.importer.BulkImporter;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+public class ExportReport {
+    private final BulkImporter.Entity entity;
+    private final ExportFormat format;
+    private final long rows;
+    private final long bytesEncoded;
+    private final long fileBytes;
+    private final long elapsedNanos;
+    private final Path file;
+
+    public ExportReport(BulkImporter.Entity entity, ExportFormat format, long rows, long bytesEncoded, long fileBytes,
+                        long elapsedNanos, Path file) {
+        this.entity = entity;
+        this.format = format;
+        this.rows = rows;
+        this.bytesEncoded = bytesEncoded;
+        this.fileBytes = fileBytes;
+        this.elapsedNanos = elapsedNanos;
+        this.file = file;
+    }
+
+    public BulkImporter.Entity getEntity() { return entity; }
+    public ExportFormat getFormat() { return format; }
+    public long getRows() { return rows; }
+    /** Bytes produced by the encoder, before any compression. */
+    public long getBytesEncoded() { return bytesEncoded; }
+    public long getFileBytes() { return fileBytes; }
+    public long getElapsedNanos() { return elapsedNanos; }
+    public Path getFile() { return file; }
+
+    public double getRowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : rows * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    public double getMegabytesPerSecond() {
+        return elapsedNanos == 0 ? 0 : bytesEncoded / (1024.0 * 1024.0) * TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "Entity: " + entity + ", Format: " + format + ", Rows: " + rows + ", Bytes: " + fileBytes +
+               (fileBytes != bytesEncoded ? " (" + bytesEncoded + " uncompressed)" : "") +
+               ", Time: " + TimeUnit.NANOSECONDS.toMillis(elapsedNanos) + "ms" +
+               ", Rows/s: " + Math.round(getRowsPerSecond()) +
+               ", MB/s: " + String.format(Locale.ROOT, "%.1f", getMegabytesPerSecond()) + ", File: " + file;
+    }
+}
@@ -0,0 +1,235 @@
+package com.EduConnect.export;
+
+import com.EduConnect.dao.CourseRepository;
+import com.EduConnect.dao.EnrollmentRepository;
+import com.EduConnect.dao.StudentRepository;
+import com.EduConnect.dao.UncheckedSQLException;
+import com.EduConnect.importer.BulkImporter;
+import com.EduConnect.model.Course;
+import com.EduConnect.model.Enrollment;
+import com.EduConnect.model.Student;
+import com.EduConnect.util.Dates;
+import com.EduConnect.util.Json;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes a whole table to a file without holding it in memory: rows come one at a time from the
+ * repository's forward-only stream, are encoded into a reused builder or straight into a direct
+ * buffer, and reach the file through a {@link FileChannel}. The file is written under a temporary
+ * name and moved into place once complete, so readers never see a partial export.
+ *
+ * <p>CSV has a header row and ISO dates; JSONL has one object per line in the shape the API returns.
+ * BINARY starts with the bytes {@code EDUX}, a version byte (1) and the entity ordinal, followed by one
+ * record per row with its columns in table order: ids as unsigned LEB128 varints, strings as a varint
+ * of the UTF-8 length plus one (0 for null) and the bytes, dates as a varint of the zigzagged epoch
+ * day plus one (0 for null). A 0 byte, where the next record's id would be, ends the data and is
+ * followed by the row count as a varint.
+ */
+public class Exporter {
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+
+    private static final int FETCH_SIZE = 5000;
+    private static final int GZIP_BUFFER = 1 << 16;
+    private static final byte[] MAGIC = { 'E', 'D', 'U', 'X' };
+    private static final int VERSION = 1;
+
+    @FunctionalInterface
+    private interface BinaryEncoder<T> {
+        void write(ChannelWriter out, T row) throws IOException;
+    }
+
+    private static final class Codec<T> {
+        final String csvHeader;
+        final BiConsumer<StringBuilder, T> csv;
+        final BiConsumer<StringBuilder, T> json;
+        final BinaryEncoder<T> binary;
+
+        Codec(String csvHeader, BiConsumer<StringBuilder, T> csv, BiConsumer<StringBuilder, T> json, BinaryEncoder<T> binary) {
+            this.csvHeader = csvHeader;
+            this.csv = csv;
+            this.json = json;
+            this.binary = binary;
+        }
+    }
+
+    private static final Codec<Student> STUDENTS = new Codec<>("student_id,name,email,phone,dob,gender",
+        (sb, s) -> {
+            sb.append(s.getStudentId()).append(',');
+            csv(sb, s.getName()).append(',');
+            csv(sb, s.getEmail()).append(',');
+            csv(sb, s.getPhone()).append(',');
+            date(sb, s.getDobDay()).append(',');
+            csv(sb, s.getGender());
+        },
+        Json::student,
+        (out, s) -> {
+            out.putVarLong(s.getStudentId());
+            out.putString(s.getName());
+            out.putString(s.getEmail());
+            out.putString(s.getPhone());
+            putDate(out, s.getDobDay());
+            out.putString(s.getGender());
+        });
+
+    private static final Codec<Course> COURSES = new Codec<>("course_id,course_name,duration",
+        (sb, c) -> {
+            sb.append(c.getCourseId()).append(',');
+            csv(sb, c.getCourseName()).append(',');
+            csv(sb, c.getDuration());
+        },
+        Json::course,
+        (out, c) -> {
+            out.putVarLong(c.getCourseId());
+            out.putString(c.getCourseName());
+            out.putString(c.getDuration());
+        });
+
+    private static final Codec<Enrollment> ENROLLMENTS = new Codec<>("enrollment_id,student_id,course_id,enroll_date",
+        (sb, e) -> {
+            sb.append(e.getEnrollmentId()).append(',').append(e.getStudentId()).append(',').append(e.getCourseId()).append(',');
+            date(sb, e.getEnrollDay());
+        },
+        Json::enrollment,
+        (out, e) -> {
+            out.putVarLong(e.getEnrollmentId());
+            out.putVarLong(e.getStudentId());
+            out.putVarLong(e.getCourseId());
+            putDate(out, e.getEnrollDay());
+        });
+
+    private final StudentRepository sDao;
+    private final CourseRepository cDao;
+    private final EnrollmentRepository eDao;
+    private final int bufferSize;
+
+    public Exporter(StudentRepository sDao, CourseRepository cDao, EnrollmentRepository eDao) {
+        this(sDao, cDao, eDao, DEFAULT_BUFFER_SIZE);
+    }
+
+    public Exporter(StudentRepository sDao, CourseRepository cDao, EnrollmentRepository eDao, int bufferSize) {
+        if (bufferSize < 1024) throw new IllegalArgumentException("Buffer size must be at least 1024: " + bufferSize);
+        this.sDao = sDao;
+        this.cDao = cDao;
+        this.eDao = eDao;
+        this.bufferSize = bufferSize;
+    }
+
+    /** Format from the file extension (.csv, .jsonl, .bin), gzip when the name ends in .gz. */
+    public ExportReport export(BulkImporter.Entity entity, Path file) throws IOException, SQLException {
+        return export(entity, ExportFormat.forFile(file), file, ExportFormat.isGzip(file));
+    }
+
+    /** A scan that fails throws its SQLException and leaves any earlier export at {@code file} in place. */
+    public ExportReport export(BulkImporter.Entity entity, ExportFormat format, Path file, boolean gzip) throws IOException, SQLException {
+        long start = System.nanoTime();
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        long rows;
+        long encoded;
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             ChannelWriter out = new ChannelWriter(gzip ? gzip(ch) : ch, bufferSize)) {
+            switch (entity) {
+                case STUDENTS: rows = write(entity, format, sDao.streamAllStudents(FETCH_SIZE), STUDENTS, out); break;
+                case COURSES: rows = write(entity, format, cDao.streamAllCourses(FETCH_SIZE), COURSES, out); break;
+                default: rows = write(entity, format, eDao.streamAllEnrollments(FETCH_SIZE), ENROLLMENTS, out);
+            }
+            encoded = out.getBytesWritten();
+        } catch (UncheckedSQLException e) {
+            Files.deleteIfExists(tmp);
+            throw e.getCause();
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        try {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return new ExportReport(entity, format, rows, encoded, Files.size(file), System.nanoTime() - start, file);
+    }
+
+    private static <T> long write(BulkImporter.Entity entity, ExportFormat format, Stream<T> stream, Codec<T> codec,
+                                  ChannelWriter out) throws IOException {
+        long rows = 0;
+        StringBuilder sb = new StringBuilder(256);
+        try (stream) {
+            switch (format) {
+                case CSV:
+                    out.putUtf8(codec.csvHeader);
+                    out.put('\n');
+                    for (T row : (Iterable<T>) stream::iterator) {
+                        sb.setLength(0);
+                        codec.csv.accept(sb, row);
+                        out.putUtf8(sb.append('\n'));
+                        rows++;
+                    }
+                    break;
+                case JSONL:
+                    for (T row : (Iterable<T>) stream::iterator) {
+                        sb.setLength(0);
+                        codec.json.accept(sb, row);
+                        out.putUtf8(sb.append('\n'));
+                        rows++;
+                    }
+                    break;
+                default:
+                    for (byte b : MAGIC) out.put((char) b);
+                    out.put((char) VERSION);
+                    out.put((char) entity.ordinal());
+                    for (T row : (Iterable<T>) stream::iterator) {
+                        codec.binary.write(out, row);
+                        rows++;
+                    }
+                    out.putVarLong(0);
+                    out.putVarLong(rows);
+            }
+        }
+        return rows;
+    }
+
+    // The fastest deflate level: on row data the output is about a fifth larger than the default's for half the CPU.
+    private static WritableByteChannel gzip(FileChannel ch) throws IOException {
+        return Channels.newChannel(new GZIPOutputStream(Channels.newOutputStream(ch), GZIP_BUFFER) {
+            { def.setLevel(Deflater.BEST_SPEED); }
+        });
+    }
+
+    private static StringBuilder csv(StringBuilder sb, String v) {
+        if (v == null) return sb;
+        boolean quote = false;
+        for (int i = 0; i < v.length() && !quote; i++) {
+            char c = v.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) return sb.append(v);
+        sb.append('"');
+        for (int i = 0; i < v.length(); i++) {
+            char c = v.charAt(i);
+            if (c == '"') sb.append('"');
+            sb.append(c);
+        }
+        return sb.append('"');
+    }
+
+    private static StringBuilder date(StringBuilder sb, int day) {
+        return Dates.appendIso(sb, day);
+    }
+
+    private static void putDate(ChannelWriter out, int day) throws IOException {
+        if (day == Dates.NONE) { out.putVarLong(0); return; }
+        out.putVarLong((((long) day << 1) ^ (day >> 31)) + 1);
+    }
+}
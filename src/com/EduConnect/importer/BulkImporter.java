@@ -0,0 +1,218 @@
+package com.EduConnect.importer;
+
+import com.EduConnect.dao.CourseRepository;
+import com.EduConnect.dao.EnrollmentRepository;
+import com.EduConnect.dao.EnrollmentResult;
+import com.EduConnect.dao.StudentRepository;
+import com.EduConnect.dao.StudentResult;
+import com.EduConnect.model.Course;
+import com.EduConnect.model.Enrollment;
+import com.EduConnect.model.Student;
+import com.EduConnect.util.CsvReader;
+import com.EduConnect.util.DatabaseConnection;
+import com.EduConnect.util.Dates;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+public class BulkImporter {
+
+    public enum Entity {
+        STUDENTS("name", StudentResult.DUPLICATE.getMessage()), COURSES("course_name", null),
+        ENROLLMENTS("student_id", EnrollmentResult.DUPLICATE.getMessage());
+
+        private final String firstHeader;
+        private final String duplicate;
+
+        Entity(String firstHeader, String duplicate) {
+            this.firstHeader = firstHeader;
+            this.duplicate = duplicate;
+        }
+
+        public static Entity parse(String s) {
+            return valueOf(s.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    @FunctionalInterface
+    private interface RowParser<T> {
+        T parse(String[] row);
+    }
+
+    @FunctionalInterface
+    private interface BatchWriter<T> {
+        int[] write(Connection conn, List<T> rows) throws SQLException;
+    }
+
+    private final StudentRepository sDao;
+    private final CourseRepository cDao;
+    private final EnrollmentRepository eDao;
+    private final int batchSize;
+
+    public BulkImporter(StudentRepository sDao, CourseRepository cDao, EnrollmentRepository eDao, int batchSize) {
+        if (batchSize < 1) throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        this.sDao = sDao;
+        this.cDao = cDao;
+        this.eDao = eDao;
+        this.batchSize = batchSize;
+    }
+
+    public ImportReport importFile(Entity entity, Path csv) throws IOException, SQLException {
+        return importFile(entity, csv, csv.resolveSibling(csv.getFileName() + ".rejects.csv"));
+    }
+
+    public ImportReport importFile(Entity entity, Path csv, Path rejectFile) throws IOException, SQLException {
+        try (CsvReader in = new CsvReader(new InputStreamReader(Files.newInputStream(csv), StandardCharsets.UTF_8))) {
+            switch (entity) {
+                case STUDENTS: return run(entity, in, rejectFile, BulkImporter::parseStudent, sDao::addStudents);
+                case COURSES: return run(entity, in, rejectFile, BulkImporter::parseCourse, cDao::addCourses);
+                default: return run(entity, in, rejectFile, BulkImporter::parseEnrollment, eDao::addEnrollments);
+            }
+        }
+    }
+
+    private <T> ImportReport run(Entity entity, CsvReader in, Path rejectFile, RowParser<T> parser, BatchWriter<T> writer)
+            throws IOException, SQLException {
+        long start = System.nanoTime();
+        long read = 0;
+        long[] imported = new long[1];
+        Rejects rejects = new Rejects(rejectFile);
+        List<T> batch = new ArrayList<>(batchSize);
+        List<String> lines = new ArrayList<>(batchSize);
+        try (Connection conn = DatabaseConnection.getConnection(); rejects) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                String[] row;
+                boolean first = true;
+                while ((row = in.next()) != null) {
+                    if (row.length == 1 && row[0].isBlank()) continue;
+                    if (first) {
+                        first = false;
+                        if (row[0].trim().equalsIgnoreCase(entity.firstHeader)) continue;
+                    }
+                    read++;
+                    try {
+                        batch.add(parser.parse(row));
+                        lines.add(in.rawLine());
+                    } catch (IllegalArgumentException | DateTimeParseException e) {
+                        rejects.add(in.rawLine(), e.getMessage());
+                    }
+                    if (batch.size() >= batchSize) flush(entity, conn, batch, lines, writer, rejects, imported);
+                }
+                flush(entity, conn, batch, lines, writer, rejects, imported);
+            } finally {
+                // conn may be a run script's session connection, which the next command reuses.
+                if (autoCommit) try { conn.rollback(); conn.setAutoCommit(true); } catch (SQLException e) { System.err.println("Transaction Reset Error: " + e.getMessage()); }
+            }
+        } finally {
+            DatabaseConnection.markWritten();
+        }
+        return new ImportReport(entity, read, imported[0], rejects.count, System.nanoTime() - start,
+                                rejects.count > 0 ? rejectFile : null);
+    }
+
+    // With the uniqueness filter on, the repository skips duplicate rows (count 0) instead of failing
+    // the batch on the unique index, so they are rejected here without a row-by-row replay.
+    private <T> void flush(Entity entity, Connection conn, List<T> batch, List<String> lines, BatchWriter<T> writer,
+                           Rejects rejects, long[] imported) throws IOException, SQLException {
+        if (batch.isEmpty()) return;
+        try {
+            int[] counts = writer.write(conn, batch);
+            conn.commit();
+            for (int i = 0; i < batch.size(); i++) {
+                if (counts[i] == 0) rejects.add(lines.get(i), entity.duplicate); else imported[0]++;
+            }
+        } catch (SQLException e) {
+            conn.rollback();
+            // Replay the failed chunk row by row so only the offending rows are rejected.
+            for (int i = 0; i < batch.size(); i++) {
+                try {
+                    int[] counts = writer.write(conn, batch.subList(i, i + 1));
+                    conn.commit();
+                    if (counts[0] == 0) rejects.add(lines.get(i), entity.duplicate); else imported[0]++;
+                } catch (SQLException ex) {
+                    conn.rollback();
+                    rejects.add(lines.get(i), ex.getMessage());
+                }
+            }
+        }
+        batch.clear();
+        lines.clear();
+    }
+
+    private static Student parseStudent(String[] r) {
+        require(r, 5);
+        String email = r[1].trim();
+        if (email.isEmpty() || email.equalsIgnoreCase("blank")) throw new IllegalArgumentException("Email cannot be empty or 'blank'");
+        return new Student(0, r[0].trim(), email, r[2].trim(), parseDay(r[3], false), r[4].trim());
+    }
+
+    private static Course parseCourse(String[] r) {
+        require(r, 2);
+        if (r[0].isBlank()) throw new IllegalArgumentException("Course name cannot be empty");
+        return new Course(r[0].trim(), r[1].trim());
+    }
+
+    private static Enrollment parseEnrollment(String[] r) {
+        require(r, 3);
+        return new Enrollment(0, parseId(r[0], "student_id"), parseId(r[1], "course_id"), parseDay(r[2], true));
+    }
+
+    private static void require(String[] r, int columns) {
+        if (r.length != columns) throw new IllegalArgumentException("Expected " + columns + " columns but found " + r.length);
+    }
+
+    private static int parseId(String s, String column) {
+        try {
+            int id = Integer.parseInt(s.trim());
+            if (id <= 0) throw new IllegalArgumentException("Invalid " + column + ": " + s);
+            return id;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + column + ": " + s);
+        }
+    }
+
+    private static int parseDay(String s, boolean required) {
+        int day = Dates.parseDay(s);
+        if (day == Dates.NONE && required) throw new IllegalArgumentException("Date is required (DD-MM-YYYY)");
+        return day;
+    }
+
+    private static final class Rejects implements AutoCloseable {
+        private final Path file;
+        private BufferedWriter out;
+        long count;
+
+        Rejects(Path file) throws IOException {
+            this.file = file;
+            Files.deleteIfExists(file);
+        }
+
+        void add(String line, String reason) throws IOException {
+            if (out == null) out = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+            out.write(line);
+            out.write(",\"");
+            out.write(String.valueOf(reason).replace("\"", "\"\""));
+            out.write('"');
+            out.newLine();
+            count++;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (out != null) out.close();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.EduConnect.importer;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+public class ImportReport {
+    private final BulkImporter.Entity entity;
+    private final long rowsRead;
+    private final long rowsImported;
+    private final long rowsRejected;
+    private final long elapsedNanos;
+    private final Path rejectFile;
+
+    public ImportReport(BulkImporter.Entity entity, long rowsRead, long rowsImported, long rowsRejected,
+                        long elapsedNanos, Path rejectFile) {
+        this.entity = entity;
+        this.rowsRead = rowsRead;
+        this.rowsImported = rowsImported;
+        this.rowsRejected = rowsRejected;
+        this.elapsedNanos = elapsedNanos;
+        this.rejectFile = rejectFile;
+    }
+
+    public BulkImporter.Entity getEntity() { return entity; }
+    public long getRowsRead() { return rowsRead; }
+    public long getRowsImported() { return rowsImported; }
+    public long getRowsRejected() { return rowsRejected; }
+    public long getElapsedNanos() { return elapsedNanos; }
+    public Path getRejectFile() { return rejectFile; }
+
+    public double getRowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : rowsImported * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "Entity: " + entity + ", Read: " + rowsRead + ", Imported: " + rowsImported +
+               ", Rejected: " + rowsRejected + ", Time: " + TimeUnit.NANOSECONDS.toMillis(elapsedNanos) + "ms" +
+               ", Rows/s: " + Math.round(getRowsPerSecond()) +
+               (rejectFile != null ? ", Rejects: " + rejectFile : "");
+    }
+}
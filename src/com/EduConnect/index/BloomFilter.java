@@ -0,0 +1,69 @@
+package com.EduConnect.index;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over long keys: {@link #mightContain} is always true for a key that was put, and true
+ * for one that was not with probability about {@code fpp} while at most {@code expected} keys have
+ * been put. Keys cannot be taken out. Thread-safe; puts set bits with compare-and-set, so a reader
+ * never needs a lock.
+ */
+public class BloomFilter {
+    private final AtomicLongArray words;
+    private final long bits;
+    private final int hashes;
+    private final long expected;
+    private final AtomicLong puts = new AtomicLong();
+
+    public BloomFilter(long expected, double fpp) {
+        if (expected < 1 || fpp <= 0 || fpp >= 1) throw new IllegalArgumentException("Bad Bloom filter size: " + expected + " keys at " + fpp);
+        long optimal = (long) Math.ceil(-expected * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        int n = (int) Math.min(Integer.MAX_VALUE - 8, (optimal + 63) >>> 6);
+        words = new AtomicLongArray(n);
+        bits = (long) n << 6;
+        hashes = Math.max(1, (int) Math.round((double) bits / expected * Math.log(2)));
+        this.expected = expected;
+    }
+
+    public void put(long key) {
+        long h1 = mix(key);
+        long h2 = mix(h1) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = ((h1 + i * h2) & Long.MAX_VALUE) % bits;
+            int w = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long old;
+            while (((old = words.get(w)) & mask) == 0 && !words.compareAndSet(w, old, old | mask)) { }
+        }
+        puts.incrementAndGet();
+    }
+
+    public boolean mightContain(long key) {
+        long h1 = mix(key);
+        long h2 = mix(h1) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = ((h1 + i * h2) & Long.MAX_VALUE) % bits;
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    /** Keys put so far, counting a key put twice twice. */
+    public long size() { return puts.get(); }
+
+    public long getExpected() { return expected; }
+
+    public long getSizeInBytes() { return bits >>> 3; }
+
+    /** The false positive rate to expect after {@link #size()} puts; it climbs once size passes expected. */
+    public double expectedFpp() {
+        return Math.pow(1 - Math.exp(-(double) hashes * puts.get() / bits), hashes);
+    }
+
+    private static long mix(long key) {
+        long h = (key ^ (key >>> 33)) * 0xFF51AFD7ED558CCDL;
+        h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+}
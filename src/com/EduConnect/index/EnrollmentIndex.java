@@ -0,0 +1,213 @@
+package com.EduConnect.index;
+
+import com.EduConnect.model.Enrollment;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process copy of the Enrollments table held column-wise in primitive arrays, with student and
+ * course multimaps pointing at row slots. Lookups copy the matching rows out under a read lock.
+ */
+public class EnrollmentIndex {
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private int[] ids;
+    private int[] studentIds;
+    private int[] courseIds;
+    private int[] enrollDays; // epoch days, Dates.NONE when unset
+    private int used;
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private final IntIntMap slotById;
+    private final IntMultimap byStudent;
+    private final IntMultimap byCourse;
+    private int maxId;
+
+    public EnrollmentIndex() {
+        this(1024);
+    }
+
+    public EnrollmentIndex(int expectedRows) {
+        int cap = Math.max(16, expectedRows);
+        ids = new int[cap];
+        studentIds = new int[cap];
+        courseIds = new int[cap];
+        enrollDays = new int[cap];
+        slotById = new IntIntMap(cap, -1);
+        byStudent = new IntMultimap(Math.max(16, cap / 4));
+        byCourse = new IntMultimap(256);
+    }
+
+    /** Adds every row from the iterator; rows already present are replaced. */
+    public void load(Iterator<Enrollment> rows) {
+        lock.writeLock().lock();
+        try {
+            while (rows.hasNext()) putLocked(rows.next());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Inserts or replaces the row with the enrollment's id. */
+    public void put(Enrollment e) {
+        lock.writeLock().lock();
+        try { putLocked(e); } finally { lock.writeLock().unlock(); }
+    }
+
+    public boolean remove(int enrollmentId) {
+        lock.writeLock().lock();
+        try { return removeLocked(enrollmentId); } finally { lock.writeLock().unlock(); }
+    }
+
+    /** Drops every row of a student (or of a course, when byCourse is set). */
+    public int removeAll(int id, boolean byCourse) {
+        lock.writeLock().lock();
+        try {
+            int removed = 0;
+            for (int slot : (byCourse ? this.byCourse : byStudent).get(id)) {
+                if (removeLocked(ids[slot])) removed++;
+            }
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Enrollment get(int enrollmentId) {
+        lock.readLock().lock();
+        try {
+            int slot = slotById.get(enrollmentId);
+            return slot < 0 ? null : toEnrollment(slot);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Enrollment> getByStudent(int studentId) {
+        return rows(byStudent, studentId);
+    }
+
+    public List<Enrollment> getByCourse(int courseId) {
+        return rows(byCourse, courseId);
+    }
+
+    /** Enrollment ids for a student, in ascending order, without materializing rows. */
+    public int[] enrollmentIdsByStudent(int studentId) {
+        return ids(byStudent, studentId);
+    }
+
+    /** Enrollment ids for a course, in ascending order, without materializing rows. */
+    public int[] enrollmentIdsByCourse(int courseId) {
+        return ids(byCourse, courseId);
+    }
+
+    public int countByStudent(int studentId) {
+        lock.readLock().lock();
+        try { return byStudent.count(studentId); } finally { lock.readLock().unlock(); }
+    }
+
+    public int countByCourse(int courseId) {
+        lock.readLock().lock();
+        try { return byCourse.count(courseId); } finally { lock.readLock().unlock(); }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try { return slotById.size(); } finally { lock.readLock().unlock(); }
+    }
+
+    /** Highest enrollment id seen so far, used to catch up on rows inserted without known keys. */
+    public int getMaxEnrollmentId() {
+        lock.readLock().lock();
+        try { return maxId; } finally { lock.readLock().unlock(); }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            slotById.clear();
+            byStudent.clear();
+            byCourse.clear();
+            used = 0;
+            freeCount = 0;
+            maxId = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void putLocked(Enrollment e) {
+        int id = e.getEnrollmentId();
+        int slot = slotById.get(id);
+        if (slot >= 0) {
+            byStudent.remove(studentIds[slot], slot);
+            byCourse.remove(courseIds[slot], slot);
+        } else {
+            slot = freeCount > 0 ? freeSlots[--freeCount] : nextSlot();
+            slotById.put(id, slot);
+        }
+        ids[slot] = id;
+        studentIds[slot] = e.getStudentId();
+        courseIds[slot] = e.getCourseId();
+        enrollDays[slot] = e.getEnrollDay();
+        byStudent.put(e.getStudentId(), slot);
+        byCourse.put(e.getCourseId(), slot);
+        if (id > maxId) maxId = id;
+    }
+
+    private boolean removeLocked(int enrollmentId) {
+        int slot = slotById.remove(enrollmentId);
+        if (slot < 0) return false;
+        byStudent.remove(studentIds[slot], slot);
+        byCourse.remove(courseIds[slot], slot);
+        ids[slot] = 0;
+        if (freeCount == freeSlots.length) freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        freeSlots[freeCount++] = slot;
+        return true;
+    }
+
+    private int nextSlot() {
+        if (used == ids.length) {
+            int cap = used + (used >> 1);
+            ids = Arrays.copyOf(ids, cap);
+            studentIds = Arrays.copyOf(studentIds, cap);
+            courseIds = Arrays.copyOf(courseIds, cap);
+            enrollDays = Arrays.copyOf(enrollDays, cap);
+        }
+        return used++;
+    }
+
+    private List<Enrollment> rows(IntMultimap map, int key) {
+        lock.readLock().lock();
+        try {
+            int[] slots = map.get(key);
+            // Pack (id, slot) into longs so one primitive sort orders the rows by enrollment id.
+            long[] keyed = new long[slots.length];
+            for (int i = 0; i < slots.length; i++) keyed[i] = (long) ids[slots[i]] << 32 | slots[i];
+            Arrays.sort(keyed);
+            List<Enrollment> out = new ArrayList<>(slots.length);
+            for (long k : keyed) out.add(toEnrollment((int) k));
+            return out;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int[] ids(IntMultimap map, int key) {
+        lock.readLock().lock();
+        try {
+            int[] slots = map.get(key);
+            for (int i = 0; i < slots.length; i++) slots[i] = ids[slots[i]];
+            Arrays.sort(slots);
+            return slots;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Enrollment toEnrollment(int slot) {
+        return new Enrollment(ids[slot], studentIds[slot], courseIds[slot], enrollDays[slot]);
+    }
+}
@@ -0,0 +1,129 @@
+package com.EduConnect.index;
+
+import com.EduConnect.dao.EnrollmentDAO;
+import com.EduConnect.dao.EnrollmentListener;
+import com.EduConnect.dao.EnrollmentResult;
+import com.EduConnect.dao.UnitOfWork;
+import com.EduConnect.model.Enrollment;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Serves id, by-student and by-course lookups from an {@link EnrollmentIndex} loaded at startup and
+ * kept current by this DAO's write methods. Batch inserts run on a caller-managed transaction, so
+ * their rows are picked up by {@link #refresh()} once the caller has committed. Writes made inside a
+ * {@link UnitOfWork} reach the index only when it commits.
+ */
+public class IndexedEnrollmentDAO extends EnrollmentDAO {
+    private static final int LOAD_FETCH_SIZE = 5000;
+
+    private final EnrollmentIndex index;
+
+    public IndexedEnrollmentDAO() {
+        this(new EnrollmentIndex());
+    }
+
+    public IndexedEnrollmentDAO(EnrollmentIndex index) {
+        this(index, null);
+    }
+
+    public IndexedEnrollmentDAO(EnrollmentIndex index, EnrollmentListener listener) {
+        super(listener);
+        this.index = index;
+    }
+
+    /** Rebuilds the index from a full scan of the Enrollments table. */
+    public void load() {
+        index.clear();
+        try (Stream<Enrollment> rows = streamAllEnrollments(LOAD_FETCH_SIZE)) {
+            index.load(rows.iterator());
+        }
+    }
+
+    /** Pulls in rows inserted since the highest id the index has seen. */
+    public void refresh() {
+        try {
+            refresh(index.getMaxEnrollmentId());
+        } catch (SQLException e) { System.err.println("Refresh Enrollment Index Error: " + e.getMessage()); }
+    }
+
+    /**
+     * Pulls in every row above afterId; rows already indexed are put again, which is harmless. A failed
+     * page throws, so a caller applying a logged batch can try it again.
+     */
+    public void refresh(int afterId) throws SQLException {
+        int after = afterId;
+        List<Enrollment> page;
+        do {
+            page = findEnrollmentsPage(after, LOAD_FETCH_SIZE);
+            index.load(page.iterator());
+            if (!page.isEmpty()) after = page.get(page.size() - 1).getEnrollmentId();
+        } while (page.size() == LOAD_FETCH_SIZE);
+    }
+
+    public EnrollmentIndex getIndex() { return index; }
+
+    @Override
+    public boolean addEnrollment(Enrollment e) {
+        boolean ok = super.addEnrollment(e);
+        if (ok && e.getEnrollmentId() > 0) put(e);
+        return ok;
+    }
+
+    @Override
+    public EnrollmentResult addEnrollmentChecked(Enrollment e) {
+        EnrollmentResult r = super.addEnrollmentChecked(e);
+        if (r == EnrollmentResult.OK && e.getEnrollmentId() > 0) put(e);
+        return r;
+    }
+
+    @Override
+    public Enrollment getEnrollmentById(int id) {
+        return index.get(id);
+    }
+
+    @Override
+    public List<Enrollment> getEnrollmentsByStudentId(int studentId) {
+        return index.getByStudent(studentId);
+    }
+
+    @Override
+    public List<Enrollment> getEnrollmentsByCourseId(int courseId) {
+        return index.getByCourse(courseId);
+    }
+
+    @Override
+    public boolean updateEnrollment(Enrollment e) {
+        boolean ok = super.updateEnrollment(e);
+        if (ok) put(e);
+        return ok;
+    }
+
+    @Override
+    public boolean deleteEnrollment(int id) {
+        boolean ok = super.deleteEnrollment(id);
+        if (ok) UnitOfWork.afterCommit(() -> index.remove(id));
+        return ok;
+    }
+
+    @Override
+    public int deleteEnrollmentsByStudentId(int studentId) {
+        int n = super.deleteEnrollmentsByStudentId(studentId);
+        if (n > 0) UnitOfWork.afterCommit(() -> index.removeAll(studentId, false));
+        return n;
+    }
+
+    @Override
+    public int deleteEnrollmentsByCourseId(int courseId) {
+        int n = super.deleteEnrollmentsByCourseId(courseId);
+        if (n > 0) UnitOfWork.afterCommit(() -> index.removeAll(courseId, true));
+        return n;
+    }
+
+    // The caller may keep editing its instance after the call, so the index gets its own copy.
+    private void put(Enrollment e) {
+        Enrollment copy = new Enrollment(e.getEnrollmentId(), e.getStudentId(), e.getCourseId(), e.getEnrollDay());
+        UnitOfWork.afterCommit(() -> index.put(copy));
+    }
+}
@@ -0,0 +1,96 @@
+package com.EduConnect.index;
+
+import java.util.Arrays;
+
+/** Open-addressing int-to-int hash map with linear probing. Keys must be non-zero; not thread-safe. */
+public class IntIntMap {
+    private static final int FREE = 0;
+
+    private int[] keys;
+    private int[] values;
+    private int size;
+    private int mask;
+    private final int missing;
+
+    public IntIntMap(int expected, int missing) {
+        int cap = Integer.highestOneBit(Math.max(4, expected * 2 - 1)) << 1;
+        keys = new int[cap];
+        values = new int[cap];
+        mask = cap - 1;
+        this.missing = missing;
+    }
+
+    public int get(int key) {
+        // 0 marks a free slot, so it would match the first empty one.
+        if (key == FREE) return missing;
+        int i = mix(key) & mask;
+        while (true) {
+            int k = keys[i];
+            if (k == key) return values[i];
+            if (k == FREE) return missing;
+            i = (i + 1) & mask;
+        }
+    }
+
+    public void put(int key, int value) {
+        if (key == FREE) throw new IllegalArgumentException("Key must not be 0");
+        int i = mix(key) & mask;
+        while (true) {
+            int k = keys[i];
+            if (k == key) { values[i] = value; return; }
+            if (k == FREE) break;
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size * 2 > keys.length) rehash(keys.length << 1);
+    }
+
+    public int remove(int key) {
+        int i = mix(key) & mask;
+        while (true) {
+            int k = keys[i];
+            if (k == FREE) return missing;
+            if (k == key) break;
+            i = (i + 1) & mask;
+        }
+        int old = values[i];
+        size--;
+        // Backward-shift deletion keeps probe chains intact without tombstones.
+        int gap = i;
+        for (int j = (gap + 1) & mask; keys[j] != FREE; j = (j + 1) & mask) {
+            int home = mix(keys[j]) & mask;
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                keys[gap] = keys[j];
+                values[gap] = values[j];
+                gap = j;
+            }
+        }
+        keys[gap] = FREE;
+        values[gap] = 0;
+        return old;
+    }
+
+    public int size() { return size; }
+
+    public void clear() {
+        Arrays.fill(keys, FREE);
+        size = 0;
+    }
+
+    private void rehash(int cap) {
+        int[] oldKeys = keys, oldValues = values;
+        keys = new int[cap];
+        values = new int[cap];
+        mask = cap - 1;
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) put(oldKeys[i], oldValues[i]);
+        }
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
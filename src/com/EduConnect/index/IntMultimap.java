@@ -0,0 +1,66 @@
+package com.EduConnect.index;
+
+import java.util.Arrays;
+
+/** Maps an int key to a growable int array of values without boxing. Not thread-safe. */
+public class IntMultimap {
+    private static final int[] EMPTY = new int[0];
+
+    private final IntIntMap slots;
+    private int[][] values = new int[16][];
+    private int[] counts = new int[16];
+    private int used;
+
+    public IntMultimap(int expectedKeys) {
+        slots = new IntIntMap(expectedKeys, -1);
+    }
+
+    public void put(int key, int value) {
+        int s = slots.get(key);
+        if (s < 0) {
+            s = used++;
+            if (s == values.length) {
+                values = Arrays.copyOf(values, s * 2);
+                counts = Arrays.copyOf(counts, s * 2);
+            }
+            values[s] = new int[2];
+            counts[s] = 0;
+            slots.put(key, s);
+        }
+        int[] v = values[s];
+        if (counts[s] == v.length) values[s] = v = Arrays.copyOf(v, v.length * 2);
+        v[counts[s]++] = value;
+    }
+
+    public boolean remove(int key, int value) {
+        int s = slots.get(key);
+        if (s < 0) return false;
+        int[] v = values[s];
+        int n = counts[s];
+        for (int i = 0; i < n; i++) {
+            if (v[i] == value) {
+                v[i] = v[n - 1];
+                counts[s] = n - 1;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Copies the values for a key; the order is unspecified. */
+    public int[] get(int key) {
+        int s = slots.get(key);
+        return s < 0 || counts[s] == 0 ? EMPTY : Arrays.copyOf(values[s], counts[s]);
+    }
+
+    public int count(int key) {
+        int s = slots.get(key);
+        return s < 0 ? 0 : counts[s];
+    }
+
+    public void clear() {
+        slots.clear();
+        Arrays.fill(values, 0, used, null);
+        used = 0;
+    }
+}
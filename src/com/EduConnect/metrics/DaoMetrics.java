@@ -0,0 +1,288 @@
+package com.EduConnect.metrics;
+
+import com.EduConnect.util.AppConfig;
+import com.EduConnect.util.ConnectionPool;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Times every call made through an instrumented repository. The call itself is the operation; while
+ * it runs, DatabaseConnection reports how long the pool borrow took and the statements it hands out
+ * report how long they spent executing, so each operation is split into connect, execute and map
+ * (everything else: iterating and mapping rows, releasing the connection). Each call also becomes a
+ * {@link DaoOperationEvent} when Flight Recorder is running.
+ */
+public final class DaoMetrics {
+    private static final boolean ENABLED = AppConfig.getBoolean("educonnect.metrics.enabled", true);
+
+    private static final ConcurrentHashMap<String, OperationMetrics> OPS = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private static ScheduledExecutorService dumper;
+    private static Path dumpFile;
+
+    private DaoMetrics() {}
+
+    /** Wraps a repository so that each of its methods is recorded as "prefix.methodName". */
+    public static <T> T instrument(Class<T> iface, String prefix, T target) {
+        if (!ENABLED) return target;
+        return iface.cast(Proxy.newProxyInstance(iface.getClassLoader(), new Class<?>[] { iface }, new RepositoryHandler(prefix, target)));
+    }
+
+    /** The repository behind an instrumented proxy, so callers can reach decorator-specific methods. */
+    public static Object unwrap(Object repository) {
+        if (Proxy.isProxyClass(repository.getClass()) && Proxy.getInvocationHandler(repository) instanceof RepositoryHandler h) {
+            return h.target;
+        }
+        return repository;
+    }
+
+    /** True while an instrumented call is running on this thread. */
+    public static boolean isRecording() {
+        return CURRENT.get() != null;
+    }
+
+    /** Borrows a connection, charging the wait to the running operation, and times the statements it creates. */
+    public static Connection connect(ConnectionPool.ConnectionFactory source) throws SQLException {
+        Scope s = CURRENT.get();
+        if (s == null) return source.create();
+        long start = System.nanoTime();
+        try {
+            return wrap(source.create());
+        } catch (SQLException e) {
+            s.failed(e);
+            throw e;
+        } finally {
+            s.connectNanos += System.nanoTime() - start;
+        }
+    }
+
+    /** Times the statements created on an already-open connection, if an operation is running. */
+    public static Connection wrap(Connection conn) {
+        if (CURRENT.get() == null) return conn;
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class }, new ConnectionHandler(conn));
+    }
+
+    public static List<OperationMetrics> getOperations() {
+        List<OperationMetrics> list = new ArrayList<>(OPS.values());
+        list.sort(Comparator.comparing(OperationMetrics::getName));
+        return list;
+    }
+
+    public static void reset() {
+        OPS.values().forEach(OperationMetrics::reset);
+    }
+
+    /** Latency percentiles per operation, in microseconds. */
+    public static String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "%-40s %9s %10s %7s %9s %9s %9s %9s %11s %11s %9s%n",
+                "Operation", "Calls", "Rows", "Errors", "p50", "p99", "p999", "Max", "Connect p99", "Execute p99", "Map p99"));
+        for (OperationMetrics op : getOperations()) {
+            if (op.getCalls() == 0) continue;
+            LatencyHistogram t = op.getTotal();
+            sb.append(String.format(Locale.ROOT, "%-40s %9d %10d %7d %9s %9s %9s %9s %11s %11s %9s%n",
+                    op.getName(), op.getCalls(), op.getRows(), op.getErrors(),
+                    micros(t.getPercentile(0.50)), micros(t.getPercentile(0.99)), micros(t.getPercentile(0.999)), micros(t.getMax()),
+                    micros(op.getConnect().getPercentile(0.99)), micros(op.getExecute().getPercentile(0.99)), micros(op.getMap().getPercentile(0.99))));
+            op.getErrorsBySqlState().forEach((state, n) -> sb.append("    SQLState ").append(state).append(": ").append(n).append('\n'));
+        }
+        return sb.toString();
+    }
+
+    public static String micros(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1000.0);
+    }
+
+    /** Starts the periodic dump if educonnect.metrics.dumpFile is set. */
+    public static void startDumperFromConfig() {
+        String file = AppConfig.get("educonnect.metrics.dumpFile", null);
+        if (file != null && !file.isBlank()) {
+            startDumper(Paths.get(file.trim()), AppConfig.getLong("educonnect.metrics.dumpIntervalMs", 60_000));
+        }
+    }
+
+    public static synchronized void startDumper(Path file, long intervalMs) {
+        stopDumper();
+        dumpFile = file;
+        dumper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "educonnect-metrics-dump");
+            t.setDaemon(true);
+            return t;
+        });
+        dumper.scheduleWithFixedDelay(DaoMetrics::dump, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /** Stops the periodic dump, writing one last report first. */
+    public static synchronized void stopDumper() {
+        if (dumper == null) return;
+        dumper.shutdownNow();
+        dumper = null;
+        dump();
+    }
+
+    private static void dump() {
+        Path file = dumpFile;
+        if (file == null) return;
+        try {
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.writeString(tmp, "# " + LocalDateTime.now() + ", latencies in microseconds\n" + report(), StandardCharsets.UTF_8);
+            try {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) { System.err.println("Metrics Dump Error: " + e.getMessage()); }
+    }
+
+    private static long rows(Object result) {
+        if (result instanceof Collection<?> c) return c.size();
+        if (result instanceof int[] counts) return counts.length;
+        if (result instanceof Boolean b) return b ? 1 : 0;
+        if (result instanceof Integer n) return Math.max(0, n);
+        if (result instanceof Stream<?>) return 0;
+        return result != null ? 1 : 0;
+    }
+
+    private static final class Scope {
+        long connectNanos;
+        long executeNanos;
+        String sqlState;
+
+        void failed(SQLException e) {
+            if (sqlState == null) sqlState = e.getSQLState() != null ? e.getSQLState() : e.getClass().getSimpleName();
+        }
+    }
+
+    private static final class RepositoryHandler implements InvocationHandler {
+        private final String prefix;
+        private final Object target;
+        private final ConcurrentHashMap<Method, OperationMetrics> ops = new ConcurrentHashMap<>();
+
+        RepositoryHandler(String prefix, Object target) {
+            this.prefix = prefix;
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) return invokeTarget(target, method, args);
+            OperationMetrics op = ops.computeIfAbsent(method, m -> OPS.computeIfAbsent(prefix + "." + m.getName(), OperationMetrics::new));
+            Scope parent = CURRENT.get();
+            Scope scope = new Scope();
+            CURRENT.set(scope);
+            DaoOperationEvent event = new DaoOperationEvent();
+            event.begin();
+            long start = System.nanoTime();
+            Object result = null;
+            try {
+                result = invokeTarget(target, method, args);
+                return result;
+            } catch (SQLException e) {
+                scope.failed(e);
+                throw e;
+            } catch (RuntimeException e) {
+                if (scope.sqlState == null) scope.sqlState = e.getClass().getSimpleName();
+                throw e;
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                if (parent == null) {
+                    CURRENT.remove();
+                } else {
+                    // A nested call's database time also belongs to the caller.
+                    parent.connectNanos += scope.connectNanos;
+                    parent.executeNanos += scope.executeNanos;
+                    CURRENT.set(parent);
+                }
+                long rows = rows(result);
+                op.record(elapsed, scope.connectNanos, scope.executeNanos, rows, scope.sqlState);
+                if (event.shouldCommit()) {
+                    event.operation = op.getName();
+                    event.connectTime = scope.connectNanos;
+                    event.executeTime = scope.executeNanos;
+                    event.rows = rows;
+                    event.sqlState = scope.sqlState;
+                    event.commit();
+                }
+            }
+        }
+    }
+
+    private static final class ConnectionHandler implements InvocationHandler {
+        private final Connection conn;
+
+        ConnectionHandler(Connection conn) {
+            this.conn = conn;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            try {
+                Object result = invokeTarget(conn, method, args);
+                if (result instanceof Statement && method.getReturnType().isInterface()) {
+                    Class<?> type = method.getReturnType();
+                    return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, new StatementHandler(result));
+                }
+                return result;
+            } catch (SQLException e) {
+                Scope s = CURRENT.get();
+                if (s != null) s.failed(e);
+                throw e;
+            }
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+        private final Object statement;
+
+        StatementHandler(Object statement) {
+            this.statement = statement;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Scope s = CURRENT.get();
+            if (s == null || !method.getName().startsWith("execute")) return invokeTarget(statement, method, args);
+            long start = System.nanoTime();
+            try {
+                return invokeTarget(statement, method, args);
+            } catch (SQLException e) {
+                s.failed(e);
+                throw e;
+            } finally {
+                s.executeNanos += System.nanoTime() - start;
+            }
+        }
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
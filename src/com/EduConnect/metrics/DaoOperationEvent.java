@@ -0,0 +1,34 @@
+package com.EduConnect.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/** One DAO call, visible in JDK Flight Recorder recordings (jcmd <pid> JFR.start). */
+@Name("com.EduConnect.DaoOperation")
+@Label("DAO Operation")
+@Category({ "EduConnect", "DAO" })
+@Description("A repository call with its connect, execute and row-mapping time")
+@StackTrace(false)
+class DaoOperationEvent extends Event {
+    @Label("Operation")
+    String operation;
+
+    @Label("Connect Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long connectTime;
+
+    @Label("Execute Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long executeTime;
+
+    @Label("Rows")
+    long rows;
+
+    @Label("SQL State")
+    String sqlState;
+}
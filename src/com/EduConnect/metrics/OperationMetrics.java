@@ -0,0 +1,64 @@
+package com.EduConnect.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/** Counters and per-phase latency histograms for one DAO operation, e.g. "student.getStudentById". */
+public class OperationMetrics {
+    private final String name;
+    private final LatencyHistogram total = new LatencyHistogram();
+    private final LatencyHistogram connect = new LatencyHistogram();
+    private final LatencyHistogram execute = new LatencyHistogram();
+    private final LatencyHistogram map = new LatencyHistogram();
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final ConcurrentHashMap<String, LongAdder> errorsBySqlState = new ConcurrentHashMap<>();
+
+    OperationMetrics(String name) {
+        this.name = name;
+    }
+
+    void record(long totalNanos, long connectNanos, long executeNanos, long rowCount, String sqlState) {
+        calls.increment();
+        total.record(totalNanos);
+        connect.record(connectNanos);
+        execute.record(executeNanos);
+        map.record(Math.max(0, totalNanos - connectNanos - executeNanos));
+        if (rowCount > 0) rows.add(rowCount);
+        if (sqlState != null) {
+            errors.increment();
+            errorsBySqlState.computeIfAbsent(sqlState, k -> new LongAdder()).increment();
+        }
+    }
+
+    public String getName() { return name; }
+    public long getCalls() { return calls.sum(); }
+    public long getRows() { return rows.sum(); }
+    public long getErrors() { return errors.sum(); }
+    public LatencyHistogram getTotal() { return total; }
+    public LatencyHistogram getConnect() { return connect; }
+    public LatencyHistogram getExecute() { return execute; }
+
+    /** Everything after the statement ran: row mapping, result-set iteration and releasing the connection. */
+    public LatencyHistogram getMap() { return map; }
+
+    public Map<String, Long> getErrorsBySqlState() {
+        Map<String, Long> m = new TreeMap<>();
+        errorsBySqlState.forEach((k, v) -> m.put(k, v.sum()));
+        return m;
+    }
+
+    void reset() {
+        total.reset();
+        connect.reset();
+        execute.reset();
+        map.reset();
+        calls.reset();
+        rows.reset();
+        errors.reset();
+        errorsBySqlState.clear();
+    }
+}
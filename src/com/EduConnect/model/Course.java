@@ -1,9 +1,17 @@
 package com.EduConnect.model;
 
+import java.util.Objects;
+
+/** A course row, tracking changed fields and its row version the same way as {@link Student}. */
 public class Course {
+    /** Field bits of {@link #getChangedFields()}. */
+    public static final int NAME = 1, DURATION = 2, ALL_FIELDS = 3;
+
     private int courseId;
     private String courseName;
     private String duration;
+    private int version;
+    private int changed = ALL_FIELDS;
 
     public Course() {}
 
@@ -18,13 +26,28 @@ public class Course {
         this.duration = duration;
     }
 
+    /** A copy carrying the same row version and changed fields. */
+    public Course(Course other) {
+        this(other.courseId, other.courseName, other.duration);
+        this.version = other.version;
+        this.changed = other.changed;
+    }
+
     public int getCourseId() { return courseId; }
     public String getCourseName() { return courseName; }
     public String getDuration() { return duration; }
+    public int getVersion() { return version; }
+    /** The fields set to a different value since the course was read or last saved, as NAME and DURATION bits. */
+    public int getChangedFields() { return changed; }
+    public boolean isChanged() { return changed != 0; }
 
     public void setCourseId(int courseId) { this.courseId = courseId; }
-    public void setCourseName(String courseName) { this.courseName = courseName; }
-    public void setDuration(String duration) { this.duration = duration; }
+    public void setCourseName(String courseName) { if (!Objects.equals(this.courseName, courseName)) { this.courseName = courseName; changed |= NAME; } }
+    public void setDuration(String duration) { if (!Objects.equals(this.duration, duration)) { this.duration = duration; changed |= DURATION; } }
+    public void setVersion(int version) { this.version = version; }
+
+    /** Marks every field as saved; the DAOs call this after reading or updating the row. */
+    public void markSaved() { changed = 0; }
 
     @Override
     public String toString() {
@@ -1,42 +1,53 @@
 package com.EduConnect.model;
 
+import com.EduConnect.util.Dates;
 import java.sql.Date;
 
 public class Enrollment {
     private int enrollmentId;
     private int studentId;
     private int courseId;
-    private Date enrollDate;
+    // Epoch day, or Dates.NONE; a java.sql.Date is only built when asked for.
+    private int enrollDay = Dates.NONE;
 
     public Enrollment() {}
 
     public Enrollment(int studentId, int courseId, Date enrollDate) {
         this.studentId = studentId;
         this.courseId = courseId;
-        this.enrollDate = enrollDate;
+        this.enrollDay = Dates.toDay(enrollDate);
     }
 
     public Enrollment(int enrollmentId, int studentId, int courseId, Date enrollDate) {
         this.enrollmentId = enrollmentId;
         this.studentId = studentId;
         this.courseId = courseId;
-        this.enrollDate = enrollDate;
+        this.enrollDay = Dates.toDay(enrollDate);
+    }
+
+    public Enrollment(int enrollmentId, int studentId, int courseId, int enrollDay) {
+        this.enrollmentId = enrollmentId;
+        this.studentId = studentId;
+        this.courseId = courseId;
+        this.enrollDay = enrollDay;
     }
 
     public int getEnrollmentId() { return enrollmentId; }
     public int getStudentId() { return studentId; }
     public int getCourseId() { return courseId; }
-    public Date getEnrollDate() { return enrollDate; }
+    public Date getEnrollDate() { return Dates.toSqlDate(enrollDay); }
+    public int getEnrollDay() { return enrollDay; }
 
     public void setEnrollmentId(int enrollmentId) { this.enrollmentId = enrollmentId; }
     public void setStudentId(int studentId) { this.studentId = studentId; }
     public void setCourseId(int courseId) { this.courseId = courseId; }
-    public void setEnrollDate(Date enrollDate) { this.enrollDate = enrollDate; }
+    public void setEnrollDate(Date enrollDate) { this.enrollDay = Dates.toDay(enrollDate); }
+    public void setEnrollDay(int enrollDay) { this.enrollDay = enrollDay; }
 
     @Override
     public String toString() {
         return "Enrollment ID: " + enrollmentId + ", Student ID: " + studentId +
-               ", Course ID: " + courseId + ", Date: " + enrollDate;
+               ", Course ID: " + courseId + ", Date: " + Dates.toLocalDate(enrollDay);
     }
 }
 
@@ -1,14 +1,28 @@
 package com.EduConnect.model;
 
+import com.EduConnect.util.Dates;
 import java.sql.Date;
+import java.util.Objects;
 
+/**
+ * A student row. Setters record which fields actually changed, so an update writes only those columns
+ * and skips the database when nothing changed. A student built in code has every field marked changed;
+ * one read from the database starts clean and carries the row version it was read at.
+ */
 public class Student {
+    /** Field bits of {@link #getChangedFields()}. */
+    public static final int NAME = 1, EMAIL = 2, PHONE = 4, DOB = 8, GENDER = 16, ALL_FIELDS = 31;
+
     private int studentId;
     private String name;
     private String email;
     private String phone;
-    private Date dob;
+    // Epoch day, or Dates.NONE; a java.sql.Date is only built when asked for.
+    private int dobDay = Dates.NONE;
     private String gender;
+    // Row version this student was read at; 0 when unknown, which makes an update unconditional.
+    private int version;
+    private int changed = ALL_FIELDS;
 
     public Student() {}
 
@@ -16,7 +30,7 @@ public class Student {
         this.name = name;
         this.email = email;
         this.phone = phone;
-        this.dob = dob;
+        this.dobDay = Dates.toDay(dob);
         this.gender = gender;
     }
 
@@ -25,28 +39,54 @@ public class Student {
         this.name = name;
         this.email = email;
         this.phone = phone;
-        this.dob = dob;
+        this.dobDay = Dates.toDay(dob);
         this.gender = gender;
     }
 
+    public Student(int studentId, String name, String email, String phone, int dobDay, String gender) {
+        this.studentId = studentId;
+        this.name = name;
+        this.email = email;
+        this.phone = phone;
+        this.dobDay = dobDay;
+        this.gender = gender;
+    }
+
+    /** A copy carrying the same row version and changed fields. */
+    public Student(Student other) {
+        this(other.studentId, other.name, other.email, other.phone, other.dobDay, other.gender);
+        this.version = other.version;
+        this.changed = other.changed;
+    }
+
     public int getStudentId() { return studentId; }
     public String getName() { return name; }
     public String getEmail() { return email; }
     public String getPhone() { return phone; }
-    public Date getDob() { return dob; }
+    public Date getDob() { return Dates.toSqlDate(dobDay); }
+    public int getDobDay() { return dobDay; }
     public String getGender() { return gender; }
+    public int getVersion() { return version; }
+    /** The fields set to a different value since the student was read or last saved, as NAME, EMAIL, ... bits. */
+    public int getChangedFields() { return changed; }
+    public boolean isChanged() { return changed != 0; }
 
     public void setStudentId(int studentId) { this.studentId = studentId; }
-    public void setName(String name) { this.name = name; }
-    public void setEmail(String email) { this.email = email; }
-    public void setPhone(String phone) { this.phone = phone; }
-    public void setDob(Date dob) { this.dob = dob; }
-    public void setGender(String gender) { this.gender = gender; }
+    public void setName(String name) { if (!Objects.equals(this.name, name)) { this.name = name; changed |= NAME; } }
+    public void setEmail(String email) { if (!Objects.equals(this.email, email)) { this.email = email; changed |= EMAIL; } }
+    public void setPhone(String phone) { if (!Objects.equals(this.phone, phone)) { this.phone = phone; changed |= PHONE; } }
+    public void setDob(Date dob) { setDobDay(Dates.toDay(dob)); }
+    public void setDobDay(int dobDay) { if (this.dobDay != dobDay) { this.dobDay = dobDay; changed |= DOB; } }
+    public void setGender(String gender) { if (!Objects.equals(this.gender, gender)) { this.gender = gender; changed |= GENDER; } }
+    public void setVersion(int version) { this.version = version; }
+
+    /** Marks every field as saved; the DAOs call this after reading or updating the row. */
+    public void markSaved() { changed = 0; }
 
     @Override
     public String toString() {
         return "ID: " + studentId + ", Name: " + name + ", Email: " + email +
-               ", Phone: " + phone + ", DOB: " + dob + ", Gender: " + gender;
+               ", Phone: " + phone + ", DOB: " + Dates.toLocalDate(dobDay) + ", Gender: " + gender;
     }
 }
 
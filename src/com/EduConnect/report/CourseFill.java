@@ -0,0 +1,26 @@
+package com.EduConnect.report;
+
+public class CourseFill {
+    private final int courseId;
+    private final String courseName;
+    private final int enrollments;
+    private final int students;
+
+    public CourseFill(int courseId, String courseName, int enrollments, int students) {
+        this.courseId = courseId;
+        this.courseName = courseName;
+        this.enrollments = enrollments;
+        this.students = students;
+    }
+
+    public int getCourseId() { return courseId; }
+    public String getCourseName() { return courseName; }
+    public int getEnrollments() { return enrollments; }
+    /** Distinct students; lower than enrollments only if a student is enrolled in the course twice. */
+    public int getStudents() { return students; }
+
+    @Override
+    public String toString() {
+        return "Course ID: " + courseId + ", Name: " + courseName + ", Enrollments: " + enrollments + ", Students: " + students;
+    }
+}
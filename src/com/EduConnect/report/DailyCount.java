@@ -0,0 +1,21 @@
+package com.EduConnect.report;
+
+import java.time.LocalDate;
+
+public class DailyCount {
+    private final LocalDate day;
+    private final int enrollments;
+
+    public DailyCount(LocalDate day, int enrollments) {
+        this.day = day;
+        this.enrollments = enrollments;
+    }
+
+    public LocalDate getDay() { return day; }
+    public int getEnrollments() { return enrollments; }
+
+    @Override
+    public String toString() {
+        return "Date: " + day + ", Enrollments: " + enrollments;
+    }
+}
@@ -0,0 +1,80 @@
+package com.EduConnect.report;
+
+import com.EduConnect.dao.CourseRepository;
+import com.EduConnect.dao.UncheckedSQLException;
+import com.EduConnect.model.Course;
+import com.EduConnect.util.DatabaseConnection;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Course fill and enrollments-per-day reports. With an {@link EnrollmentSummary} they are read from
+ * its counters; without one the database aggregates them with GROUP BY. Neither way pulls enrollment
+ * rows into the JVM.
+ */
+public class EnrollmentReports {
+    private static final String COURSE_FILL_SQL = "SELECT c.course_id, c.course_name, COUNT(e.enrollment_id), COUNT(DISTINCT e.student_id) " +
+            "FROM Courses c LEFT JOIN Enrollments e ON e.course_id = c.course_id GROUP BY c.course_id, c.course_name ORDER BY c.course_id";
+    private static final String DAILY_SQL = "SELECT enroll_date, COUNT(*) FROM Enrollments WHERE enroll_date IS NOT NULL";
+    private static final String DAILY_FROM_SQL = " AND enroll_date >= ?";
+    private static final String DAILY_TO_SQL = " AND enroll_date <= ?";
+    private static final String DAILY_GROUP_SQL = " GROUP BY enroll_date ORDER BY enroll_date";
+    private static final int FETCH_SIZE = 1000;
+
+    private final CourseRepository cDao;
+    private final EnrollmentSummary summary;
+
+    public EnrollmentReports(CourseRepository cDao) {
+        this(cDao, null);
+    }
+
+    public EnrollmentReports(CourseRepository cDao, EnrollmentSummary summary) {
+        this.cDao = cDao;
+        this.summary = summary;
+    }
+
+    /** The summary the reports are read from, or null when they are aggregated by the database. */
+    public EnrollmentSummary getSummary() { return summary; }
+
+    /** Every course, including empty ones, in id order. */
+    public List<CourseFill> getCourseFill() {
+        List<CourseFill> fill = new ArrayList<>();
+        if (summary != null) {
+            try (Stream<Course> courses = cDao.streamAllCourses(FETCH_SIZE)) {
+                courses.forEach(c -> fill.add(new CourseFill(c.getCourseId(), c.getCourseName(),
+                        summary.getCourseEnrollments(c.getCourseId()), summary.getCourseStudents(c.getCourseId()))));
+            } catch (UncheckedSQLException e) { System.err.println("Course Fill Report Error: " + e.getMessage()); }
+            return fill;
+        }
+        try (Connection conn = DatabaseConnection.getReadConnection(); PreparedStatement ps = conn.prepareStatement(COURSE_FILL_SQL); ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                fill.add(new CourseFill(rs.getInt(1), rs.getString(2), rs.getInt(3), rs.getInt(4)));
+            }
+        } catch (SQLException e) { System.err.println("Course Fill Report Error: " + e.getMessage()); }
+        return fill;
+    }
+
+    /** Enrollments per day between from and to inclusive (either may be null), skipping days with none. */
+    public List<DailyCount> getDailyCounts(LocalDate from, LocalDate to) {
+        if (summary != null) return summary.getDailyCounts(from, to);
+        List<DailyCount> days = new ArrayList<>();
+        String sql = DAILY_SQL + (from != null ? DAILY_FROM_SQL : "") + (to != null ? DAILY_TO_SQL : "") + DAILY_GROUP_SQL;
+        try (Connection conn = DatabaseConnection.getReadConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            int i = 1;
+            if (from != null) ps.setObject(i++, from);
+            if (to != null) ps.setObject(i, to);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    days.add(new DailyCount(rs.getObject(1, LocalDate.class), rs.getInt(2)));
+                }
+            }
+        } catch (SQLException e) { System.err.println("Daily Enrollments Report Error: " + e.getMessage()); }
+        return days;
+    }
+}
@@ -0,0 +1,232 @@
+package com.EduConnect.report;
+
+import com.EduConnect.dao.EnrollmentListener;
+import com.EduConnect.dao.EnrollmentRepository;
+import com.EduConnect.index.IntIntMap;
+import com.EduConnect.index.LongIntMap;
+import com.EduConnect.model.Enrollment;
+import com.EduConnect.util.Dates;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Enrollment counts kept in memory so reports read counters instead of scanning the table: rows per
+ * course, distinct students per course, rows per student and rows per enrollment day. Each row's
+ * student, course and day are remembered by id, so an update that moves an enrollment to another
+ * student, course or day, or a delete, takes back exactly what the row added. Fed by an
+ * {@link com.EduConnect.dao.EnrollmentDAO} once each change commits; rows added by batch inserts are
+ * picked up by {@link #refresh}, except on shards, whose DAO reports its batches' rows itself.
+ */
+public class EnrollmentSummary implements EnrollmentListener {
+    private static final int NO_DATE = Dates.NONE;
+    private static final int LOAD_FETCH_SIZE = 5000;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final IntIntMap slotById = new IntIntMap(1024, -1);
+    private int[] ids = new int[1024];
+    private int[] studentIds = new int[1024];
+    private int[] courseIds = new int[1024];
+    private int[] days = new int[1024];
+    private int used;
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private int maxId;
+
+    private final IntIntMap byCourse = new IntIntMap(256, 0);
+    private final IntIntMap studentsByCourse = new IntIntMap(256, 0);
+    private final IntIntMap byStudent = new IntIntMap(1024, 0);
+    // (student_id, course_id) -> rows, so a duplicate enrollment does not count the student twice.
+    private final LongIntMap pairs = new LongIntMap(1024, 0);
+    private final TreeMap<Integer, int[]> byDay = new TreeMap<>();
+
+    /** Rebuilds the summary from a full scan of the repository. */
+    public void load(EnrollmentRepository repo) {
+        try (Stream<Enrollment> rows = repo.streamAllEnrollments(LOAD_FETCH_SIZE)) {
+            lock.writeLock().lock();
+            try {
+                clearLocked();
+                Iterator<Enrollment> it = rows.iterator();
+                while (it.hasNext()) putLocked(it.next());
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /** Pulls in rows inserted since the highest id the summary has seen. */
+    public void refresh(EnrollmentRepository repo) {
+        try {
+            refresh(repo, getMaxEnrollmentId());
+        } catch (SQLException e) { System.err.println("Refresh Summary Error: " + e.getMessage()); }
+    }
+
+    /**
+     * Pulls in every row above afterId; rows already counted are put again, which takes back what they
+     * added first. A failed page throws, so a caller applying a logged batch can try it again.
+     */
+    public void refresh(EnrollmentRepository repo, int afterId) throws SQLException {
+        int after = afterId;
+        List<Enrollment> page;
+        do {
+            page = repo.findEnrollmentsPage(after, LOAD_FETCH_SIZE);
+            lock.writeLock().lock();
+            try {
+                for (Enrollment e : page) putLocked(e);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (!page.isEmpty()) after = page.get(page.size() - 1).getEnrollmentId();
+        } while (page.size() == LOAD_FETCH_SIZE);
+    }
+
+    @Override
+    public void put(Enrollment e) {
+        lock.writeLock().lock();
+        try { putLocked(e); } finally { lock.writeLock().unlock(); }
+    }
+
+    @Override
+    public void remove(int enrollmentId) {
+        lock.writeLock().lock();
+        try { removeLocked(enrollmentId); } finally { lock.writeLock().unlock(); }
+    }
+
+    /** Walks every row, which is fine for the rare whole-student or whole-course delete. */
+    @Override
+    public void removeAll(int id, boolean byCourse) {
+        lock.writeLock().lock();
+        try {
+            int[] column = byCourse ? courseIds : studentIds;
+            for (int slot = 0; slot < used; slot++) {
+                if (ids[slot] != 0 && column[slot] == id) removeLocked(ids[slot]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try { return slotById.size(); } finally { lock.readLock().unlock(); }
+    }
+
+    public int getCourseEnrollments(int courseId) {
+        lock.readLock().lock();
+        try { return byCourse.get(courseId); } finally { lock.readLock().unlock(); }
+    }
+
+    public int getCourseStudents(int courseId) {
+        lock.readLock().lock();
+        try { return studentsByCourse.get(courseId); } finally { lock.readLock().unlock(); }
+    }
+
+    public int getStudentEnrollments(int studentId) {
+        lock.readLock().lock();
+        try { return byStudent.get(studentId); } finally { lock.readLock().unlock(); }
+    }
+
+    /** Rows per enrollment day between from and to inclusive (either may be null), in date order. */
+    public List<DailyCount> getDailyCounts(LocalDate from, LocalDate to) {
+        lock.readLock().lock();
+        try {
+            List<DailyCount> out = new ArrayList<>();
+            for (Map.Entry<Integer, int[]> d : range(from, to).entrySet()) {
+                out.add(new DailyCount(LocalDate.ofEpochDay(d.getKey()), d.getValue()[0]));
+            }
+            return out;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getMaxEnrollmentId() {
+        lock.readLock().lock();
+        try { return maxId; } finally { lock.readLock().unlock(); }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try { clearLocked(); } finally { lock.writeLock().unlock(); }
+    }
+
+    private Map<Integer, int[]> range(LocalDate from, LocalDate to) {
+        int lo = from == null ? NO_DATE + 1 : (int) from.toEpochDay();
+        int hi = to == null ? Integer.MAX_VALUE : (int) to.toEpochDay();
+        return lo > hi ? Map.of() : byDay.subMap(lo, true, hi, true);
+    }
+
+    private void putLocked(Enrollment e) {
+        int id = e.getEnrollmentId();
+        if (id <= 0) return;
+        removeLocked(id);
+        int slot = freeCount > 0 ? freeSlots[--freeCount] : nextSlot();
+        slotById.put(id, slot);
+        ids[slot] = id;
+        studentIds[slot] = e.getStudentId();
+        courseIds[slot] = e.getCourseId();
+        days[slot] = e.getEnrollDay();
+        count(slot, 1);
+        if (id > maxId) maxId = id;
+    }
+
+    private void removeLocked(int id) {
+        int slot = slotById.remove(id);
+        if (slot < 0) return;
+        count(slot, -1);
+        ids[slot] = 0;
+        if (freeCount == freeSlots.length) freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        freeSlots[freeCount++] = slot;
+    }
+
+    // Adds (delta 1) or takes back (delta -1) everything one row contributes.
+    private void count(int slot, int delta) {
+        int student = studentIds[slot];
+        int course = courseIds[slot];
+        add(byCourse, course, delta);
+        add(byStudent, student, delta);
+        long pair = (long) student << 32 | (course & 0xFFFFFFFFL);
+        int before = pairs.get(pair);
+        if (before + delta == 0) pairs.remove(pair); else pairs.put(pair, before + delta);
+        if (before == 0 || before + delta == 0) add(studentsByCourse, course, delta);
+        if (days[slot] != NO_DATE) {
+            int[] n = byDay.computeIfAbsent(days[slot], d -> new int[1]);
+            if ((n[0] += delta) == 0) byDay.remove(days[slot]);
+        }
+    }
+
+    private static void add(IntIntMap counts, int key, int delta) {
+        int n = counts.get(key) + delta;
+        if (n == 0) counts.remove(key); else counts.put(key, n);
+    }
+
+    private int nextSlot() {
+        if (used == ids.length) {
+            int cap = used + (used >> 1);
+            ids = Arrays.copyOf(ids, cap);
+            studentIds = Arrays.copyOf(studentIds, cap);
+            courseIds = Arrays.copyOf(courseIds, cap);
+            days = Arrays.copyOf(days, cap);
+        }
+        return used++;
+    }
+
+    private void clearLocked() {
+        slotById.clear();
+        byCourse.clear();
+        studentsByCourse.clear();
+        byStudent.clear();
+        pairs.clear();
+        byDay.clear();
+        used = 0;
+        freeCount = 0;
+        maxId = 0;
+    }
+}
@@ -0,0 +1,102 @@
+package com.EduConnect.search;
+
+import com.EduConnect.cache.CachedStudentDAO;
+import com.EduConnect.cache.EntityCache;
+import com.EduConnect.dao.StudentResult;
+import com.EduConnect.dao.UnitOfWork;
+import com.EduConnect.dao.UpdateResult;
+import com.EduConnect.model.Student;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Answers {@link #searchStudents} from a {@link StudentSearchIndex} loaded at startup and kept current
+ * by this DAO's write methods; matching ids are turned back into students through the cache. Batch
+ * inserts run on a caller-managed transaction, so their rows are picked up by {@link #refresh()} once
+ * the caller has committed. Writes made inside a {@link UnitOfWork} reach the index only when it commits.
+ */
+public class SearchableStudentDAO extends CachedStudentDAO {
+    private static final int LOAD_FETCH_SIZE = 5000;
+
+    private final StudentSearchIndex index;
+
+    public SearchableStudentDAO() {
+        this(EntityCache.fromConfig("students"), new StudentSearchIndex());
+    }
+
+    public SearchableStudentDAO(EntityCache<Student> cache, StudentSearchIndex index) {
+        super(cache);
+        this.index = index;
+    }
+
+    /** Rebuilds the index from a full scan of the Students table. */
+    public void load() {
+        index.clear();
+        try (Stream<Student> rows = streamAllStudents(LOAD_FETCH_SIZE)) {
+            index.load(rows.iterator());
+        }
+    }
+
+    /** Pulls in rows inserted since the highest id the index has seen. */
+    public void refresh() {
+        try {
+            refresh(index.getMaxStudentId());
+        } catch (SQLException e) { System.err.println("Refresh Search Index Error: " + e.getMessage()); }
+    }
+
+    /**
+     * Pulls in every row above afterId; rows already indexed are put again, which is harmless. A failed
+     * page throws, so a caller applying a logged batch can try it again.
+     */
+    public void refresh(int afterId) throws SQLException {
+        int after = afterId;
+        List<Student> page;
+        do {
+            page = findStudentsPage(after, LOAD_FETCH_SIZE);
+            index.load(page.iterator());
+            if (!page.isEmpty()) after = page.get(page.size() - 1).getStudentId();
+        } while (page.size() == LOAD_FETCH_SIZE);
+    }
+
+    public StudentSearchIndex getIndex() { return index; }
+
+    @Override
+    public StudentResult addStudentChecked(Student s) {
+        StudentResult result = super.addStudentChecked(s);
+        if (result == StudentResult.OK && s.getStudentId() > 0) put(s);
+        return result;
+    }
+
+    @Override
+    public List<Student> searchStudents(String query, int limit) {
+        int[] ids = index.search(query, limit);
+        List<Student> students = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            Student s = getStudentById(id);
+            if (s != null) students.add(s);
+        }
+        return students;
+    }
+
+    @Override
+    public UpdateResult updateStudentChecked(Student s) {
+        UpdateResult result = super.updateStudentChecked(s);
+        if (result == UpdateResult.OK) put(s);
+        return result;
+    }
+
+    @Override
+    public boolean deleteStudent(int id) {
+        boolean ok = super.deleteStudent(id);
+        if (ok) UnitOfWork.afterCommit(() -> index.remove(id));
+        return ok;
+    }
+
+    // The caller may keep editing its instance after the call, so the index gets its own copy.
+    private void put(Student s) {
+        Student copy = new Student(s);
+        UnitOfWork.afterCommit(() -> index.put(copy));
+    }
+}
@@ -0,0 +1,325 @@
+package com.EduConnect.search;
+
+import com.EduConnect.index.IntIntMap;
+import com.EduConnect.index.IntMultimap;
+import com.EduConnect.model.Student;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory search over student name, email and phone. Every field is lower-cased (phones reduced to
+ * their digits) and indexed by its trigrams plus the one- and two-character prefixes of each word.
+ * A query intersects the posting lists of its two rarest grams and checks each candidate against the
+ * stored text, so gram hash collisions never produce wrong hits. The three fields of a row are kept in
+ * one string so that checking a candidate touches a single object. Rows live in slots; a replaced or
+ * deleted row only marks its slot dead, and the postings are rebuilt once dead slots outnumber live ones.
+ */
+public class StudentSearchIndex {
+    private static final int PREFIX_SEED = 0x5bd1e995;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private static final char SEPARATOR = '\n';
+
+    private int[] ids;
+    // name, email and phone digits joined by SEPARATOR; nameEnd and emailEnd mark where each field stops.
+    private String[] texts;
+    private int[] nameEnd;
+    private int[] emailEnd;
+    private int used;
+    private int dead;
+    private final IntIntMap slotById;
+    private IntMultimap postings;
+    private int maxId;
+
+    public StudentSearchIndex() {
+        this(1024);
+    }
+
+    public StudentSearchIndex(int expectedRows) {
+        int cap = Math.max(16, expectedRows);
+        ids = new int[cap];
+        texts = new String[cap];
+        nameEnd = new int[cap];
+        emailEnd = new int[cap];
+        slotById = new IntIntMap(cap, -1);
+        postings = new IntMultimap(Math.max(1024, cap / 4));
+    }
+
+    /** Adds every student from the iterator; students already present are replaced. */
+    public void load(Iterator<Student> rows) {
+        lock.writeLock().lock();
+        try {
+            while (rows.hasNext()) putLocked(rows.next());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void put(Student s) {
+        lock.writeLock().lock();
+        try { putLocked(s); } finally { lock.writeLock().unlock(); }
+    }
+
+    public boolean remove(int studentId) {
+        lock.writeLock().lock();
+        try {
+            boolean removed = killLocked(studentId);
+            if (removed) maybeCompactLocked();
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the best matches, best first. Exact field matches rank above prefix matches, which rank
+     * above matches at the start of a later word, then anywhere in the field; name beats email beats
+     * phone, then shorter fields, then lower ids. Queries under three characters match word prefixes only.
+     */
+    public int[] search(String query, int limit) {
+        if (query == null || limit <= 0) return new int[0];
+        String q = query.trim().toLowerCase(Locale.ROOT);
+        String qd = digits(q);
+        if (q.isEmpty() || q.indexOf(SEPARATOR) >= 0) return new int[0];
+        boolean phoneQuery = qd.length() >= 3 && qd.length() != q.length();
+        PriorityQueue<long[]> top = new PriorityQueue<>(limit + 1, StudentSearchIndex::compareRank);
+        lock.readLock().lock();
+        try {
+            BitSet seen = phoneQuery ? new BitSet(used) : null;
+            collect(candidates(q), q, q.equals(qd) ? q : null, limit, top, seen);
+            if (phoneQuery) collect(candidates(qd), q, qd, limit, top, seen);
+        } finally {
+            lock.readLock().unlock();
+        }
+        int[] result = new int[top.size()];
+        for (int i = result.length - 1; i >= 0; i--) result[i] = (int) top.poll()[2];
+        return result;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try { return used - dead; } finally { lock.readLock().unlock(); }
+    }
+
+    public int getMaxStudentId() {
+        lock.readLock().lock();
+        try { return maxId; } finally { lock.readLock().unlock(); }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            Arrays.fill(texts, 0, used, null);
+            used = 0;
+            dead = 0;
+            maxId = 0;
+            slotById.clear();
+            postings.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Slots holding the two rarest grams of the query; every true match is among them.
+    private int[] candidates(String q) {
+        if (q.length() < 3) return postings.get(prefixKey(q, 0, q.length()));
+        int bestKey = 0, bestCount = Integer.MAX_VALUE;
+        int nextKey = 0, nextCount = Integer.MAX_VALUE;
+        for (int i = 0; i + 3 <= q.length(); i++) {
+            int key = gramKey(q, i);
+            if (key == bestKey || key == nextKey) continue;
+            int n = postings.count(key);
+            if (n < bestCount) {
+                nextKey = bestKey;
+                nextCount = bestCount;
+                bestKey = key;
+                bestCount = n;
+            } else if (n < nextCount) {
+                nextKey = key;
+                nextCount = n;
+            }
+        }
+        if (bestCount == 0 || nextKey == 0) return postings.get(bestKey);
+        return intersect(postings.get(bestKey), postings.get(nextKey));
+    }
+
+    // Postings are only ever appended to, so each list is in ascending slot order.
+    private static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[a.length];
+        int n = 0;
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            if (a[i] < b[j]) i++;
+            else if (a[i] > b[j]) j++;
+            else { out[n++] = a[i]; i++; j++; }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private void collect(int[] slots, String q, String qd, int limit, PriorityQueue<long[]> top, BitSet seen) {
+        for (int slot : slots) {
+            if (ids[slot] == 0) continue;
+            if (seen != null) {
+                if (seen.get(slot)) continue;
+                seen.set(slot);
+            }
+            String text = texts[slot];
+            int n = nameEnd[slot];
+            int e = emailEnd[slot];
+            int score = score(text, 0, n, q, 3);
+            int len = n;
+            int s;
+            if ((s = score(text, n + 1, e, q, 2)) > score) { score = s; len = e - n - 1; }
+            if (qd != null && (s = score(text, e + 1, text.length(), qd, 1)) > score) { score = s; len = text.length() - e - 1; }
+            if (score == 0) continue;
+            long[] hit = { score, len, ids[slot] };
+            if (top.size() < limit) {
+                top.add(hit);
+            } else if (compareRank(hit, top.peek()) > 0) {
+                top.poll();
+                top.add(hit);
+            }
+        }
+    }
+
+    // Higher is better: more score, then shorter field, then lower id.
+    private static int compareRank(long[] a, long[] b) {
+        if (a[0] != b[0]) return Long.compare(a[0], b[0]);
+        if (a[1] != b[1]) return Long.compare(b[1], a[1]);
+        return Long.compare(b[2], a[2]);
+    }
+
+    // Scores the field text[from, to).
+    private static int score(String text, int from, int to, String q, int weight) {
+        int last = to - q.length();
+        if (last < from) return 0;
+        int kind;
+        if (text.startsWith(q, from)) kind = last == from ? 4 : 3;
+        else {
+            kind = 0;
+            for (int at = text.indexOf(q, from + 1); at >= 0 && at <= last; at = text.indexOf(q, at + 1)) {
+                if (!Character.isLetterOrDigit(text.charAt(at - 1))) { kind = 2; break; }
+                kind = 1;
+            }
+            if (kind == 0 || (q.length() < 3 && kind == 1)) return 0;
+        }
+        return kind * 4 + weight;
+    }
+
+    private void putLocked(Student s) {
+        int id = s.getStudentId();
+        if (id <= 0) return;
+        killLocked(id);
+        int slot = used++;
+        if (slot == ids.length) grow();
+        String name = normalize(s.getName());
+        String email = normalize(s.getEmail());
+        ids[slot] = id;
+        texts[slot] = name + SEPARATOR + email + SEPARATOR + (s.getPhone() == null ? "" : digits(s.getPhone()));
+        nameEnd[slot] = name.length();
+        emailEnd[slot] = name.length() + 1 + email.length();
+        slotById.put(id, slot);
+        indexSlot(slot);
+        if (id > maxId) maxId = id;
+        maybeCompactLocked();
+    }
+
+    private boolean killLocked(int id) {
+        int slot = slotById.remove(id);
+        if (slot < 0) return false;
+        ids[slot] = 0;
+        texts[slot] = null;
+        dead++;
+        return true;
+    }
+
+    private void indexSlot(int slot) {
+        int[] keys = new int[64];
+        int n = 0;
+        String text = texts[slot];
+        int from = 0;
+        for (int to : new int[] { nameEnd[slot], emailEnd[slot], text.length() }) {
+            for (int i = from; i < to; i++) {
+                if (n + 3 > keys.length) keys = Arrays.copyOf(keys, keys.length * 2);
+                if (i + 3 <= to) keys[n++] = gramKey(text, i);
+                if (i == from || !Character.isLetterOrDigit(text.charAt(i - 1))) {
+                    keys[n++] = prefixKey(text, i, 1);
+                    if (i + 2 <= to) keys[n++] = prefixKey(text, i, 2);
+                }
+            }
+            from = to + 1;
+        }
+        Arrays.sort(keys, 0, n);
+        for (int i = 0; i < n; i++) {
+            if (i == 0 || keys[i] != keys[i - 1]) postings.put(keys[i], slot);
+        }
+    }
+
+    private void maybeCompactLocked() {
+        if (dead < 1024 || dead < used - dead) return;
+        int live = 0;
+        for (int slot = 0; slot < used; slot++) {
+            if (ids[slot] == 0) continue;
+            ids[live] = ids[slot];
+            texts[live] = texts[slot];
+            nameEnd[live] = nameEnd[slot];
+            emailEnd[live] = emailEnd[slot];
+            live++;
+        }
+        Arrays.fill(texts, live, used, null);
+        used = live;
+        dead = 0;
+        slotById.clear();
+        postings = new IntMultimap(Math.max(1024, live / 4));
+        for (int slot = 0; slot < used; slot++) {
+            slotById.put(ids[slot], slot);
+            indexSlot(slot);
+        }
+    }
+
+    private void grow() {
+        int cap = ids.length * 2;
+        ids = Arrays.copyOf(ids, cap);
+        texts = Arrays.copyOf(texts, cap);
+        nameEnd = Arrays.copyOf(nameEnd, cap);
+        emailEnd = Arrays.copyOf(emailEnd, cap);
+    }
+
+    private static String normalize(String s) {
+        return s == null ? "" : s.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String digits(String s) {
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c >= '0' && c <= '9') sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    private static int gramKey(String s, int at) {
+        return nonZero(mix((s.charAt(at) * 31 + s.charAt(at + 1)) * 31 + s.charAt(at + 2)));
+    }
+
+    private static int prefixKey(String s, int at, int len) {
+        int h = PREFIX_SEED + len;
+        for (int i = at; i < at + len; i++) h = h * 31 + s.charAt(i);
+        return nonZero(mix(h));
+    }
+
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        return h;
+    }
+
+    // IntIntMap reserves key 0.
+    private static int nonZero(int h) {
+        return h == 0 ? 1 : h;
+    }
+}
@@ -0,0 +1,541 @@
+package com.EduConnect.server;
+
+import com.EduConnect.async.EnrollmentWriteQueue;
+import com.EduConnect.dao.CascadeDeleter;
+import com.EduConnect.dao.CourseRepository;
+import com.EduConnect.dao.EnrollmentRepository;
+import com.EduConnect.dao.EnrollmentResult;
+import com.EduConnect.dao.StudentRepository;
+import com.EduConnect.dao.StudentResult;
+import com.EduConnect.dao.UniqueKeys;
+import com.EduConnect.dao.UpdateResult;
+import com.EduConnect.metrics.DaoMetrics;
+import com.EduConnect.metrics.LatencyHistogram;
+import com.EduConnect.metrics.OperationMetrics;
+import com.EduConnect.model.Course;
+import com.EduConnect.model.Enrollment;
+import com.EduConnect.model.Student;
+import com.EduConnect.report.EnrollmentReports;
+import com.EduConnect.snapshot.SnapshotStudentDAO;
+import com.EduConnect.sync.ChangePoller;
+import com.EduConnect.util.DatabaseConnection;
+import com.EduConnect.util.Dates;
+import com.EduConnect.util.Json;
+import com.EduConnect.util.PoolStats;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Long-running JSON front end over the same repositories, pool and caches the CLI uses. Each request
+ * runs on its own virtual thread; full listings are streamed as a chunked JSON array straight from a
+ * forward-only result set, so memory stays flat however many rows there are.
+ *
+ * <pre>
+ * GET    /students[?after=ID&amp;limit=N]     POST /students     GET|PUT|DELETE /students/{id}
+ * GET    /courses[?after=ID&amp;limit=N]      POST /courses      GET|PUT|DELETE /courses/{id}
+ * GET    /enrollments[?after=ID&amp;limit=N]  POST /enrollments  GET|PUT|DELETE /enrollments/{id}
+ * GET    /students/{id}/enrollments       GET /courses/{id}/enrollments
+ * GET    /students?q=TEXT[&amp;limit=N]      name, email or phone contains TEXT, best matches first
+ * GET    /reports/courses                 GET /reports/daily[?from=DATE&amp;to=DATE]
+ * GET    /stats                           GET /health
+ * </pre>
+ */
+public class ApiServer {
+    private static final int FETCH_SIZE = 1000;
+    private static final int STREAM_BUFFER = 64 * 1024;
+    private static final int MAX_BODY = 64 * 1024;
+    private static final int MAX_LIMIT = 10_000;
+    private static final int DEFAULT_SEARCH_LIMIT = 20;
+
+    private final StudentRepository sDao;
+    private final CourseRepository cDao;
+    private final EnrollmentRepository eDao;
+    private final EnrollmentReports reports;
+    private final EnrollmentWriteQueue writes;
+    private final ChangePoller sync;
+    private final CascadeDeleter cascade;
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public ApiServer(StudentRepository sDao, CourseRepository cDao, EnrollmentRepository eDao) {
+        this(sDao, cDao, eDao, new EnrollmentReports(cDao));
+    }
+
+    public ApiServer(StudentRepository sDao, CourseRepository cDao, EnrollmentRepository eDao, EnrollmentReports reports) {
+        this(sDao, cDao, eDao, reports, null);
+    }
+
+    /** With a write queue, enrollment inserts and updates are group-committed through it. */
+    public ApiServer(StudentRepository sDao, CourseRepository cDao, EnrollmentRepository eDao, EnrollmentReports reports,
+                     EnrollmentWriteQueue writes) {
+        this(sDao, cDao, eDao, reports, writes, null);
+    }
+
+    /** The change poller is only reported on under /stats; its owner starts and closes it. */
+    public ApiServer(StudentRepository sDao, CourseRepository cDao, EnrollmentRepository eDao, EnrollmentReports reports,
+                     EnrollmentWriteQueue writes, ChangePoller sync) {
+        this.sDao = sDao;
+        this.cDao = cDao;
+        this.eDao = eDao;
+        this.reports = reports;
+        this.writes = writes;
+        this.sync = sync;
+        this.cascade = new CascadeDeleter(sDao, cDao, eDao);
+    }
+
+    public synchronized InetSocketAddress start(String host, int port) throws IOException {
+        // Headers and body go out in separate writes; with Nagle on, each response then waits on the
+        // client's delayed ACK (~40 ms). Must be set before the first server is created.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) System.setProperty("sun.net.httpserver.nodelay", "true");
+        server = HttpServer.create(new InetSocketAddress(host, port), 1024);
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/students", ex -> handle(ex, this::students));
+        server.createContext("/courses", ex -> handle(ex, this::courses));
+        server.createContext("/enrollments", ex -> handle(ex, this::enrollments));
+        server.createContext("/reports", ex -> handle(ex, this::reports));
+        server.createContext("/stats", ex -> handle(ex, (e, p) -> stats(e)));
+        server.createContext("/health", ex -> handle(ex, (e, p) -> send(e, 200, "{\"status\":\"ok\"}")));
+        server.start();
+        return server.getAddress();
+    }
+
+    /** Stops accepting requests, gives in-flight ones up to the delay to finish, then releases waiters. */
+    public synchronized void stop(int delaySeconds) {
+        if (server == null) return;
+        server.stop(delaySeconds);
+        executor.close();
+        server = null;
+        stopped.countDown();
+    }
+
+    public void awaitStop() throws InterruptedException {
+        stopped.await();
+    }
+
+    @FunctionalInterface
+    private interface Route {
+        void handle(HttpExchange ex, String[] path) throws IOException;
+    }
+
+    private static final class HttpError extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        final int status;
+
+        HttpError(int status, String message) {
+            super(message, null, false, false);
+            this.status = status;
+        }
+    }
+
+    private void handle(HttpExchange ex, Route route) {
+        try (ex) {
+            try {
+                String p = ex.getRequestURI().getPath();
+                String[] path = p.substring(1).split("/");
+                route.handle(ex, path);
+            } catch (HttpError e) {
+                send(ex, e.status, error(e.getMessage()));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                send(ex, 400, error(e.getMessage()));
+            } catch (RuntimeException e) {
+                System.err.println("HTTP Error: " + e);
+                send(ex, 500, error("Internal error."));
+            }
+        } catch (IOException e) {
+            // The client went away mid-response; nothing left to tell it.
+        }
+    }
+
+    private void students(HttpExchange ex, String[] path) throws IOException {
+        String method = ex.getRequestMethod();
+        if (path.length == 1) {
+            if (method.equals("GET")) {
+                Map<String, String> q = query(ex);
+                if (q.containsKey("q")) {
+                    sendAll(ex, sDao.searchStudents(q.get("q"), limit(q, DEFAULT_SEARCH_LIMIT)), Json::student);
+                    return;
+                }
+                list(ex, sDao::getStudentsPage, sDao::streamAllStudents, Json::student);
+            } else if (method.equals("POST")) {
+                Map<String, String> b = body(ex);
+                String email = required(b, "email").trim();
+                if (email.equalsIgnoreCase("blank")) throw new IllegalArgumentException("email cannot be 'blank'");
+                Student s = new Student(required(b, "name"), email, b.get("phone"), Dates.parse(b.get("dob")), b.get("gender"));
+                StudentResult r = sDao.addStudentChecked(s);
+                switch (r) {
+                    case OK: send(ex, 201, Json.student(new StringBuilder(128), s).toString()); break;
+                    case DUPLICATE: throw new HttpError(409, r.getMessage());
+                    default: throw new HttpError(500, r.getMessage());
+                }
+            } else {
+                throw notAllowed();
+            }
+            return;
+        }
+        int id = id(path[1]);
+        if (path.length == 3 && path[2].equals("enrollments") && method.equals("GET")) {
+            sendAll(ex, eDao.getEnrollmentsByStudentId(id), Json::enrollment);
+            return;
+        }
+        if (path.length != 2) throw notFound();
+        switch (method) {
+            case "GET": {
+                Student s = sDao.getStudentById(id);
+                if (s == null) throw notFound();
+                etag(ex, s.getVersion());
+                send(ex, 200, Json.student(new StringBuilder(128), s).toString());
+                break;
+            }
+            case "PUT": {
+                Map<String, String> b = body(ex);
+                Student s = sDao.getStudentById(id);
+                if (s == null) throw notFound();
+                checkIfMatch(ex, s.getVersion());
+                if (b.containsKey("name")) s.setName(b.get("name"));
+                if (b.containsKey("email")) s.setEmail(b.get("email"));
+                if (b.containsKey("phone")) s.setPhone(b.get("phone"));
+                if (b.containsKey("dob")) s.setDob(Dates.parse(b.get("dob")));
+                if (b.containsKey("gender")) s.setGender(b.get("gender"));
+                updated(sDao.updateStudentChecked(s));
+                etag(ex, s.getVersion());
+                send(ex, 200, Json.student(new StringBuilder(128), s).toString());
+                break;
+            }
+            case "DELETE": {
+                int n = cascade.deleteStudent(id);
+                if (n < 0) throw notFound();
+                send(ex, 200, "{\"status\":\"ok\",\"id\":" + id + ",\"enrollmentsDeleted\":" + n + "}");
+                break;
+            }
+            default: throw notAllowed();
+        }
+    }
+
+    private void courses(HttpExchange ex, String[] path) throws IOException {
+        String method = ex.getRequestMethod();
+        if (path.length == 1) {
+            if (method.equals("GET")) {
+                list(ex, cDao::getCoursesPage, cDao::streamAllCourses, Json::course);
+            } else if (method.equals("POST")) {
+                Map<String, String> b = body(ex);
+                Course c = new Course(required(b, "name"), b.get("duration"));
+                if (!cDao.addCourse(c)) throw new HttpError(500, "Failed.");
+                send(ex, 201, Json.course(new StringBuilder(64), c).toString());
+            } else {
+                throw notAllowed();
+            }
+            return;
+        }
+        int id = id(path[1]);
+        if (path.length == 3 && path[2].equals("enrollments") && method.equals("GET")) {
+            sendAll(ex, eDao.getEnrollmentsByCourseId(id), Json::enrollment);
+            return;
+        }
+        if (path.length != 2) throw notFound();
+        switch (method) {
+            case "GET": {
+                Course c = cDao.getCourseById(id);
+                if (c == null) throw notFound();
+                etag(ex, c.getVersion());
+                send(ex, 200, Json.course(new StringBuilder(64), c).toString());
+                break;
+            }
+            case "PUT": {
+                Map<String, String> b = body(ex);
+                Course c = cDao.getCourseById(id);
+                if (c == null) throw notFound();
+                checkIfMatch(ex, c.getVersion());
+                if (b.containsKey("name")) c.setCourseName(b.get("name"));
+                if (b.containsKey("duration")) c.setDuration(b.get("duration"));
+                updated(cDao.updateCourseChecked(c));
+                etag(ex, c.getVersion());
+                send(ex, 200, Json.course(new StringBuilder(64), c).toString());
+                break;
+            }
+            case "DELETE": {
+                int n = cascade.deleteCourse(id);
+                if (n < 0) throw notFound();
+                send(ex, 200, "{\"status\":\"ok\",\"id\":" + id + ",\"enrollmentsDeleted\":" + n + "}");
+                break;
+            }
+            default: throw notAllowed();
+        }
+    }
+
+    private void enrollments(HttpExchange ex, String[] path) throws IOException {
+        String method = ex.getRequestMethod();
+        if (path.length == 1) {
+            if (method.equals("GET")) {
+                Map<String, String> q = query(ex);
+                if (q.containsKey("student")) sendAll(ex, eDao.getEnrollmentsByStudentId(id(q.get("student"))), Json::enrollment);
+                else if (q.containsKey("course")) sendAll(ex, eDao.getEnrollmentsByCourseId(id(q.get("course"))), Json::enrollment);
+                else list(ex, eDao::getEnrollmentsPage, eDao::streamAllEnrollments, Json::enrollment);
+            } else if (method.equals("POST")) {
+                Map<String, String> b = body(ex);
+                Enrollment e = new Enrollment(id(required(b, "studentId")), id(required(b, "courseId")), Dates.parse(required(b, "enrollDate")));
+                EnrollmentResult r = writes != null ? await(writes.addEnrollment(e)) : eDao.addEnrollmentChecked(e);
+                switch (r) {
+                    case OK: send(ex, 201, Json.enrollment(new StringBuilder(80), e).toString()); break;
+                    case STUDENT_NOT_FOUND: case COURSE_NOT_FOUND: throw new HttpError(404, r.getMessage());
+                    case DUPLICATE: throw new HttpError(409, r.getMessage());
+                    default: throw new HttpError(500, r.getMessage());
+                }
+            } else {
+                throw notAllowed();
+            }
+            return;
+        }
+        if (path.length != 2) throw notFound();
+        int id = id(path[1]);
+        switch (method) {
+            case "GET": {
+                Enrollment e = eDao.getEnrollmentById(id);
+                if (e == null) throw notFound();
+                send(ex, 200, Json.enrollment(new StringBuilder(80), e).toString());
+                break;
+            }
+            case "PUT": {
+                Map<String, String> b = body(ex);
+                Enrollment e = eDao.getEnrollmentById(id);
+                if (e == null) throw notFound();
+                if (b.containsKey("studentId")) e.setStudentId(id(b.get("studentId")));
+                if (b.containsKey("courseId")) e.setCourseId(id(b.get("courseId")));
+                if (b.containsKey("enrollDate")) e.setEnrollDate(Dates.parse(b.get("enrollDate")));
+                if (!(writes != null ? await(writes.updateEnrollment(e)) : eDao.updateEnrollment(e))) throw new HttpError(409, "Update refused; check the student and course ids.");
+                send(ex, 200, Json.enrollment(new StringBuilder(80), e).toString());
+                break;
+            }
+            case "DELETE": {
+                if (!eDao.deleteEnrollment(id)) throw notFound();
+                send(ex, 200, "{\"status\":\"ok\",\"id\":" + id + "}");
+                break;
+            }
+            default: throw notAllowed();
+        }
+    }
+
+    private void reports(HttpExchange ex, String[] path) throws IOException {
+        if (path.length != 2) throw notFound();
+        if (!ex.getRequestMethod().equals("GET")) throw notAllowed();
+        switch (path[1]) {
+            case "courses":
+                sendAll(ex, reports.getCourseFill(), Json::courseFill);
+                break;
+            case "daily": {
+                Map<String, String> q = query(ex);
+                sendAll(ex, reports.getDailyCounts(day(q.get("from")), day(q.get("to"))), Json::dailyCount);
+                break;
+            }
+            default: throw notFound();
+        }
+    }
+
+    private void stats(HttpExchange ex) throws IOException {
+        StringBuilder sb = new StringBuilder(1024).append('{');
+        if (DaoMetrics.unwrap(sDao) instanceof SnapshotStudentDAO snapshot) {
+            // No database behind a snapshot; asking for pool stats would start a pool.
+            Json.quote(sb.append("\"snapshot\":"), snapshot.getSnapshot().toString());
+        } else {
+            PoolStats pool = DatabaseConnection.getPoolStats();
+            Json.quote(sb.append("\"pool\":"), pool.toString()).append(",\"statements\":{\"hits\":").append(pool.getStatementHits())
+              .append(",\"misses\":").append(pool.getStatementMisses()).append(",\"evictions\":").append(pool.getStatementEvictions())
+              .append(",\"hitRate\":").append(pool.getStatementHitRate()).append('}');
+            List<PoolStats> replicas = DatabaseConnection.getReplicaPoolStats();
+            if (!replicas.isEmpty()) {
+                poolList(sb.append(",\"replicas\":"), replicas);
+                Json.quote(sb.append(",\"reads\":"), DatabaseConnection.getReadStats().toString());
+            }
+            List<PoolStats> shards = DatabaseConnection.getShardPoolStats();
+            if (!shards.isEmpty()) poolList(sb.append(",\"shards\":"), shards);
+        }
+        if (writes != null) Json.quote(sb.append(",\"writeQueue\":"), writes.getStats().toString());
+        if (sync != null) Json.quote(sb.append(",\"sync\":"), sync.getStats().toString());
+        if (UniqueKeys.isEnabled()) Json.quote(sb.append(",\"unique\":"), UniqueKeys.getStats().toString());
+        sb.append(",\"operations\":[");
+        boolean first = true;
+        for (OperationMetrics op : DaoMetrics.getOperations()) {
+            if (op.getCalls() == 0) continue;
+            if (!first) sb.append(',');
+            first = false;
+            LatencyHistogram t = op.getTotal();
+            sb.append("{\"operation\":");
+            Json.quote(sb, op.getName()).append(",\"calls\":").append(op.getCalls()).append(",\"rows\":").append(op.getRows())
+              .append(",\"errors\":").append(op.getErrors())
+              .append(",\"p50\":").append(DaoMetrics.micros(t.getPercentile(0.50)))
+              .append(",\"p99\":").append(DaoMetrics.micros(t.getPercentile(0.99)))
+              .append(",\"p999\":").append(DaoMetrics.micros(t.getPercentile(0.999))).append('}');
+        }
+        send(ex, 200, sb.append("]}").toString());
+    }
+
+    // A row's version is its ETag. A PUT with If-Match is refused with 412 once the row has moved on, and
+    // without it the version read by the PUT itself still guards the read-modify-write.
+    private static void etag(HttpExchange ex, int version) {
+        if (version != 0) ex.getResponseHeaders().set("ETag", "\"" + version + "\"");
+    }
+
+    private static void checkIfMatch(HttpExchange ex, int version) {
+        String tag = ex.getRequestHeaders().getFirst("If-Match");
+        if (tag == null || tag.trim().equals("*")) return;
+        if (!tag.trim().equals("\"" + version + "\"")) throw new HttpError(412, UpdateResult.CONFLICT.getMessage());
+    }
+
+    private static void updated(UpdateResult r) {
+        switch (r) {
+            case OK: case UNCHANGED: return;
+            case NOT_FOUND: throw notFound();
+            case CONFLICT: case DUPLICATE: throw new HttpError(409, r.getMessage());
+            default: throw new HttpError(500, r.getMessage());
+        }
+    }
+
+    private static void poolList(StringBuilder sb, List<PoolStats> pools) {
+        sb.append('[');
+        for (int i = 0; i < pools.size(); i++) Json.quote(i == 0 ? sb : sb.append(','), pools.get(i).toString());
+        sb.append(']');
+    }
+
+    @FunctionalInterface
+    private interface Pager<T> {
+        List<T> page(int afterId, int limit);
+    }
+
+    @FunctionalInterface
+    private interface Streamer<T> {
+        Stream<T> stream(int fetchSize);
+    }
+
+    /** A page when ?limit is given, otherwise every row streamed as a chunked JSON array. */
+    private <T> void list(HttpExchange ex, Pager<T> pager, Streamer<T> streamer, BiConsumer<StringBuilder, T> encoder) throws IOException {
+        Map<String, String> q = query(ex);
+        if (q.containsKey("limit")) {
+            sendAll(ex, pager.page(q.containsKey("after") ? id(q.get("after")) : 0, limit(q, 0)), encoder);
+            return;
+        }
+        try (Stream<T> rows = streamer.stream(FETCH_SIZE)) {
+            // Run the query before the 200 goes out, so a database that is down still gets a 500. A
+            // scan that fails later ends the response without its closing bracket.
+            Iterator<T> it = rows.iterator();
+            it.hasNext();
+            ex.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            ex.sendResponseHeaders(200, 0);
+            try (Writer w = new OutputStreamWriter(ex.getResponseBody(), StandardCharsets.UTF_8)) {
+                StringBuilder sb = new StringBuilder(STREAM_BUFFER + 1024).append('[');
+                boolean first = true;
+                while (it.hasNext()) {
+                    if (!first) sb.append(',');
+                    first = false;
+                    encoder.accept(sb, it.next());
+                    if (sb.length() >= STREAM_BUFFER) { w.append(sb); sb.setLength(0); }
+                }
+                w.append(sb.append(']'));
+            }
+        }
+    }
+
+    private static <T> void sendAll(HttpExchange ex, List<T> rows, BiConsumer<StringBuilder, T> encoder) throws IOException {
+        StringBuilder sb = new StringBuilder(rows.size() * 96 + 2).append('[');
+        for (int i = 0; i < rows.size(); i++) {
+            if (i > 0) sb.append(',');
+            encoder.accept(sb, rows.get(i));
+        }
+        send(ex, 200, sb.append(']').toString());
+    }
+
+    private static void send(HttpExchange ex, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        ex.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = ex.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String error(String message) {
+        return "{\"status\":\"error\",\"message\":" + Json.quote(message) + "}";
+    }
+
+    private static Map<String, String> body(HttpExchange ex) throws IOException {
+        try (InputStream in = ex.getRequestBody()) {
+            byte[] bytes = in.readNBytes(MAX_BODY + 1);
+            if (bytes.length > MAX_BODY) throw new HttpError(413, "Request body too large.");
+            return Json.parseObject(new String(bytes, StandardCharsets.UTF_8));
+        }
+    }
+
+    private static Map<String, String> query(HttpExchange ex) {
+        Map<String, String> q = new HashMap<>();
+        String raw = ex.getRequestURI().getRawQuery();
+        if (raw == null || raw.isEmpty()) return q;
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            String k = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            q.put(k, eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return q;
+    }
+
+    private static String required(Map<String, String> b, String key) {
+        String v = b.get(key);
+        if (v == null || v.isBlank()) throw new IllegalArgumentException(key + " is required");
+        return v;
+    }
+
+    private static int id(String s) {
+        try {
+            return Integer.parseInt(s.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("not a number: " + s);
+        }
+    }
+
+    private static int limit(Map<String, String> q, int defaultLimit) {
+        if (!q.containsKey("limit")) return defaultLimit;
+        int limit = id(q.get("limit"));
+        if (limit < 1 || limit > MAX_LIMIT) throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        return limit;
+    }
+
+    private static LocalDate day(String s) {
+        return Dates.toLocalDate(Dates.parseDay(s));
+    }
+
+    // The request's virtual thread parks until the write has committed.
+    private static <T> T await(CompletableFuture<T> f) {
+        try {
+            return f.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RejectedExecutionException) throw new HttpError(503, e.getCause().getMessage());
+            throw new HttpError(500, String.valueOf(e.getCause().getMessage()));
+        }
+    }
+
+    private static HttpError notFound() { return new HttpError(404, "Not found."); }
+
+    private static HttpError notAllowed() { return new HttpError(405, "Method not allowed."); }
+}
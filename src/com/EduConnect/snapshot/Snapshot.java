@@ -0,0 +1,244 @@
+package com.EduConnect.snapshot;
+
+import com.EduConnect.model.Course;
+import com.EduConnect.model.Enrollment;
+import com.EduConnect.model.Student;
+import com.EduConnect.report.CourseFill;
+import com.EduConnect.report.DailyCount;
+import com.EduConnect.util.Dates;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A read-only copy of the three tables in one file, memory-mapped so opening it costs a header read
+ * and every lookup reads just the records it needs from the mapping. Nothing is loaded up front; the
+ * operating system pages the file in as it is touched and shares it between processes.
+ *
+ * <p>Layout, little-endian: a {@value #HEADER_SIZE}-byte header ({@code EDUS}, version, creation
+ * time, row counts and section offsets), then fixed-width records sorted by id: enrollments
+ * (id, student, course, epoch day; 16 bytes), the by-student and by-course indexes (enrollment record
+ * numbers ordered by student or course, then id; 4 bytes each), per-day counts (epoch day, rows;
+ * 8 bytes), students (id, dob day and heap offsets of name, email, phone, gender; 24 bytes) and
+ * courses (id, heap offsets of name and duration, enrollments, distinct students; 20 bytes). Strings
+ * live in a heap at the end as a length and UTF-8 bytes; a null string has offset -1 and a missing
+ * date is {@link Dates#NONE}. Lookups by id binary-search the sorted records; lookups by student or
+ * course binary-search the index for the run of matching record numbers.
+ *
+ * <p>Reads use absolute positions only, so one Snapshot can be shared by any number of threads.
+ */
+public final class Snapshot {
+    static final byte[] MAGIC = { 'E', 'D', 'U', 'S' };
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 128;
+    static final int STUDENT_SIZE = 24;
+    static final int COURSE_SIZE = 20;
+    static final int ENROLLMENT_SIZE = 16;
+    static final int INDEX_SIZE = 4;
+    static final int DAY_SIZE = 8;
+    static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    // Header fields.
+    static final int H_VERSION = 4;
+    static final int H_CREATED = 8;
+    static final int H_STUDENTS = 16;
+    static final int H_COURSES = 20;
+    static final int H_ENROLLMENTS = 24;
+    static final int H_DAYS = 28;
+    static final int H_STUDENTS_AT = 32;
+    static final int H_COURSES_AT = 40;
+    static final int H_ENROLLMENTS_AT = 48;
+    static final int H_BY_STUDENT_AT = 56;
+    static final int H_BY_COURSE_AT = 64;
+    static final int H_DAYS_AT = 72;
+    static final int H_HEAP_AT = 80;
+    static final int H_LENGTH = 88;
+
+    private final Path file;
+    private final MappedByteBuffer buf;
+    private final long createdMillis;
+    private final int students;
+    private final int courses;
+    private final int enrollments;
+    private final int days;
+    private final int studentsAt;
+    private final int coursesAt;
+    private final int enrollmentsAt;
+    private final int byStudentAt;
+    private final int byCourseAt;
+    private final int daysAt;
+    private final int heapAt;
+
+    private Snapshot(Path file, MappedByteBuffer buf) throws IOException {
+        this.file = file;
+        this.buf = buf;
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (buf.get(i) != MAGIC[i]) throw new IOException("Not a snapshot file: " + file);
+        }
+        if (buf.getInt(H_VERSION) != VERSION) throw new IOException("Unsupported snapshot version " + buf.getInt(H_VERSION) + ": " + file);
+        if (buf.getLong(H_LENGTH) != buf.capacity()) throw new IOException("Snapshot is truncated: " + file);
+        createdMillis = buf.getLong(H_CREATED);
+        students = buf.getInt(H_STUDENTS);
+        courses = buf.getInt(H_COURSES);
+        enrollments = buf.getInt(H_ENROLLMENTS);
+        days = buf.getInt(H_DAYS);
+        studentsAt = offset(H_STUDENTS_AT);
+        coursesAt = offset(H_COURSES_AT);
+        enrollmentsAt = offset(H_ENROLLMENTS_AT);
+        byStudentAt = offset(H_BY_STUDENT_AT);
+        byCourseAt = offset(H_BY_COURSE_AT);
+        daysAt = offset(H_DAYS_AT);
+        heapAt = offset(H_HEAP_AT);
+    }
+
+    /** Maps the file read-only. The mapping stays valid after the channel is closed and lives as long as the Snapshot. */
+    public static Snapshot open(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size < HEADER_SIZE) throw new IOException("Not a snapshot file: " + file);
+            if (size > Integer.MAX_VALUE) throw new IOException("Snapshot is too large to map (" + size + " bytes): " + file);
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            buf.order(ORDER);
+            return new Snapshot(file, buf);
+        }
+    }
+
+    public Path getFile() { return file; }
+    public Instant getCreated() { return Instant.ofEpochMilli(createdMillis); }
+    public int getStudentCount() { return students; }
+    public int getCourseCount() { return courses; }
+    public int getEnrollmentCount() { return enrollments; }
+    public long getSizeBytes() { return buf.capacity(); }
+
+    public Student getStudent(int id) {
+        int i = find(studentsAt, STUDENT_SIZE, students, id);
+        return i < 0 ? null : studentAt(i);
+    }
+
+    public Course getCourse(int id) {
+        int i = find(coursesAt, COURSE_SIZE, courses, id);
+        return i < 0 ? null : courseAt(i);
+    }
+
+    public Enrollment getEnrollment(int id) {
+        int i = find(enrollmentsAt, ENROLLMENT_SIZE, enrollments, id);
+        return i < 0 ? null : enrollmentAt(i);
+    }
+
+    /** The student's enrollments in id order. */
+    public List<Enrollment> getEnrollmentsByStudent(int studentId) {
+        return indexed(byStudentAt, 4, studentId);
+    }
+
+    /** The course's enrollments in id order. */
+    public List<Enrollment> getEnrollmentsByCourse(int courseId) {
+        return indexed(byCourseAt, 8, courseId);
+    }
+
+    /** Record number of the first student with an id above afterId; {@link #getStudentCount()} if none. */
+    public int studentsAfter(int afterId) { return after(studentsAt, STUDENT_SIZE, students, afterId); }
+    public int coursesAfter(int afterId) { return after(coursesAt, COURSE_SIZE, courses, afterId); }
+    public int enrollmentsAfter(int afterId) { return after(enrollmentsAt, ENROLLMENT_SIZE, enrollments, afterId); }
+
+    /** The student in record i (0 to count - 1); records are in id order. */
+    public Student studentAt(int i) {
+        int at = studentsAt + i * STUDENT_SIZE;
+        return new Student(buf.getInt(at), string(buf.getInt(at + 8)), string(buf.getInt(at + 12)), string(buf.getInt(at + 16)),
+                           buf.getInt(at + 4), string(buf.getInt(at + 20)));
+    }
+
+    public Course courseAt(int i) {
+        int at = coursesAt + i * COURSE_SIZE;
+        return new Course(buf.getInt(at), string(buf.getInt(at + 4)), string(buf.getInt(at + 8)));
+    }
+
+    public Enrollment enrollmentAt(int i) {
+        int at = enrollmentsAt + i * ENROLLMENT_SIZE;
+        return new Enrollment(buf.getInt(at), buf.getInt(at + 4), buf.getInt(at + 8), buf.getInt(at + 12));
+    }
+
+    /** Enrollments and distinct students of every course, counted when the snapshot was written. */
+    public List<CourseFill> getCourseFill() {
+        List<CourseFill> fill = new ArrayList<>(courses);
+        for (int i = 0; i < courses; i++) {
+            int at = coursesAt + i * COURSE_SIZE;
+            fill.add(new CourseFill(buf.getInt(at), string(buf.getInt(at + 4)), buf.getInt(at + 12), buf.getInt(at + 16)));
+        }
+        return fill;
+    }
+
+    /** Enrollments per day between from and to inclusive (either may be null), skipping days with none. */
+    public List<DailyCount> getDailyCounts(LocalDate from, LocalDate to) {
+        List<DailyCount> counts = new ArrayList<>();
+        int last = to == null ? Integer.MAX_VALUE : Dates.toDay(to);
+        for (int i = from == null ? 0 : after(daysAt, DAY_SIZE, days, Dates.toDay(from) - 1); i < days; i++) {
+            int at = daysAt + i * DAY_SIZE;
+            int day = buf.getInt(at);
+            if (day > last) break;
+            counts.add(new DailyCount(LocalDate.ofEpochDay(day), buf.getInt(at + 4)));
+        }
+        return counts;
+    }
+
+    @Override
+    public String toString() {
+        return "Snapshot: " + file + ", Created: " + getCreated() + ", Students: " + students + ", Courses: " + courses +
+               ", Enrollments: " + enrollments + ", Bytes: " + buf.capacity();
+    }
+
+    private int offset(int field) throws IOException {
+        long at = buf.getLong(field);
+        if (at < HEADER_SIZE || at > buf.capacity()) throw new IOException("Corrupt snapshot header: " + file);
+        return (int) at;
+    }
+
+    private String string(int offset) {
+        if (offset < 0) return null;
+        int at = heapAt + offset;
+        byte[] bytes = new byte[buf.getInt(at)];
+        buf.get(at + 4, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** Record number of the id in a section sorted by its leading int id, or -1. */
+    private int find(int base, int size, int count, int id) {
+        int i = after(base, size, count, id - 1);
+        return i < count && buf.getInt(base + i * size) == id ? i : -1;
+    }
+
+    /** First record number whose leading int is greater than key. */
+    private int after(int base, int size, int count, int key) {
+        int lo = 0, hi = count;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (buf.getInt(base + mid * size) <= key) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    /** Enrollments whose int at fieldOffset equals key, found through an index of record numbers sorted by that field. */
+    private List<Enrollment> indexed(int indexAt, int fieldOffset, int key) {
+        int lo = 0, hi = enrollments;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (indexedKey(indexAt, mid, fieldOffset) < key) lo = mid + 1; else hi = mid;
+        }
+        List<Enrollment> rows = new ArrayList<>();
+        for (int i = lo; i < enrollments && indexedKey(indexAt, i, fieldOffset) == key; i++) {
+            rows.add(enrollmentAt(buf.getInt(indexAt + i * INDEX_SIZE)));
+        }
+        return rows;
+    }
+
+    private int indexedKey(int indexAt, int i, int fieldOffset) {
+        return buf.getInt(enrollmentsAt + buf.getInt(indexAt + i * INDEX_SIZE) * ENROLLMENT_SIZE + fieldOffset);
+    }
+}
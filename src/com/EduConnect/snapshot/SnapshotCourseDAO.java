@@ -0,0 +1,63 @@
+package com.EduConnect.snapshot;
+
+import com.EduConnect.dao.CourseRepository;
+import com.EduConnect.dao.UpdateResult;
+import com.EduConnect.model.Course;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/** Courses read from a {@link Snapshot}; every write fails because the snapshot is read-only. */
+public class SnapshotCourseDAO implements CourseRepository {
+    private final Snapshot snapshot;
+
+    public SnapshotCourseDAO(Snapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    public boolean addCourse(Course c) {
+        System.err.println("Add Course Error: " + SnapshotStudentDAO.READ_ONLY);
+        return false;
+    }
+
+    public int[] addCourses(Connection conn, List<Course> courses) throws SQLException {
+        throw new SQLException("Cannot add courses: " + SnapshotStudentDAO.READ_ONLY);
+    }
+
+    public List<Course> getAllCourses() {
+        return getCoursesPage(0, snapshot.getCourseCount());
+    }
+
+    public List<Course> getCoursesPage(int afterId, int pageSize) {
+        List<Course> courses = new ArrayList<>();
+        for (int i = snapshot.coursesAfter(afterId); i < snapshot.getCourseCount() && courses.size() < pageSize; i++) {
+            courses.add(snapshot.courseAt(i));
+        }
+        return courses;
+    }
+
+    public Stream<Course> streamAllCourses(int fetchSize) {
+        return IntStream.range(0, snapshot.getCourseCount()).mapToObj(snapshot::courseAt);
+    }
+
+    public Course getCourseById(int id) {
+        return snapshot.getCourse(id);
+    }
+
+    public boolean updateCourse(Course c) {
+        return updateCourseChecked(c).isSaved();
+    }
+
+    public UpdateResult updateCourseChecked(Course c) {
+        System.err.println("Update Course Error: " + SnapshotStudentDAO.READ_ONLY);
+        return UpdateResult.FAILED;
+    }
+
+    public boolean deleteCourse(int id) {
+        System.err.println("Delete Course Error: " + SnapshotStudentDAO.READ_ONLY);
+        return false;
+    }
+}
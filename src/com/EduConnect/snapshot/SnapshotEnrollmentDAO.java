@@ -0,0 +1,98 @@
+package com.EduConnect.snapshot;
+
+import com.EduConnect.dao.EnrollmentRepository;
+import com.EduConnect.dao.EnrollmentResult;
+import com.EduConnect.model.Enrollment;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/** Enrollments read from a {@link Snapshot}; every write fails because the snapshot is read-only. */
+public class SnapshotEnrollmentDAO implements EnrollmentRepository {
+    private final Snapshot snapshot;
+
+    public SnapshotEnrollmentDAO(Snapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    public boolean addEnrollment(Enrollment e) {
+        System.err.println("Add Enrollment Error: " + SnapshotStudentDAO.READ_ONLY);
+        return false;
+    }
+
+    public EnrollmentResult addEnrollmentChecked(Enrollment e) {
+        System.err.println("Add Enrollment Error: " + SnapshotStudentDAO.READ_ONLY);
+        return EnrollmentResult.FAILED;
+    }
+
+    public int[] addEnrollments(Connection conn, List<Enrollment> enrollments) throws SQLException {
+        throw new SQLException("Cannot add enrollments: " + SnapshotStudentDAO.READ_ONLY);
+    }
+
+    public List<Enrollment> getAllEnrollments() {
+        return getEnrollmentsPage(0, snapshot.getEnrollmentCount());
+    }
+
+    public List<Enrollment> getEnrollmentsPage(int afterId, int pageSize) {
+        List<Enrollment> enrollments = new ArrayList<>();
+        for (int i = snapshot.enrollmentsAfter(afterId); i < snapshot.getEnrollmentCount() && enrollments.size() < pageSize; i++) {
+            enrollments.add(snapshot.enrollmentAt(i));
+        }
+        return enrollments;
+    }
+
+    public Stream<Enrollment> streamAllEnrollments(int fetchSize) {
+        return IntStream.range(0, snapshot.getEnrollmentCount()).mapToObj(snapshot::enrollmentAt);
+    }
+
+    public Enrollment getEnrollmentById(int id) {
+        return snapshot.getEnrollment(id);
+    }
+
+    public List<Enrollment> getEnrollmentsByStudentId(int studentId) {
+        return snapshot.getEnrollmentsByStudent(studentId);
+    }
+
+    public List<Enrollment> getEnrollmentsByCourseId(int courseId) {
+        return snapshot.getEnrollmentsByCourse(courseId);
+    }
+
+    public Enrollment findEnrollmentById(int id) {
+        return getEnrollmentById(id);
+    }
+
+    public List<Enrollment> findEnrollmentsByStudentId(int studentId) {
+        return getEnrollmentsByStudentId(studentId);
+    }
+
+    public List<Enrollment> findEnrollmentsByCourseId(int courseId) {
+        return getEnrollmentsByCourseId(courseId);
+    }
+
+    public List<Enrollment> findEnrollmentsPage(int afterId, int pageSize) {
+        return getEnrollmentsPage(afterId, pageSize);
+    }
+
+    public boolean updateEnrollment(Enrollment e) {
+        System.err.println("Update Enrollment Error: " + SnapshotStudentDAO.READ_ONLY);
+        return false;
+    }
+
+    public boolean deleteEnrollment(int id) {
+        System.err.println("Delete Enrollment Error: " + SnapshotStudentDAO.READ_ONLY);
+        return false;
+    }
+
+    public int deleteEnrollmentsByStudentId(int studentId) {
+        System.err.println("Delete Enrollments By Student Error: " + SnapshotStudentDAO.READ_ONLY);
+        return -1;
+    }
+
+    public int deleteEnrollmentsByCourseId(int courseId) {
+        System.err.println("Delete Enrollments By Course Error: " + SnapshotStudentDAO.READ_ONLY);
+        return -1;
+    }
+}
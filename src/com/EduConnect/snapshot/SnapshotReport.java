@@ -0,0 +1,35 @@
+package com.EduConnect.snapshot;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+public class SnapshotReport {
+    private final int students;
+    private final int courses;
+    private final int enrollments;
+    private final long fileBytes;
+    private final long elapsedNanos;
+    private final Path file;
+
+    public SnapshotReport(int students, int courses, int enrollments, long fileBytes, long elapsedNanos, Path file) {
+        this.students = students;
+        this.courses = courses;
+        this.enrollments = enrollments;
+        this.fileBytes = fileBytes;
+        this.elapsedNanos = elapsedNanos;
+        this.file = file;
+    }
+
+    public int getStudents() { return students; }
+    public int getCourses() { return courses; }
+    public int getEnrollments() { return enrollments; }
+    public long getFileBytes() { return fileBytes; }
+    public long getElapsedNanos() { return elapsedNanos; }
+    public Path getFile() { return file; }
+
+    @Override
+    public String toString() {
+        return "Students: " + students + ", Courses: " + courses + ", Enrollments: " + enrollments + ", Bytes: " + fileBytes +
+               ", Time: " + TimeUnit.NANOSECONDS.toMillis(elapsedNanos) + "ms, File: " + file;
+    }
+}
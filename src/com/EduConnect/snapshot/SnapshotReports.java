@@ -0,0 +1,27 @@
+package com.EduConnect.snapshot;
+
+import com.EduConnect.report.CourseFill;
+import com.EduConnect.report.DailyCount;
+import com.EduConnect.report.EnrollmentReports;
+import java.time.LocalDate;
+import java.util.List;
+
+/** Reports from the counts a {@link Snapshot} stores, so they need neither the database nor a summary. */
+public class SnapshotReports extends EnrollmentReports {
+    private final Snapshot snapshot;
+
+    public SnapshotReports(Snapshot snapshot) {
+        super(new SnapshotCourseDAO(snapshot));
+        this.snapshot = snapshot;
+    }
+
+    @Override
+    public List<CourseFill> getCourseFill() {
+        return snapshot.getCourseFill();
+    }
+
+    @Override
+    public List<DailyCount> getDailyCounts(LocalDate from, LocalDate to) {
+        return snapshot.getDailyCounts(from, to);
+    }
+}
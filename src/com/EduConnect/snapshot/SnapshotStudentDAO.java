@@ -0,0 +1,95 @@
+package com.EduConnect.snapshot;
+
+import com.EduConnect.dao.StudentRepository;
+import com.EduConnect.dao.StudentResult;
+import com.EduConnect.dao.UpdateResult;
+import com.EduConnect.model.Student;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/** Students read from a {@link Snapshot}; every write fails because the snapshot is read-only. */
+public class SnapshotStudentDAO implements StudentRepository {
+    static final String READ_ONLY = "the snapshot is read-only";
+
+    private final Snapshot snapshot;
+
+    public SnapshotStudentDAO(Snapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    public Snapshot getSnapshot() { return snapshot; }
+
+    public boolean addStudent(Student s) {
+        return addStudentChecked(s) == StudentResult.OK;
+    }
+
+    public StudentResult addStudentChecked(Student s) {
+        System.err.println("Add Student Error: " + READ_ONLY);
+        return StudentResult.FAILED;
+    }
+
+    public int[] addStudents(Connection conn, List<Student> students) throws SQLException {
+        throw new SQLException("Cannot add students: " + READ_ONLY);
+    }
+
+    public List<Student> getAllStudents() {
+        return getStudentsPage(0, snapshot.getStudentCount());
+    }
+
+    public List<Student> getStudentsPage(int afterId, int pageSize) {
+        List<Student> students = new ArrayList<>();
+        for (int i = snapshot.studentsAfter(afterId); i < snapshot.getStudentCount() && students.size() < pageSize; i++) {
+            students.add(snapshot.studentAt(i));
+        }
+        return students;
+    }
+
+    public Stream<Student> streamAllStudents(int fetchSize) {
+        return IntStream.range(0, snapshot.getStudentCount()).mapToObj(snapshot::studentAt);
+    }
+
+    public Student getStudentById(int id) {
+        return snapshot.getStudent(id);
+    }
+
+    /** Same matching and order as the SQL search: name prefix first, then email prefix, then the rest, each by id. */
+    public List<Student> searchStudents(String query, int limit) {
+        List<Student> students = new ArrayList<>();
+        String q = query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+        if (q.isEmpty() || limit <= 0) return students;
+        List<Student> emailFirst = new ArrayList<>(), rest = new ArrayList<>();
+        for (int i = 0; i < snapshot.getStudentCount() && students.size() < limit; i++) {
+            Student s = snapshot.studentAt(i);
+            String name = lower(s.getName()), email = lower(s.getEmail());
+            if (name.startsWith(q)) students.add(s);
+            else if (email.startsWith(q)) { if (emailFirst.size() < limit) emailFirst.add(s); }
+            else if (name.contains(q) || email.contains(q) || s.getPhone() != null && s.getPhone().contains(q)) { if (rest.size() < limit) rest.add(s); }
+        }
+        students.addAll(emailFirst);
+        students.addAll(rest);
+        return students.size() > limit ? new ArrayList<>(students.subList(0, limit)) : students;
+    }
+
+    public boolean updateStudent(Student s) {
+        return updateStudentChecked(s).isSaved();
+    }
+
+    public UpdateResult updateStudentChecked(Student s) {
+        System.err.println("Update Student Error: " + READ_ONLY);
+        return UpdateResult.FAILED;
+    }
+
+    public boolean deleteStudent(int id) {
+        System.err.println("Delete Student Error: " + READ_ONLY);
+        return false;
+    }
+
+    private static String lower(String s) {
+        return s == null ? "" : s.toLowerCase(Locale.ROOT);
+    }
+}
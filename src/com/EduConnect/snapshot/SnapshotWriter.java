@@ -0,0 +1,241 @@
+package com.EduConnect.snapshot;
+
+import com.EduConnect.dao.CourseRepository;
+import com.EduConnect.dao.EnrollmentRepository;
+import com.EduConnect.dao.StudentRepository;
+import com.EduConnect.dao.UncheckedSQLException;
+import com.EduConnect.index.IntIntMap;
+import com.EduConnect.index.LongIntMap;
+import com.EduConnect.model.Course;
+import com.EduConnect.model.Enrollment;
+import com.EduConnect.model.Student;
+import com.EduConnect.util.Dates;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes a {@link Snapshot} file from the repositories' forward-only streams. Enrollments go first,
+ * so an enrollment in the snapshot has its student and course in it unless they were deleted while it
+ * was written. Records go straight to the file; only the two enrollment indexes (an int per row each)
+ * and the string heap are built in memory. The file is written under a temporary name and moved into
+ * place once complete, so a reader never maps a partial snapshot.
+ */
+public class SnapshotWriter {
+    private static final int FETCH_SIZE = 5000;
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final StudentRepository sDao;
+    private final CourseRepository cDao;
+    private final EnrollmentRepository eDao;
+
+    public SnapshotWriter(StudentRepository sDao, CourseRepository cDao, EnrollmentRepository eDao) {
+        this.sDao = sDao;
+        this.cDao = cDao;
+        this.eDao = eDao;
+    }
+
+    /** A failed scan of any table throws its SQLException and leaves any earlier snapshot at {@code file} in place. */
+    public SnapshotReport write(Path file) throws IOException, SQLException {
+        long start = System.nanoTime();
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        int students, courses, enrollments;
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            Out out = new Out(ch);
+            ByteBuffer header = ByteBuffer.allocate(Snapshot.HEADER_SIZE).order(Snapshot.ORDER);
+            header.put(Snapshot.MAGIC).putInt(Snapshot.H_VERSION, Snapshot.VERSION).putLong(Snapshot.H_CREATED, System.currentTimeMillis());
+            out.skip(Snapshot.HEADER_SIZE);
+
+            // Enrollments, remembering what the indexes and the per-course and per-day counts need.
+            header.putLong(Snapshot.H_ENROLLMENTS_AT, out.position());
+            long[] byStudent = new long[1024], byCourse = new long[1024];
+            int[] days = new int[1024];
+            int dated = 0;
+            IntIntMap courseRows = new IntIntMap(256, 0), courseStudents = new IntIntMap(256, 0);
+            LongIntMap pairs = new LongIntMap(1024, 0);
+            int n = 0, lastId = Integer.MIN_VALUE;
+            try (Stream<Enrollment> rows = eDao.streamAllEnrollments(FETCH_SIZE)) {
+                for (Iterator<Enrollment> it = rows.iterator(); it.hasNext(); ) {
+                    Enrollment e = it.next();
+                    lastId = ascending(e.getEnrollmentId(), lastId, "enrollments");
+                    out.putInt(e.getEnrollmentId()).putInt(e.getStudentId()).putInt(e.getCourseId()).putInt(e.getEnrollDay());
+                    if (n == byStudent.length) {
+                        byStudent = Arrays.copyOf(byStudent, n * 2);
+                        byCourse = Arrays.copyOf(byCourse, n * 2);
+                    }
+                    // Key in the high half, record number in the low half: sorting orders by key, then id.
+                    byStudent[n] = (long) e.getStudentId() << 32 | n;
+                    byCourse[n] = (long) e.getCourseId() << 32 | n;
+                    n++;
+                    if (e.getEnrollDay() != Dates.NONE) {
+                        if (dated == days.length) days = Arrays.copyOf(days, dated * 2);
+                        days[dated++] = e.getEnrollDay();
+                    }
+                    courseRows.put(e.getCourseId(), courseRows.get(e.getCourseId()) + 1);
+                    long pair = (long) e.getStudentId() << 32 | e.getCourseId() & 0xFFFFFFFFL;
+                    if (pairs.get(pair) == 0) {
+                        pairs.put(pair, 1);
+                        courseStudents.put(e.getCourseId(), courseStudents.get(e.getCourseId()) + 1);
+                    }
+                }
+            }
+            enrollments = n;
+            header.putInt(Snapshot.H_ENROLLMENTS, enrollments);
+            header.putLong(Snapshot.H_BY_STUDENT_AT, out.position());
+            writeIndex(out, byStudent, enrollments);
+            header.putLong(Snapshot.H_BY_COURSE_AT, out.position());
+            writeIndex(out, byCourse, enrollments);
+
+            header.putLong(Snapshot.H_DAYS_AT, out.position());
+            Arrays.sort(days, 0, dated);
+            int distinctDays = 0;
+            for (int i = 0; i < dated; ) {
+                int j = i;
+                while (j < dated && days[j] == days[i]) j++;
+                out.putInt(days[i]).putInt(j - i);
+                distinctDays++;
+                i = j;
+            }
+            header.putInt(Snapshot.H_DAYS, distinctDays);
+
+            Heap heap = new Heap();
+            header.putLong(Snapshot.H_STUDENTS_AT, out.position());
+            n = 0;
+            lastId = Integer.MIN_VALUE;
+            try (Stream<Student> rows = sDao.streamAllStudents(FETCH_SIZE)) {
+                for (Iterator<Student> it = rows.iterator(); it.hasNext(); n++) {
+                    Student s = it.next();
+                    lastId = ascending(s.getStudentId(), lastId, "students");
+                    out.putInt(s.getStudentId()).putInt(s.getDobDay()).putInt(heap.add(s.getName())).putInt(heap.add(s.getEmail()))
+                       .putInt(heap.add(s.getPhone())).putInt(heap.add(s.getGender()));
+                }
+            }
+            students = n;
+            header.putInt(Snapshot.H_STUDENTS, students);
+
+            header.putLong(Snapshot.H_COURSES_AT, out.position());
+            n = 0;
+            lastId = Integer.MIN_VALUE;
+            try (Stream<Course> rows = cDao.streamAllCourses(FETCH_SIZE)) {
+                for (Iterator<Course> it = rows.iterator(); it.hasNext(); n++) {
+                    Course c = it.next();
+                    lastId = ascending(c.getCourseId(), lastId, "courses");
+                    out.putInt(c.getCourseId()).putInt(heap.add(c.getCourseName())).putInt(heap.add(c.getDuration()))
+                       .putInt(courseRows.get(c.getCourseId())).putInt(courseStudents.get(c.getCourseId()));
+                }
+            }
+            courses = n;
+            header.putInt(Snapshot.H_COURSES, courses);
+
+            header.putLong(Snapshot.H_HEAP_AT, out.position());
+            out.put(heap.bytes, heap.size);
+            out.flush();
+            if (out.position() > Integer.MAX_VALUE) throw new IOException("Snapshot would be too large to map: " + out.position() + " bytes");
+            header.putLong(Snapshot.H_LENGTH, out.position());
+            header.clear();
+            while (header.hasRemaining()) ch.write(header, header.position());
+            ch.force(false);
+        } catch (UncheckedSQLException e) {
+            Files.deleteIfExists(tmp);
+            throw e.getCause();
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        try {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return new SnapshotReport(students, courses, enrollments, Files.size(file), System.nanoTime() - start, file);
+    }
+
+    /** Binary search in the reader depends on it; the repositories' streams promise id order. */
+    private static int ascending(int id, int lastId, String table) throws IOException {
+        if (id <= lastId) throw new IOException("Rows of " + table + " are not in id order at id " + id);
+        return id;
+    }
+
+    private static void writeIndex(Out out, long[] keys, int n) throws IOException {
+        Arrays.sort(keys, 0, n);
+        for (int i = 0; i < n; i++) out.putInt((int) keys[i]);
+    }
+
+    /** Buffers little-endian ints in one direct buffer and writes it to the channel when it fills. */
+    private static final class Out {
+        private final FileChannel channel;
+        private final ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_SIZE).order(Snapshot.ORDER);
+        private long flushed;
+
+        Out(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        long position() {
+            return flushed + buf.position();
+        }
+
+        Out putInt(int v) throws IOException {
+            if (buf.remaining() < 4) flush();
+            buf.putInt(v);
+            return this;
+        }
+
+        void skip(int bytes) throws IOException {
+            for (int i = 0; i < bytes; i++) {
+                if (!buf.hasRemaining()) flush();
+                buf.put((byte) 0);
+            }
+        }
+
+        void put(byte[] bytes, int length) throws IOException {
+            for (int off = 0; off < length; ) {
+                if (!buf.hasRemaining()) flush();
+                int chunk = Math.min(buf.remaining(), length - off);
+                buf.put(bytes, off, chunk);
+                off += chunk;
+            }
+        }
+
+        void flush() throws IOException {
+            buf.flip();
+            flushed += buf.remaining();
+            while (buf.hasRemaining()) channel.write(buf);
+            buf.clear();
+        }
+    }
+
+    /** Strings as a little-endian length and UTF-8 bytes, each added once per occurrence. */
+    private static final class Heap {
+        byte[] bytes = new byte[1 << 16];
+        int size;
+
+        int add(String s) throws IOException {
+            if (s == null) return -1;
+            byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+            if ((long) size + 4 + utf8.length > Integer.MAX_VALUE - 8) throw new IOException("Snapshot string heap is over 2 GB");
+            if (size + 4 + utf8.length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + 4 + utf8.length));
+            }
+            int offset = size;
+            int n = utf8.length;
+            bytes[size++] = (byte) n;
+            bytes[size++] = (byte) (n >>> 8);
+            bytes[size++] = (byte) (n >>> 16);
+            bytes[size++] = (byte) (n >>> 24);
+            System.arraycopy(utf8, 0, bytes, size, n);
+            size += n;
+            return offset;
+        }
+    }
+}
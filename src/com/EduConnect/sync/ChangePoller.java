@@ -0,0 +1,362 @@
+package com.EduConnect.sync;
+
+import com.EduConnect.cache.CachedCourseDAO;
+import com.EduConnect.cache.CachedStudentDAO;
+import com.EduConnect.dao.ChangeLog;
+import com.EduConnect.dao.CourseRepository;
+import com.EduConnect.dao.EnrollmentDAO;
+import com.EduConnect.dao.EnrollmentRepository;
+import com.EduConnect.dao.ShardedEnrollmentDAO;
+import com.EduConnect.dao.StudentDAO;
+import com.EduConnect.dao.StudentRepository;
+import com.EduConnect.index.IndexedEnrollmentDAO;
+import com.EduConnect.metrics.DaoMetrics;
+import com.EduConnect.model.Enrollment;
+import com.EduConnect.model.Student;
+import com.EduConnect.report.EnrollmentSummary;
+import com.EduConnect.search.SearchableStudentDAO;
+import com.EduConnect.util.AppConfig;
+import com.EduConnect.util.DatabaseConnection;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Keeps this process's caches, indexes and enrollment summary current with writes made by other
+ * processes on the same database. Every pollIntervalMs it reads the {@link ChangeLog} entries added
+ * since the last one it applied and refetches just those rows, so a refresh costs one primary-key read
+ * per changed row rather than a reload of the tables. Entries written by this process are applied too:
+ * that is a cheap, harmless refetch, and it repairs a local write whose index update crossed with a
+ * remote write to the same row.
+ *
+ * <p>Change ids are handed out when a transaction inserts its entry but become visible only when it
+ * commits, so a later id can show up first. A missing id is kept as a gap and looked up again on
+ * every poll for gapTimeoutMs, after which its transaction is taken to have rolled back. If the poller
+ * falls behind by more than the retention period the log may have been pruned under it, so it
+ * reloads everything instead.
+ */
+public class ChangePoller implements AutoCloseable {
+    private static final String HEAD_SQL = "SELECT COALESCE(MAX(change_id), 0) FROM ChangeLog";
+    private static final String SELECT_SQL = "SELECT TOP (?) change_id, entity, row_id FROM ChangeLog WHERE change_id > ? ORDER BY change_id";
+    private static final String SELECT_GAPS_SQL = "SELECT change_id, entity, row_id FROM ChangeLog WHERE change_id IN (";
+    private static final String PRUNE_SQL = "DELETE FROM ChangeLog WHERE changed_at < DATEADD(HOUR, ?, CURRENT_TIMESTAMP)";
+    // Start this far behind the head, so entries from transactions still open at startup are not missed.
+    // Replaying the committed ones in that window is harmless.
+    private static final int START_OVERLAP = 256;
+    // A jump larger than this is an identity cache skip (SQL Server after a restart), not open transactions.
+    private static final int MAX_GAPS = 1_000;
+    private static final int GAPS_PER_QUERY = 100;
+    private static final long PRUNE_EVERY_MS = TimeUnit.HOURS.toMillis(1);
+
+    private final SearchableStudentDAO searchable;
+    private final CachedStudentDAO cachedStudents;
+    private final CachedCourseDAO cachedCourses;
+    private final IndexedEnrollmentDAO indexed;
+    private final EnrollmentSummary summary;
+    // Refetches go straight to the database, past the caches and indexes being brought up to date.
+    private final StudentDAO students = new StudentDAO();
+    private final EnrollmentRepository enrollments;
+
+    private final long intervalMs;
+    private final int batchSize;
+    private final long gapTimeoutNanos;
+    private final int retentionHours;
+    private final Thread poller;
+    private volatile boolean closed;
+
+    // Only the poller thread touches these once it has started. A poll reads entries up to cursor and
+    // moves applied there only once all of them are applied, so a failed poll rereads them next time.
+    private long applied;
+    private long cursor;
+    private final TreeMap<Long, Long> gaps = new TreeMap<>();
+    private long lastPollNanos;
+    private long lastPruneNanos;
+    private boolean failing;
+
+    private final LongAdder polls = new LongAdder();
+    private final LongAdder entries = new LongAdder();
+    private final LongAdder refetched = new LongAdder();
+    private final LongAdder reloads = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private volatile int pendingGaps;
+
+    /**
+     * Reads the head of the change log, so construct the poller before loading the caches and indexes
+     * it maintains; {@link #start()} it once they are loaded.
+     */
+    public ChangePoller(StudentRepository sDao, CourseRepository cDao, EnrollmentRepository eDao, EnrollmentSummary summary,
+                        long intervalMs, int batchSize, long gapTimeoutMs, int retentionHours) throws SQLException {
+        if (intervalMs < 1 || batchSize < 1 || gapTimeoutMs < 0 || retentionHours < 1) {
+            throw new IllegalArgumentException("Invalid sync settings: pollIntervalMs " + intervalMs + ", batchSize " + batchSize +
+                                               ", gapTimeoutMs " + gapTimeoutMs + ", retentionHours " + retentionHours);
+        }
+        Object s = DaoMetrics.unwrap(sDao), c = DaoMetrics.unwrap(cDao), e = DaoMetrics.unwrap(eDao);
+        this.searchable = s instanceof SearchableStudentDAO x ? x : null;
+        this.cachedStudents = s instanceof CachedStudentDAO x ? x : null;
+        this.cachedCourses = c instanceof CachedCourseDAO x ? x : null;
+        this.indexed = e instanceof IndexedEnrollmentDAO x ? x : null;
+        this.enrollments = e instanceof ShardedEnrollmentDAO sharded ? sharded : new EnrollmentDAO();
+        this.summary = summary;
+        this.intervalMs = intervalMs;
+        this.batchSize = batchSize;
+        this.gapTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(gapTimeoutMs);
+        this.retentionHours = retentionHours;
+        this.applied = Math.max(0, head() - START_OVERLAP);
+        this.lastPollNanos = System.nanoTime();
+        this.lastPruneNanos = lastPollNanos;
+        this.poller = new Thread(this::run, "educonnect-change-poller");
+        poller.setDaemon(true);
+    }
+
+    /** A poller built from the educonnect.sync.* settings, or null if the change log is off. */
+    public static ChangePoller fromConfig(StudentRepository sDao, CourseRepository cDao, EnrollmentRepository eDao, EnrollmentSummary summary)
+            throws SQLException {
+        if (!ChangeLog.isEnabled()) return null;
+        return new ChangePoller(sDao, cDao, eDao, summary, AppConfig.getLong("educonnect.sync.pollIntervalMs", 1_000),
+                                AppConfig.getInt("educonnect.sync.batchSize", 1_000),
+                                AppConfig.getLong("educonnect.sync.gapTimeoutMs", 60_000),
+                                AppConfig.getInt("educonnect.sync.retentionHours", 24));
+    }
+
+    public void start() {
+        poller.start();
+    }
+
+    public Stats getStats() {
+        return new Stats(polls.sum(), entries.sum(), refetched.sum(), reloads.sum(), errors.sum(), pendingGaps);
+    }
+
+    /** Stops polling; a poll already running is allowed to finish. */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(poller);
+        try {
+            poller.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Never interrupted, for the same reason as the write-behind writer: it can close a file database's channel.
+    private void run() {
+        long intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMs);
+        while (!closed) {
+            try {
+                poll();
+                if (failing) System.err.println("Change Sync: recovered");
+                failing = false;
+            } catch (SQLException | RuntimeException e) {
+                errors.increment();
+                // Report the first failure of a run, not one per interval while the database is down.
+                if (!failing) System.err.println("Change Sync Error: " + e.getMessage());
+                failing = true;
+            }
+            long deadline = System.nanoTime() + intervalNanos;
+            for (long left = intervalNanos; left > 0 && !closed; left = deadline - System.nanoTime()) LockSupport.parkNanos(left);
+        }
+    }
+
+    @SuppressWarnings("try")
+    private void poll() throws SQLException {
+        long now = System.nanoTime();
+        if (now - lastPollNanos > TimeUnit.HOURS.toNanos(retentionHours)) {
+            reload();
+            lastPollNanos = now;
+            return;
+        }
+        Set<Long> changed = new LinkedHashSet<>();
+        List<Long> filled = new ArrayList<>();
+        cursor = applied;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            readGaps(conn, changed, filled);
+            int n;
+            do {
+                n = readAfter(conn, changed, now);
+            } while (n == batchSize);
+            if (now - lastPruneNanos > TimeUnit.MILLISECONDS.toNanos(PRUNE_EVERY_MS)) {
+                prune(conn);
+                lastPruneNanos = now;
+            }
+        }
+        if (!changed.isEmpty()) {
+            // Refetch from the primary: a read replica may not have the changes yet.
+            try (DatabaseConnection.Session session = DatabaseConnection.openSession()) {
+                for (long key : changed) apply((int) (key >>> 32), (int) key);
+            }
+        }
+        applied = cursor;
+        gaps.keySet().removeAll(filled);
+        gaps.values().removeIf(expires -> expires - now < 0);
+        pendingGaps = gaps.size();
+        entries.add(changed.size());
+        polls.increment();
+        lastPollNanos = now;
+    }
+
+    private int readAfter(Connection conn, Set<Long> changed, long now) throws SQLException {
+        int n = 0;
+        try (PreparedStatement ps = conn.prepareStatement(SELECT_SQL)) {
+            ps.setInt(1, batchSize); ps.setLong(2, cursor);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    long id = rs.getLong(1);
+                    // A gap left behind by a failed poll is found again here, and its timeout restarts.
+                    if (id - cursor - 1 <= MAX_GAPS - gaps.size()) {
+                        for (long gap = cursor + 1; gap < id; gap++) gaps.put(gap, now + gapTimeoutNanos);
+                    }
+                    cursor = id;
+                    changed.add(key(rs.getInt(2), rs.getInt(3)));
+                    n++;
+                }
+            }
+        }
+        return n;
+    }
+
+    /** Adds the changes of gaps that have since committed; the caller drops them from gaps once applied. */
+    private void readGaps(Connection conn, Set<Long> changed, List<Long> filled) throws SQLException {
+        if (gaps.isEmpty()) return;
+        int n = Math.min(gaps.size(), GAPS_PER_QUERY);
+        StringBuilder sql = new StringBuilder(SELECT_GAPS_SQL);
+        for (int i = 0; i < n; i++) sql.append(i == 0 ? "?" : ", ?");
+        try (PreparedStatement ps = conn.prepareStatement(sql.append(')').toString())) {
+            Iterator<Long> it = gaps.keySet().iterator();
+            for (int i = 1; i <= n; i++) ps.setLong(i, it.next());
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    filled.add(rs.getLong(1));
+                    changed.add(key(rs.getInt(2), rs.getInt(3)));
+                }
+            }
+        }
+    }
+
+    private void prune(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(PRUNE_SQL)) {
+            ps.setInt(1, -retentionHours);
+            ps.executeUpdate();
+        }
+    }
+
+    // Refetches throw rather than return null or an empty list on error: either would be applied as a delete.
+    private void apply(int entity, int id) throws SQLException {
+        switch (entity) {
+            case ChangeLog.STUDENT -> {
+                if (cachedStudents != null) cachedStudents.getCache().invalidate(id);
+                if (searchable != null) {
+                    Student s = students.findStudentById(id);
+                    refetched.increment();
+                    if (s == null) searchable.getIndex().remove(id); else searchable.getIndex().put(s);
+                }
+            }
+            case ChangeLog.COURSE -> {
+                if (cachedCourses != null) cachedCourses.getCache().invalidate(id);
+            }
+            case ChangeLog.ENROLLMENT -> {
+                if (indexed == null && summary == null) return;
+                Enrollment e = enrollments.findEnrollmentById(id);
+                refetched.increment();
+                if (e == null) {
+                    if (indexed != null) indexed.getIndex().remove(id);
+                    if (summary != null) summary.remove(id);
+                } else {
+                    if (indexed != null) indexed.getIndex().put(e);
+                    if (summary != null) summary.put(e);
+                }
+            }
+            case ChangeLog.STUDENT_ENROLLMENTS, ChangeLog.COURSE_ENROLLMENTS -> {
+                if (indexed == null && summary == null) return;
+                boolean byCourse = entity == ChangeLog.COURSE_ENROLLMENTS;
+                List<Enrollment> current = byCourse ? enrollments.findEnrollmentsByCourseId(id) : enrollments.findEnrollmentsByStudentId(id);
+                // Rows added back since the delete are put back below.
+                if (indexed != null) indexed.getIndex().removeAll(id, byCourse);
+                if (summary != null) summary.removeAll(id, byCourse);
+                for (Enrollment e : current) {
+                    if (indexed != null) indexed.getIndex().put(e);
+                    if (summary != null) summary.put(e);
+                }
+                refetched.increment();
+            }
+            // A batch insert: its rows are all above the logged id, whatever has committed since.
+            case ChangeLog.STUDENTS_APPENDED -> {
+                if (cachedStudents != null) cachedStudents.getCache().invalidateMisses();
+                if (searchable != null) searchable.refresh(id);
+            }
+            case ChangeLog.COURSES_APPENDED -> {
+                if (cachedCourses != null) cachedCourses.getCache().invalidateMisses();
+            }
+            case ChangeLog.ENROLLMENTS_APPENDED -> {
+                if (indexed != null) indexed.refresh(id);
+                if (summary != null) summary.refresh(enrollments, id);
+            }
+            default -> System.err.println("Change Sync: unknown entity " + entity + " for row " + id);
+        }
+    }
+
+    private void reload() throws SQLException {
+        long head = head();
+        if (cachedStudents != null) cachedStudents.getCache().clear();
+        if (cachedCourses != null) cachedCourses.getCache().clear();
+        if (searchable != null) searchable.load();
+        if (indexed != null) indexed.load();
+        if (summary != null) summary.load(enrollments);
+        applied = Math.max(0, head - START_OVERLAP);
+        gaps.clear();
+        pendingGaps = 0;
+        reloads.increment();
+    }
+
+    private static long head() throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement ps = conn.prepareStatement(HEAD_SQL);
+             ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static long key(int entity, int id) {
+        return (long) entity << 32 | (id & 0xFFFFFFFFL);
+    }
+
+    public static final class Stats {
+        private final long polls;
+        private final long entries;
+        private final long refetched;
+        private final long reloads;
+        private final long errors;
+        private final int pendingGaps;
+
+        Stats(long polls, long entries, long refetched, long reloads, long errors, int pendingGaps) {
+            this.polls = polls;
+            this.entries = entries;
+            this.refetched = refetched;
+            this.reloads = reloads;
+            this.errors = errors;
+            this.pendingGaps = pendingGaps;
+        }
+
+        public long getPolls() { return polls; }
+        public long getEntries() { return entries; }
+        public long getRefetched() { return refetched; }
+        public long getReloads() { return reloads; }
+        public long getErrors() { return errors; }
+        public int getPendingGaps() { return pendingGaps; }
+
+        @Override
+        public String toString() {
+            return "Polls: " + polls + ", Entries: " + entries + ", Refetched: " + refetched + ", Reloads: " + reloads +
+                   ", Errors: " + errors + ", Pending Gaps: " + pendingGaps;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.EduConnect.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Looks settings up by key, e.g. {@code educonnect.db.url}, in this order: JVM system property,
+ * environment variable ({@code EDUCONNECT_DB_URL}), then the properties file named by
+ * {@code educonnect.config} (default {@code educonnect.properties} in the working directory).
+ */
+public class AppConfig {
+    private static volatile Properties file;
+
+    private AppConfig() {}
+
+    public static String get(String key, String def) {
+        String v = System.getProperty(key);
+        if (v == null) v = System.getenv(key.toUpperCase(Locale.ROOT).replace('.', '_'));
+        if (v == null) v = fileProperties().getProperty(key);
+        return v != null ? v.trim() : def;
+    }
+
+    public static int getInt(String key, int def) {
+        String v = get(key, null);
+        return v == null || v.isEmpty() ? def : Integer.parseInt(v);
+    }
+
+    public static long getLong(String key, long def) {
+        String v = get(key, null);
+        return v == null || v.isEmpty() ? def : Long.parseLong(v);
+    }
+
+    public static boolean getBoolean(String key, boolean def) {
+        String v = get(key, null);
+        return v == null || v.isEmpty() ? def : Boolean.parseBoolean(v);
+    }
+
+    /** Forgets the cached properties file so the next lookup re-reads it. */
+    public static void reload() {
+        file = null;
+    }
+
+    private static Properties fileProperties() {
+        Properties p = file;
+        if (p == null) {
+            p = new Properties();
+            String name = System.getProperty("educonnect.config", System.getenv().getOrDefault("EDUCONNECT_CONFIG", "educonnect.properties"));
+            Path path = Paths.get(name);
+            if (Files.isRegularFile(path)) {
+                try (InputStream in = Files.newInputStream(path)) {
+                    p.load(in);
+                } catch (IOException e) { System.err.println("Config Error: " + e.getMessage()); }
+            }
+            file = p;
+        }
+        return p;
+    }
+}
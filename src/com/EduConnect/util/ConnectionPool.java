@@ -0,0 +1,261 @@
+package com.EduConnect.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+public final class ConnectionPool implements AutoCloseable {
+
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection create() throws SQLException;
+    }
+
+    private final ConnectionFactory factory;
+    private final PoolConfig config;
+    private final Semaphore permits;
+    // LIFO: hot connections are reused first, the rest age out through idle eviction.
+    private final LinkedBlockingDeque<Entry> idle = new LinkedBlockingDeque<>();
+    private final Set<Entry> active = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService housekeeper;
+    private final ReentrantLock fillLock = new ReentrantLock();
+    private final AtomicInteger total = new AtomicInteger();
+
+    private final LongAdder borrows = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder destroyed = new LongAdder();
+    private final LongAdder leaks = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final LongAdder statementHits = new LongAdder();
+    private final LongAdder statementMisses = new LongAdder();
+    private final LongAdder statementEvictions = new LongAdder();
+    private volatile boolean closed;
+
+    public ConnectionPool(ConnectionFactory factory, PoolConfig config) {
+        if (config.getMaxSize() < 1 || config.getMinSize() < 0 || config.getMinSize() > config.getMaxSize()) {
+            throw new IllegalArgumentException("Invalid pool size: " + config);
+        }
+        this.factory = factory;
+        this.config = config;
+        this.permits = new Semaphore(config.getMaxSize(), true);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "educonnect-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = config.getHousekeepingIntervalMs();
+        housekeeper.scheduleWithFixedDelay(this::housekeep, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public Connection borrow() throws SQLException {
+        if (closed) throw new SQLException("Connection pool is closed");
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(config.getBorrowTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection", e);
+        }
+        long waited = System.nanoTime() - start;
+        waitNanos.add(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+        if (!acquired) {
+            timeouts.increment();
+            throw new SQLTimeoutException("Timed out after " + config.getBorrowTimeoutMs() +
+                                          "ms waiting for a connection (" + getStats() + ")");
+        }
+        try {
+            Entry e;
+            while ((e = idle.pollFirst()) != null) {
+                if (needsValidation(e) && !isValid(e)) { destroy(e); continue; }
+                return lease(e);
+            }
+            return lease(newEntry());
+        } catch (SQLException | RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    public void warmUp() throws SQLException {
+        fillLock.lock();
+        try {
+            while (total.get() < config.getMinSize()) {
+                idle.offerLast(newEntry());
+            }
+        } finally {
+            fillLock.unlock();
+        }
+    }
+
+    public PoolStats getStats() {
+        long n = borrows.sum();
+        return new PoolStats(active.size(), idle.size(), config.getMaxSize(), permits.getQueueLength(), n,
+                             timeouts.sum(), created.sum(), destroyed.sum(), leaks.sum(),
+                             n == 0 ? 0 : waitNanos.sum() / n, maxWaitNanos.get(),
+                             statementHits.sum(), statementMisses.sum(), statementEvictions.sum());
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        Entry e;
+        while ((e = idle.pollFirst()) != null) destroy(e);
+    }
+
+    private Connection lease(Entry e) {
+        e.borrowedAt = System.nanoTime();
+        e.borrowSite = config.isLeakTrace() && config.getLeakThresholdMs() > 0 ? new Throwable("Connection borrowed here") : null;
+        e.leakReported = false;
+        active.add(e);
+        borrows.increment();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                                                   new Class<?>[] { Connection.class }, new Handle(e));
+    }
+
+    private void release(Entry e) {
+        active.remove(e);
+        try {
+            if (closed || e.physical.isClosed()) { destroy(e); return; }
+            if (e.statements != null) e.statements.releaseAll();
+            if (e.dirty) {
+                if (!e.physical.getAutoCommit()) { e.physical.rollback(); e.physical.setAutoCommit(true); }
+                e.physical.setReadOnly(false);
+                e.physical.setTransactionIsolation(e.defaultIsolation);
+                e.dirty = false;
+            }
+            e.lastUsed = System.nanoTime();
+            idle.offerFirst(e);
+        } catch (SQLException ex) {
+            destroy(e);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private Entry newEntry() throws SQLException {
+        Connection c = factory.create();
+        created.increment();
+        total.incrementAndGet();
+        int cacheSize = config.getStatementCacheSize();
+        return new Entry(c, c.getTransactionIsolation(),
+                         cacheSize > 0 ? new StatementCache(cacheSize, statementHits, statementMisses, statementEvictions) : null);
+    }
+
+    private boolean needsValidation(Entry e) {
+        return System.nanoTime() - e.lastUsed >= TimeUnit.MILLISECONDS.toNanos(config.getValidateAfterIdleMs());
+    }
+
+    private boolean isValid(Entry e) {
+        try { return e.physical.isValid(2); } catch (SQLException ex) { return false; }
+    }
+
+    private void destroy(Entry e) {
+        destroyed.increment();
+        total.decrementAndGet();
+        if (e.statements != null) e.statements.closeAll();
+        try { e.physical.close(); } catch (SQLException ignored) { }
+    }
+
+    private void housekeep() {
+        try {
+            long now = System.nanoTime();
+            long idleLimit = TimeUnit.MILLISECONDS.toNanos(config.getIdleTimeoutMs());
+            for (Entry e : idle) {
+                if (total.get() <= config.getMinSize()) break;
+                if (now - e.lastUsed >= idleLimit && idle.remove(e)) destroy(e);
+            }
+            long leakLimit = TimeUnit.MILLISECONDS.toNanos(config.getLeakThresholdMs());
+            if (leakLimit > 0) {
+                for (Entry e : active) {
+                    if (!e.leakReported && now - e.borrowedAt >= leakLimit) {
+                        e.leakReported = true;
+                        leaks.increment();
+                        System.err.println("Possible connection leak: held for " +
+                                           TimeUnit.NANOSECONDS.toMillis(now - e.borrowedAt) + "ms");
+                        if (e.borrowSite != null) e.borrowSite.printStackTrace();
+                    }
+                }
+            }
+            if (!closed) warmUp();
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("Pool Housekeeping Error: " + e.getMessage());
+        }
+    }
+
+    private static final class Entry {
+        final Connection physical;
+        final int defaultIsolation;
+        final StatementCache statements;
+        volatile long lastUsed = System.nanoTime();
+        volatile long borrowedAt;
+        volatile Throwable borrowSite;
+        volatile boolean leakReported;
+        boolean dirty;
+
+        Entry(Connection physical, int defaultIsolation, StatementCache statements) {
+            this.physical = physical;
+            this.defaultIsolation = defaultIsolation;
+            this.statements = statements;
+        }
+    }
+
+    private final class Handle implements InvocationHandler {
+        private final Entry entry;
+        private boolean released;
+
+        Handle(Entry entry) { this.entry = entry; }
+
+        @Override
+        public Object invoke(Object proxy, Method m, Object[] args) throws Throwable {
+            switch (m.getName()) {
+                case "close":
+                    if (!released) { released = true; release(entry); }
+                    return null;
+                case "isClosed":
+                    return released || entry.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled[" + entry.physical + "]";
+                case "setAutoCommit": case "setTransactionIsolation": case "setReadOnly":
+                    entry.dirty = true;
+                    break;
+                case "prepareStatement":
+                    if (!released && entry.statements != null && StatementCache.isCacheable(m, args)) {
+                        return entry.statements.prepare(entry.physical, (Connection) proxy, args);
+                    }
+                    break;
+                default:
+                    break;
+            }
+            if (released) throw new SQLException("Connection is closed");
+            try {
+                return m.invoke(entry.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
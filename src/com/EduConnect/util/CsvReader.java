@@ -0,0 +1,91 @@
+package com.EduConnect.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CsvReader implements Closeable {
+    private final Reader in;
+    private final char[] buf = new char[64 * 1024];
+    private int pos, len;
+    private long lineNumber;
+    private final StringBuilder field = new StringBuilder();
+    private final StringBuilder raw = new StringBuilder();
+    private final List<String> fields = new ArrayList<>();
+
+    public CsvReader(Reader in) {
+        this.in = in;
+    }
+
+    /** Returns the next record, or null at end of input. Quoted fields may contain commas, quotes ("") and newlines. */
+    public String[] next() throws IOException {
+        fields.clear();
+        field.setLength(0);
+        raw.setLength(0);
+        int c = read();
+        if (c == -1) return null;
+        lineNumber++;
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) throw new IOException("Unterminated quoted field at line " + lineNumber);
+                if (c == '"') {
+                    int n = peek();
+                    if (n == '"') { read(); field.append('"'); } else quoted = false;
+                } else {
+                    if (c == '\n') lineNumber++;
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                break;
+            } else if (c == '\r') {
+                if (peek() == '\n') read();
+                break;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+        fields.add(field.toString());
+        if (raw.length() > 0 && raw.charAt(raw.length() - 1) == '\n') raw.setLength(raw.length() - 1);
+        if (raw.length() > 0 && raw.charAt(raw.length() - 1) == '\r') raw.setLength(raw.length() - 1);
+        return fields.toArray(new String[0]);
+    }
+
+    /** The raw text of the last record returned by {@link #next()}, without its line terminator. */
+    public String rawLine() { return raw.toString(); }
+
+    public long getLineNumber() { return lineNumber; }
+
+    private int read() throws IOException {
+        if (pos == len) {
+            len = in.read(buf, 0, buf.length);
+            pos = 0;
+            if (len <= 0) { len = 0; return -1; }
+        }
+        char c = buf[pos++];
+        raw.append(c);
+        return c;
+    }
+
+    private int peek() throws IOException {
+        if (pos == len) {
+            len = in.read(buf, 0, buf.length);
+            pos = 0;
+            if (len <= 0) { len = 0; return -1; }
+        }
+        return buf[pos];
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,114 @@
+package com.EduConnect.util;
+
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Locale;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+
+public class DataSourceFactory {
+
+    public enum Backend { SQLSERVER, H2 }
+
+    static final String DEFAULT_SQLSERVER_URL = "jdbc:sqlserver://localhost:1433;databaseName=StudentDB;encrypt=true;trustServerCertificate=true;";
+    static final String DEFAULT_H2_URL = "jdbc:h2:file:./data/educonnect;MODE=MSSQLServer";
+
+    private DataSourceFactory() {}
+
+    public static Backend backend() {
+        String b = AppConfig.get("educonnect.db.backend", null);
+        if (b != null) return Backend.valueOf(b.toUpperCase(Locale.ROOT));
+        String url = AppConfig.get("educonnect.db.url", null);
+        return url != null && url.startsWith("jdbc:h2:") ? Backend.H2 : Backend.SQLSERVER;
+    }
+
+    /**
+     * Builds the primary data source from configuration. Embedded backends get their tables created on
+     * first use, so the CLI can start without any external database.
+     */
+    public static DataSource create() {
+        return create("educonnect.db");
+    }
+
+    /** Builds a data source from the settings under the given prefix ({@code <prefix>.url}, {@code .user}, {@code .password}). */
+    public static DataSource create(String prefix) {
+        Backend backend = backend();
+        String url = AppConfig.get(prefix + ".url", backend == Backend.H2 ? DEFAULT_H2_URL : DEFAULT_SQLSERVER_URL);
+        String user = AppConfig.get(prefix + ".user", backend == Backend.H2 ? "sa" : "Your Username");
+        String pass = AppConfig.get(prefix + ".password", backend == Backend.H2 ? "" : "Your Password");
+        return new DriverManagerDataSource(url, user, pass, url.startsWith("jdbc:h2:") ? Schema::createIfMissing : null);
+    }
+
+    /**
+     * Builds the data source of enrollment shard {@code shard} (0-based) of {@code count} from the
+     * settings under {@code educonnect.db.shard.<shard + 1>}. An embedded shard gets only the Enrollments
+     * table, with ids interleaved so they stay unique across shards.
+     */
+    public static DataSource createShard(int shard, int count) {
+        String prefix = "educonnect.db.shard." + (shard + 1);
+        String url = AppConfig.get(prefix + ".url", null);
+        if (url == null) throw new IllegalArgumentException(prefix + ".url is not set");
+        boolean h2 = backend() == Backend.H2;
+        String user = AppConfig.get(prefix + ".user", h2 ? "sa" : "Your Username");
+        String pass = AppConfig.get(prefix + ".password", h2 ? "" : "Your Password");
+        return new DriverManagerDataSource(url, user, pass, url.startsWith("jdbc:h2:") ? conn -> Schema.createShardIfMissing(conn, shard, count) : null);
+    }
+
+    @FunctionalInterface
+    private interface SchemaInit {
+        void create(Connection conn) throws SQLException;
+    }
+
+    private static final class DriverManagerDataSource implements DataSource {
+        private final String url;
+        private final String user;
+        private final String pass;
+        private volatile SchemaInit initSchema;
+        private PrintWriter logWriter;
+
+        DriverManagerDataSource(String url, String user, String pass, SchemaInit initSchema) {
+            this.url = url;
+            this.user = user;
+            this.pass = pass;
+            this.initSchema = initSchema;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return getConnection(user, pass);
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            Connection conn = DriverManager.getConnection(url, username, password);
+            if (initSchema != null) {
+                synchronized (this) {
+                    if (initSchema != null) {
+                        try {
+                            initSchema.create(conn);
+                        } catch (SQLException e) {
+                            conn.close();
+                            throw e;
+                        }
+                        initSchema = null;
+                    }
+                }
+            }
+            return conn;
+        }
+
+        @Override public PrintWriter getLogWriter() { return logWriter; }
+        @Override public void setLogWriter(PrintWriter out) { this.logWriter = out; }
+        @Override public void setLoginTimeout(int seconds) { DriverManager.setLoginTimeout(seconds); }
+        @Override public int getLoginTimeout() { return DriverManager.getLoginTimeout(); }
+        @Override public Logger getParentLogger() throws SQLFeatureNotSupportedException { throw new SQLFeatureNotSupportedException(); }
+        @Override public <T> T unwrap(Class<T> iface) throws SQLException { throw new SQLException("Not a wrapper for " + iface); }
+        @Override public boolean isWrapperFor(Class<?> iface) { return false; }
+
+        @Override
+        public String toString() { return url; }
+    }
+}
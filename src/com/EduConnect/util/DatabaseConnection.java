@@ -1,22 +1,300 @@
 package com.EduConnect.util;
 
+import com.EduConnect.metrics.DaoMetrics;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.sql.Connection;
-import java.sql.DriverManager; 
 import java.sql.SQLException; 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import javax.sql.DataSource;
 
 
 public class DatabaseConnection {
 
   
-    private static final String DB_URL = "jdbc:sqlserver://localhost:1433;databaseName=StudentDB;encrypt=true;trustServerCertificate=true;";
+    private static volatile ConnectionPool pool;
 
-    private static final String USER = "Your Username";
+    private static final ThreadLocal<Session> SESSION = new ThreadLocal<>();
 
-    private static final String PASS = "Your Password";
+    private static volatile String disabledReason;
+
+    // Read replicas (educonnect.db.replica.<n>.*) and enrollment shards (educonnect.db.shard.<n>.*), both
+    // started on first use like the primary pool.
+    private static volatile Replica[] replicas;
+    private static volatile ConnectionPool[] shards;
+    private static final AtomicInteger nextReplica = new AtomicInteger();
+
+    // A thread reads from the primary for this long after its last write, so it sees its own writes
+    // once the replicas are this far behind at most.
+    private static final long READ_YOUR_WRITES_NANOS = TimeUnit.MILLISECONDS.toNanos(AppConfig.getLong("educonnect.db.readYourWritesMs", 2_000));
+    private static final long REPLICA_RETRY_NANOS = TimeUnit.SECONDS.toNanos(5);
+    private static final ThreadLocal<long[]> LAST_WRITE = ThreadLocal.withInitial(() -> new long[1]);
+
+    private static final LongAdder replicaReads = new LongAdder();
+    private static final LongAdder primaryReads = new LongAdder();
+    private static final LongAdder failovers = new LongAdder();
+
+    private static ConnectionPool pool() {
+        ConnectionPool p = pool;
+        if (p == null) {
+            synchronized (DatabaseConnection.class) {
+                if (pool == null) {
+                    DataSource ds = DataSourceFactory.create();
+                    pool = new ConnectionPool(ds::getConnection, PoolConfig.fromConfig());
+                }
+                p = pool;
+            }
+        }
+        return p;
+    }
 
     public static Connection getConnection() throws SQLException {
      
-        return DriverManager.getConnection(DB_URL, USER, PASS);
+        Session session = SESSION.get();
+        if (session != null) return DaoMetrics.wrap(session.handle);
+        if (disabledReason != null) throw new SQLException(disabledReason);
+        return DaoMetrics.isRecording() ? DaoMetrics.connect(pool()::borrow) : pool().borrow();
+    }
+
+    /**
+     * A connection for a read that may lag the primary a little: from the next read replica in turn
+     * when educonnect.db.replicas is set, otherwise the same as getConnection(). Reads stay on the
+     * primary inside a session or unit of work and for readYourWritesMs after this thread's last write.
+     * That covers only the writing thread or session: a client whose next request runs on another
+     * thread (every API request does) may read a replica that has not caught up. A replica that cannot
+     * hand out a connection is skipped for a few seconds.
+     */
+    public static Connection getReadConnection() throws SQLException {
+        Replica[] rs = replicas();
+        if (rs.length == 0 || SESSION.get() != null || wroteRecently()) {
+            primaryReads.increment();
+            return getConnection();
+        }
+        if (disabledReason != null) throw new SQLException(disabledReason);
+        long now = System.nanoTime();
+        int first = Math.floorMod(nextReplica.getAndIncrement(), rs.length);
+        for (int i = 0; i < rs.length; i++) {
+            Replica r = rs[(first + i) % rs.length];
+            if (r.down && now - r.retryAt < 0) continue;
+            try {
+                // Not DaoMetrics.connect: a failover is not a failed operation.
+                Connection conn = DaoMetrics.wrap(r.pool.borrow());
+                if (r.down) { r.down = false; System.err.println("Replica " + r.name + ": recovered"); }
+                replicaReads.increment();
+                return conn;
+            } catch (SQLException e) {
+                failovers.increment();
+                if (!r.down) System.err.println("Replica " + r.name + " Error: " + e.getMessage() + "; reading from the primary");
+                r.retryAt = now + REPLICA_RETRY_NANOS;
+                r.down = true;
+            }
+        }
+        primaryReads.increment();
+        return getConnection();
+    }
+
+    /** Keeps this thread's reads on the primary for readYourWritesMs; the DAOs call it after every write. */
+    public static void markWritten() {
+        if (READ_YOUR_WRITES_NANOS > 0) LAST_WRITE.get()[0] = System.nanoTime() | 1;
+    }
+
+    private static boolean wroteRecently() {
+        long last = LAST_WRITE.get()[0];
+        return last != 0 && System.nanoTime() - last < READ_YOUR_WRITES_NANOS;
+    }
+
+    /** The number of enrollment shards configured with educonnect.db.shards; 0 keeps enrollments on the primary. */
+    public static int getShardCount() {
+        return AppConfig.getInt("educonnect.db.shards", 0);
+    }
+
+    /** A connection to enrollment shard {@code shard}, 0-based. Shards have no sessions or replicas. */
+    public static Connection getShardConnection(int shard) throws SQLException {
+        if (disabledReason != null) throw new SQLException(disabledReason);
+        ConnectionPool p = shards()[shard];
+        return DaoMetrics.isRecording() ? DaoMetrics.connect(p::borrow) : p.borrow();
+    }
+
+    /**
+     * Starts the replica and shard pools, if any are configured, so a missing url fails at startup
+     * with an IllegalArgumentException rather than on the first routed read.
+     */
+    public static void startRouting() {
+        replicas();
+        shards();
+    }
+
+    private static Replica[] replicas() {
+        Replica[] r = replicas;
+        if (r == null) {
+            synchronized (DatabaseConnection.class) {
+                if (replicas == null) {
+                    Replica[] created = new Replica[Math.max(0, AppConfig.getInt("educonnect.db.replicas", 0))];
+                    for (int i = 0; i < created.length; i++) {
+                        String prefix = "educonnect.db.replica." + (i + 1);
+                        // Without its own url a replica would fall back to the primary's default url.
+                        if (AppConfig.get(prefix + ".url", null) == null) throw new IllegalArgumentException(prefix + ".url is not set");
+                        created[i] = new Replica(String.valueOf(i + 1), DataSourceFactory.create(prefix));
+                    }
+                    replicas = created;
+                }
+                r = replicas;
+            }
+        }
+        return r;
+    }
+
+    private static ConnectionPool[] shards() {
+        ConnectionPool[] s = shards;
+        if (s == null) {
+            synchronized (DatabaseConnection.class) {
+                if (shards == null) {
+                    int count = Math.max(0, getShardCount());
+                    ConnectionPool[] created = new ConnectionPool[count];
+                    for (int i = 0; i < count; i++) {
+                        DataSource ds = DataSourceFactory.createShard(i, count);
+                        created[i] = new ConnectionPool(ds::getConnection, PoolConfig.fromConfig());
+                    }
+                    shards = created;
+                }
+                s = shards;
+            }
+        }
+        return s;
+    }
+
+    /**
+     * Pins one pooled connection to the current thread until the session is closed; every
+     * getConnection() call in between gets that connection, and closing it is a no-op.
+     * Nested calls join the outer session.
+     */
+    public static Session openSession() throws SQLException {
+        Session outer = SESSION.get();
+        if (outer != null) return new Session(outer);
+        if (disabledReason != null) throw new SQLException(disabledReason);
+        Session s = new Session(pool().borrow());
+        SESSION.set(s);
+        return s;
+    }
+
+    /** Makes every later getConnection() and openSession() fail with the reason instead of starting a pool. */
+    public static void disable(String reason) {
+        disabledReason = reason;
+    }
+
+    public static void warmUp() throws SQLException {
+        pool().warmUp();
+    }
+
+    public static PoolStats getPoolStats() {
+        return pool().getStats();
+    }
+
+    /** One entry per read replica, in configuration order; empty without replicas. */
+    public static List<PoolStats> getReplicaPoolStats() {
+        List<PoolStats> stats = new ArrayList<>();
+        for (Replica r : replicas()) stats.add(r.pool.getStats());
+        return stats;
+    }
+
+    /** One entry per enrollment shard, in configuration order; empty without shards. */
+    public static List<PoolStats> getShardPoolStats() {
+        List<PoolStats> stats = new ArrayList<>();
+        for (ConnectionPool p : shards()) stats.add(p.getStats());
+        return stats;
+    }
+
+    public static ReadStats getReadStats() {
+        return new ReadStats(replicaReads.sum(), primaryReads.sum(), failovers.sum());
+    }
+
+    public static synchronized void shutdown() {
+        if (pool != null) { pool.close(); pool = null; }
+        if (replicas != null) { for (Replica r : replicas) r.pool.close(); replicas = null; }
+        if (shards != null) { for (ConnectionPool p : shards) p.close(); shards = null; }
+    }
+
+    private static final class Replica {
+        final String name;
+        final ConnectionPool pool;
+        volatile boolean down;
+        volatile long retryAt;
+
+        Replica(String name, DataSource ds) {
+            this.name = name;
+            this.pool = new ConnectionPool(ds::getConnection, PoolConfig.fromConfig());
+        }
+    }
+
+    /** Where routed reads went: a replica, or the primary (no replicas, read-your-writes, or every replica down). */
+    public static final class ReadStats {
+        private final long replicaReads;
+        private final long primaryReads;
+        private final long failovers;
+
+        ReadStats(long replicaReads, long primaryReads, long failovers) {
+            this.replicaReads = replicaReads;
+            this.primaryReads = primaryReads;
+            this.failovers = failovers;
+        }
+
+        public long getReplicaReads() { return replicaReads; }
+        public long getPrimaryReads() { return primaryReads; }
+        /** Replica connections that could not be had, each sending the read to another replica or the primary. */
+        public long getFailovers() { return failovers; }
+
+        @Override
+        public String toString() {
+            return "replica: " + replicaReads + ", primary: " + primaryReads + ", failovers: " + failovers;
+        }
+    }
+
+    public static final class Session implements AutoCloseable {
+        private final Connection connection;
+        private final Connection handle;
+        private final boolean owner;
+
+        private Session(Connection connection) {
+            this.connection = connection;
+            this.owner = true;
+            this.handle = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+                (proxy, m, args) -> {
+                    switch (m.getName()) {
+                        case "close": return null;
+                        case "equals": return proxy == args[0];
+                        case "hashCode": return System.identityHashCode(proxy);
+                        default:
+                            try { return m.invoke(connection, args); } catch (InvocationTargetException e) { throw e.getCause(); }
+                    }
+                });
+        }
+
+        private Session(Session outer) {
+            this.connection = outer.connection;
+            this.handle = outer.handle;
+            this.owner = false;
+        }
+
+        /** The session's connection; closing it does not release the session. */
+        public Connection getConnection() { return handle; }
+
+        public boolean isOwner() { return owner; }
+
+        /** Rolls back anything left uncommitted and restores auto-commit, as the pool does on release. */
+        public void reset() throws SQLException {
+            if (!connection.getAutoCommit()) { connection.rollback(); connection.setAutoCommit(true); }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            if (!owner) return;
+            SESSION.remove();
+            connection.close();
+        }
     }
 
     public static void main(String[] args) {
@@ -24,11 +302,14 @@ public class DatabaseConnection {
         try (Connection conn = getConnection()) {
             if (conn != null) {
                 System.out.println("Connection successful: " + (conn != null)); 
+                System.out.println("Pool: " + getPoolStats());
             } else {
                 System.out.println("Failed to get a database connection."); 
             }
         } catch (SQLException e) { 
             System.err.println("Connection error: " + e.getMessage()); 
+        } finally {
+            shutdown();
         }
     }
 }
@@ -0,0 +1,111 @@
+package com.EduConnect.util;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Dates are carried as epoch days (days since 1970-01-01) in an int, with {@link #NONE} for a missing
+ * date. Parsing and formatting work on the digits directly, so they allocate nothing and are safe to
+ * share between threads.
+ */
+public class Dates {
+    /** Epoch day standing for "no date"; far outside any year that parses. */
+    public static final int NONE = Integer.MIN_VALUE;
+
+    private Dates() {}
+
+    /** Parses DD-MM-YYYY or ISO YYYY-MM-DD; blank or null gives null. Throws DateTimeParseException otherwise. */
+    public static Date parse(String s) {
+        return toSqlDate(parseDay(s));
+    }
+
+    /**
+     * Epoch day of DD-MM-YYYY or ISO YYYY-MM-DD, ignoring surrounding whitespace; blank or null gives
+     * {@link #NONE}. Strict: the day must exist in that month. Throws DateTimeParseException otherwise.
+     */
+    public static int parseDay(CharSequence s) {
+        if (s == null) return NONE;
+        int from = 0, to = s.length();
+        while (from < to && Character.isWhitespace(s.charAt(from))) from++;
+        while (to > from && Character.isWhitespace(s.charAt(to - 1))) to--;
+        if (from == to) return NONE;
+        if (to - from == 10) {
+            if (s.charAt(from + 4) == '-' && s.charAt(from + 7) == '-') {
+                return day(s, digits(s, from, 4), digits(s, from + 5, 2), digits(s, from + 8, 2));
+            }
+            if (s.charAt(from + 2) == '-' && s.charAt(from + 5) == '-') {
+                return day(s, digits(s, from + 6, 4), digits(s, from + 3, 2), digits(s, from, 2));
+            }
+        }
+        throw invalid(s);
+    }
+
+    /** Epoch day of y-m-d, by the days-from-civil algorithm; the caller has checked the fields. */
+    public static int epochDay(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yoe = y - era * 400;
+        int doy = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146097 + doe - 719468;
+    }
+
+    /** Appends the ISO form (YYYY-MM-DD) of an epoch day, or nothing for {@link #NONE}. */
+    public static StringBuilder appendIso(StringBuilder sb, int epochDay) {
+        if (epochDay == NONE) return sb;
+        int z = epochDay + 719468;
+        int era = Math.floorDiv(z, 146097);
+        int doe = z - era * 146097;
+        int yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        int doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        int mp = (5 * doy + 2) / 153;
+        int d = doy - (153 * mp + 2) / 5 + 1;
+        int m = mp < 10 ? mp + 3 : mp - 9;
+        int y = yoe + era * 400 + (m <= 2 ? 1 : 0);
+        if (y < 0 || y > 9999) return sb.append(LocalDate.ofEpochDay(epochDay));
+        sb.append((char) ('0' + y / 1000)).append((char) ('0' + y / 100 % 10)).append((char) ('0' + y / 10 % 10)).append((char) ('0' + y % 10));
+        sb.append('-').append((char) ('0' + m / 10)).append((char) ('0' + m % 10));
+        return sb.append('-').append((char) ('0' + d / 10)).append((char) ('0' + d % 10));
+    }
+
+    public static int toDay(LocalDate d) {
+        return d == null ? NONE : (int) d.toEpochDay();
+    }
+
+    public static int toDay(Date d) {
+        return d == null ? NONE : (int) d.toLocalDate().toEpochDay();
+    }
+
+    public static LocalDate toLocalDate(int epochDay) {
+        return epochDay == NONE ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    public static Date toSqlDate(int epochDay) {
+        return epochDay == NONE ? null : Date.valueOf(LocalDate.ofEpochDay(epochDay));
+    }
+
+    private static int day(CharSequence s, int year, int month, int day) {
+        if (month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) throw invalid(s);
+        return epochDay(year, month, day);
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        if (month == 2) return (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+        return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+    }
+
+    private static int digits(CharSequence s, int from, int n) {
+        int v = 0;
+        for (int i = from; i < from + n; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') throw invalid(s);
+            v = v * 10 + (c - '0');
+        }
+        return v;
+    }
+
+    private static DateTimeParseException invalid(CharSequence s) {
+        return new DateTimeParseException("Invalid date (DD-MM-YYYY or YYYY-MM-DD): " + s, s, 0);
+    }
+}
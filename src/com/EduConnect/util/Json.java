@@ -0,0 +1,160 @@
+package com.EduConnect.util;
+
+import com.EduConnect.model.Course;
+import com.EduConnect.model.Enrollment;
+import com.EduConnect.model.Student;
+import com.EduConnect.report.CourseFill;
+import com.EduConnect.report.DailyCount;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class Json {
+    private Json() {}
+
+    /** Appends s as a JSON string literal, or null. */
+    public static StringBuilder quote(StringBuilder sb, String s) {
+        if (s == null) return sb.append("null");
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c)); else sb.append(c);
+            }
+        }
+        return sb.append('"');
+    }
+
+    /** Appends an epoch day as an ISO date string, or null. */
+    public static StringBuilder date(StringBuilder sb, int epochDay) {
+        if (epochDay == Dates.NONE) return sb.append("null");
+        return Dates.appendIso(sb.append('"'), epochDay).append('"');
+    }
+
+    public static String quote(String s) {
+        return quote(new StringBuilder(s == null ? 4 : s.length() + 2), s).toString();
+    }
+
+    public static StringBuilder student(StringBuilder sb, Student s) {
+        sb.append("{\"id\":").append(s.getStudentId()).append(",\"name\":");
+        quote(sb, s.getName()).append(",\"email\":");
+        quote(sb, s.getEmail()).append(",\"phone\":");
+        quote(sb, s.getPhone()).append(",\"dob\":");
+        date(sb, s.getDobDay()).append(",\"gender\":");
+        return quote(sb, s.getGender()).append('}');
+    }
+
+    public static StringBuilder course(StringBuilder sb, Course c) {
+        sb.append("{\"id\":").append(c.getCourseId()).append(",\"name\":");
+        quote(sb, c.getCourseName()).append(",\"duration\":");
+        return quote(sb, c.getDuration()).append('}');
+    }
+
+    public static StringBuilder enrollment(StringBuilder sb, Enrollment e) {
+        sb.append("{\"id\":").append(e.getEnrollmentId()).append(",\"studentId\":").append(e.getStudentId())
+          .append(",\"courseId\":").append(e.getCourseId()).append(",\"enrollDate\":");
+        return date(sb, e.getEnrollDay()).append('}');
+    }
+
+    public static StringBuilder courseFill(StringBuilder sb, CourseFill f) {
+        sb.append("{\"courseId\":").append(f.getCourseId()).append(",\"name\":");
+        return quote(sb, f.getCourseName()).append(",\"enrollments\":").append(f.getEnrollments())
+                .append(",\"students\":").append(f.getStudents()).append('}');
+    }
+
+    public static StringBuilder dailyCount(StringBuilder sb, DailyCount d) {
+        return sb.append("{\"date\":\"").append(d.getDay()).append("\",\"enrollments\":").append(d.getEnrollments()).append('}');
+    }
+
+    /**
+     * Parses a flat JSON object of string, number, boolean or null members into their text values
+     * (null members map to null). Nested objects and arrays are rejected.
+     */
+    public static Map<String, String> parseObject(String json) {
+        Parser p = new Parser(json);
+        Map<String, String> m = new LinkedHashMap<>();
+        p.skip();
+        p.expect('{');
+        p.skip();
+        if (p.peek() == '}') { p.pos++; }
+        else {
+            while (true) {
+                p.skip();
+                String key = p.string();
+                p.skip();
+                p.expect(':');
+                p.skip();
+                m.put(key, p.value());
+                p.skip();
+                char c = p.next();
+                if (c == '}') break;
+                if (c != ',') throw p.error("expected ',' or '}'");
+            }
+        }
+        p.skip();
+        if (p.pos < json.length()) throw p.error("unexpected trailing content");
+        return m;
+    }
+
+    private static final class Parser {
+        private final String s;
+        int pos;
+
+        Parser(String s) { this.s = s; }
+
+        char peek() { return pos < s.length() ? s.charAt(pos) : 0; }
+
+        char next() {
+            if (pos >= s.length()) throw error("unexpected end of input");
+            return s.charAt(pos++);
+        }
+
+        void skip() { while (pos < s.length() && Character.isWhitespace(s.charAt(pos))) pos++; }
+
+        void expect(char c) { if (next() != c) throw error("expected '" + c + "'"); }
+
+        String value() {
+            char c = peek();
+            if (c == '"') return string();
+            int start = pos;
+            while (pos < s.length() && ",} \t\r\n".indexOf(s.charAt(pos)) < 0) pos++;
+            String lit = s.substring(start, pos);
+            if (lit.equals("null")) return null;
+            if (lit.equals("true") || lit.equals("false") || lit.matches("-?\\d+(\\.\\d+)?([eE][+-]?\\d+)?")) return lit;
+            throw error("unsupported value '" + lit + "'");
+        }
+
+        String string() {
+            expect('"');
+            StringBuilder sb = new StringBuilder();
+            while (true) {
+                char c = next();
+                if (c == '"') return sb.toString();
+                if (c != '\\') { sb.append(c); continue; }
+                char e = next();
+                switch (e) {
+                    case 'n': sb.append('\n'); break;
+                    case 'r': sb.append('\r'); break;
+                    case 't': sb.append('\t'); break;
+                    case 'b': sb.append('\b'); break;
+                    case 'f': sb.append('\f'); break;
+                    case 'u':
+                        if (pos + 4 > s.length()) throw error("bad unicode escape");
+                        sb.append((char) Integer.parseInt(s.substring(pos, pos + 4), 16));
+                        pos += 4;
+                        break;
+                    default: sb.append(e);
+                }
+            }
+        }
+
+        IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("Invalid JSON at offset " + pos + ": " + message);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.EduConnect.util;
+
+public class PoolConfig {
+    private int minSize = 2;
+    private int maxSize = 10;
+    private long borrowTimeoutMs = 5_000;
+    private long idleTimeoutMs = 300_000;
+    private long validateAfterIdleMs = 30_000;
+    private long leakThresholdMs = 60_000;
+    private boolean leakTrace;
+    private long housekeepingIntervalMs = 15_000;
+    private int statementCacheSize = 64;
+
+    public PoolConfig() {}
+
+    public static PoolConfig fromConfig() {
+        PoolConfig c = new PoolConfig();
+        c.setMinSize(AppConfig.getInt("educonnect.pool.min", c.minSize));
+        c.setMaxSize(AppConfig.getInt("educonnect.pool.max", c.maxSize));
+        c.setBorrowTimeoutMs(AppConfig.getLong("educonnect.pool.borrowTimeoutMs", c.borrowTimeoutMs));
+        c.setIdleTimeoutMs(AppConfig.getLong("educonnect.pool.idleTimeoutMs", c.idleTimeoutMs));
+        c.setValidateAfterIdleMs(AppConfig.getLong("educonnect.pool.validateAfterIdleMs", c.validateAfterIdleMs));
+        c.setLeakThresholdMs(AppConfig.getLong("educonnect.pool.leakThresholdMs", c.leakThresholdMs));
+        c.setLeakTrace(AppConfig.getBoolean("educonnect.pool.leakTrace", c.leakTrace));
+        c.setHousekeepingIntervalMs(AppConfig.getLong("educonnect.pool.housekeepingIntervalMs", c.housekeepingIntervalMs));
+        c.setStatementCacheSize(AppConfig.getInt("educonnect.pool.statementCacheSize", c.statementCacheSize));
+        return c;
+    }
+
+    public int getMinSize() { return minSize; }
+    public int getMaxSize() { return maxSize; }
+    public long getBorrowTimeoutMs() { return borrowTimeoutMs; }
+    public long getIdleTimeoutMs() { return idleTimeoutMs; }
+    public long getValidateAfterIdleMs() { return validateAfterIdleMs; }
+    public long getLeakThresholdMs() { return leakThresholdMs; }
+    /** Records the borrower's stack on every borrow so a leak report can show it; a debugging aid, off by default. */
+    public boolean isLeakTrace() { return leakTrace; }
+    public long getHousekeepingIntervalMs() { return housekeepingIntervalMs; }
+    /** Prepared statements kept open per connection; 0 turns statement caching off. */
+    public int getStatementCacheSize() { return statementCacheSize; }
+
+    public void setMinSize(int minSize) { this.minSize = minSize; }
+    public void setMaxSize(int maxSize) { this.maxSize = maxSize; }
+    public void setBorrowTimeoutMs(long borrowTimeoutMs) { this.borrowTimeoutMs = borrowTimeoutMs; }
+    public void setIdleTimeoutMs(long idleTimeoutMs) { this.idleTimeoutMs = idleTimeoutMs; }
+    public void setValidateAfterIdleMs(long validateAfterIdleMs) { this.validateAfterIdleMs = validateAfterIdleMs; }
+    public void setLeakThresholdMs(long leakThresholdMs) { this.leakThresholdMs = leakThresholdMs; }
+    public void setLeakTrace(boolean leakTrace) { this.leakTrace = leakTrace; }
+    public void setHousekeepingIntervalMs(long housekeepingIntervalMs) { this.housekeepingIntervalMs = housekeepingIntervalMs; }
+    public void setStatementCacheSize(int statementCacheSize) { this.statementCacheSize = statementCacheSize; }
+
+    @Override
+    public String toString() {
+        return "min: " + minSize + ", max: " + maxSize + ", borrowTimeoutMs: " + borrowTimeoutMs +
+               ", idleTimeoutMs: " + idleTimeoutMs + ", leakThresholdMs: " + leakThresholdMs + ", leakTrace: " + leakTrace +
+               ", statementCacheSize: " + statementCacheSize;
+    }
+}
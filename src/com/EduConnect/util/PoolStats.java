@@ -0,0 +1,72 @@
+package com.EduConnect.util;
+
+import java.util.concurrent.TimeUnit;
+
+public class PoolStats {
+    private final int active;
+    private final int idle;
+    private final int maxSize;
+    private final int waiting;
+    private final long borrows;
+    private final long timeouts;
+    private final long created;
+    private final long destroyed;
+    private final long leaks;
+    private final long avgWaitNanos;
+    private final long maxWaitNanos;
+    private final long statementHits;
+    private final long statementMisses;
+    private final long statementEvictions;
+
+    public PoolStats(int active, int idle, int maxSize, int waiting, long borrows, long timeouts,
+                     long created, long destroyed, long leaks, long avgWaitNanos, long maxWaitNanos,
+                     long statementHits, long statementMisses, long statementEvictions) {
+        this.active = active;
+        this.idle = idle;
+        this.maxSize = maxSize;
+        this.waiting = waiting;
+        this.borrows = borrows;
+        this.timeouts = timeouts;
+        this.created = created;
+        this.destroyed = destroyed;
+        this.leaks = leaks;
+        this.avgWaitNanos = avgWaitNanos;
+        this.maxWaitNanos = maxWaitNanos;
+        this.statementHits = statementHits;
+        this.statementMisses = statementMisses;
+        this.statementEvictions = statementEvictions;
+    }
+
+    public int getActive() { return active; }
+    public int getIdle() { return idle; }
+    public int getMaxSize() { return maxSize; }
+    public int getWaiting() { return waiting; }
+    public long getBorrows() { return borrows; }
+    public long getTimeouts() { return timeouts; }
+    public long getCreated() { return created; }
+    public long getDestroyed() { return destroyed; }
+    public long getLeaks() { return leaks; }
+    public long getAvgWaitNanos() { return avgWaitNanos; }
+    public long getMaxWaitNanos() { return maxWaitNanos; }
+    public long getStatementHits() { return statementHits; }
+    public long getStatementMisses() { return statementMisses; }
+    public long getStatementEvictions() { return statementEvictions; }
+
+    /** Share of prepareStatement calls answered from a connection's statement cache. */
+    public double getStatementHitRate() {
+        long total = statementHits + statementMisses;
+        return total == 0 ? 0 : statementHits / (double) total;
+    }
+
+    @Override
+    public String toString() {
+        return "Active: " + active + ", Idle: " + idle + ", Max: " + maxSize + ", Waiting: " + waiting +
+               ", Borrows: " + borrows + ", Timeouts: " + timeouts + ", Created: " + created +
+               ", Destroyed: " + destroyed + ", Leaks: " + leaks +
+               ", Avg Wait: " + TimeUnit.NANOSECONDS.toMicros(avgWaitNanos) + "us" +
+               ", Max Wait: " + TimeUnit.NANOSECONDS.toMillis(maxWaitNanos) + "ms" +
+               ", Statement Hits: " + statementHits + ", Statement Misses: " + statementMisses +
+               ", Statement Evictions: " + statementEvictions +
+               ", Statement Hit Rate: " + String.format("%.1f%%", getStatementHitRate() * 100);
+    }
+}
@@ -0,0 +1,64 @@
+package com.EduConnect.util;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+public class Schema {
+    private static final String[] DDL = {
+        "CREATE TABLE IF NOT EXISTS Students (student_id INT IDENTITY(1,1) PRIMARY KEY, name VARCHAR(100), " +
+            "email VARCHAR_IGNORECASE(100), phone VARCHAR(20), dob DATE, gender VARCHAR(10), version INT NOT NULL DEFAULT 1)",
+        "CREATE TABLE IF NOT EXISTS Courses (course_id INT IDENTITY(1,1) PRIMARY KEY, course_name VARCHAR(100), duration VARCHAR(50), " +
+            "version INT NOT NULL DEFAULT 1)",
+        // Databases created before rows were versioned and emails compared ignoring case, as SQL Server's
+        // default collation does.
+        "ALTER TABLE Students ADD COLUMN IF NOT EXISTS version INT NOT NULL DEFAULT 1",
+        "ALTER TABLE Courses ADD COLUMN IF NOT EXISTS version INT NOT NULL DEFAULT 1",
+        "ALTER TABLE Students ALTER COLUMN email VARCHAR_IGNORECASE(100)",
+        "CREATE TABLE IF NOT EXISTS Enrollments (enrollment_id INT IDENTITY(1,1) PRIMARY KEY, " +
+            "student_id INT NOT NULL REFERENCES Students(student_id), course_id INT NOT NULL REFERENCES Courses(course_id), enroll_date DATE)",
+        "CREATE INDEX IF NOT EXISTS IX_Enrollments_student_id ON Enrollments (student_id)",
+        "CREATE INDEX IF NOT EXISTS IX_Enrollments_course_id ON Enrollments (course_id)",
+        "CREATE TABLE IF NOT EXISTS ChangeLog (change_id BIGINT IDENTITY(1,1) PRIMARY KEY, entity TINYINT NOT NULL, " +
+            "row_id INT NOT NULL, changed_at DATETIME2 NOT NULL DEFAULT CURRENT_TIMESTAMP)"
+    };
+
+    // An enrollment shard: no foreign keys, since its students and courses live on the primary, and ids
+    // start at shard + 1 and step by the shard count, so an id also names its shard.
+    private static final String[] SHARD_DDL = {
+        "CREATE TABLE IF NOT EXISTS Enrollments (enrollment_id INT IDENTITY(%d,%d) PRIMARY KEY, " +
+            "student_id INT NOT NULL, course_id INT NOT NULL, enroll_date DATE)",
+        "CREATE INDEX IF NOT EXISTS IX_Enrollments_student_id ON Enrollments (student_id)",
+        "CREATE INDEX IF NOT EXISTS IX_Enrollments_course_id ON Enrollments (course_id)"
+    };
+
+    // The uniqueness rules (see com.EduConnect.dao.UniqueKeys). A database that already holds duplicates
+    // cannot take the index, so these are created one by one and a failure is reported, not fatal.
+    private static final String UNIQUE_EMAIL_DDL = "CREATE UNIQUE NULLS DISTINCT INDEX IF NOT EXISTS UX_Students_email ON Students (email)";
+    private static final String UNIQUE_PAIR_DDL = "CREATE UNIQUE INDEX IF NOT EXISTS UX_Enrollments_student_course ON Enrollments (student_id, course_id)";
+
+    private Schema() {}
+
+    /** Creates the EduConnect tables on an embedded database (H2 in MSSQLServer mode). SQL Server is provisioned separately. */
+    public static void createIfMissing(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            for (String sql : DDL) st.execute(sql);
+            createUnique(st, UNIQUE_EMAIL_DDL);
+            createUnique(st, UNIQUE_PAIR_DDL);
+        }
+    }
+
+    /** Creates the Enrollments table of shard {@code shard} (0-based) of {@code count} on an embedded database. */
+    public static void createShardIfMissing(Connection conn, int shard, int count) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            for (String sql : SHARD_DDL) st.execute(String.format(sql, shard + 1, count));
+            createUnique(st, UNIQUE_PAIR_DDL);
+        }
+    }
+
+    private static void createUnique(Statement st, String sql) {
+        try {
+            st.execute(sql);
+        } catch (SQLException e) { System.err.println("Unique Index Error: " + e.getMessage() + " Remove the duplicates and restart to enforce it."); }
+    }
+}
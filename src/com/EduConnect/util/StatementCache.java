@@ -0,0 +1,233 @@
+package com.EduConnect.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Prepared statements kept open on one physical connection, so a DAO call that prepares the same SQL
+ * as an earlier call on that connection skips the parse and the prepare round trip. Statements are
+ * keyed by SQL and prepare options and handed out wrapped: close() clears the parameters and puts the
+ * statement back instead of closing it. Least recently used statements are closed once there are more
+ * than the capacity. Only the thread holding the connection touches the cache, so it is not locked.
+ */
+final class StatementCache {
+    private final int capacity;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+    private final LinkedHashMap<Key, Cached> map;
+    private int inUse;
+
+    StatementCache(int capacity, LongAdder hits, LongAdder misses, LongAdder evictions) {
+        this.capacity = capacity;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        // Access order makes the eldest entry the least recently used one.
+        this.map = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Cached> eldest) {
+                if (size() <= StatementCache.this.capacity) return false;
+                evictions.increment();
+                Cached c = eldest.getValue();
+                c.evicted = true;
+                if (!c.inUse) closeQuietly(c.statement);
+                return true;
+            }
+        };
+    }
+
+    /** True for the prepareStatement overloads the cache keys: (sql), (sql, keys) and (sql, type, concurrency). */
+    static boolean isCacheable(Method m, Object[] args) {
+        if (!m.getName().equals("prepareStatement") || args == null || args.length > 3) return false;
+        Class<?>[] p = m.getParameterTypes();
+        return p.length == 1 || p[1] == int.class && (p.length == 2 || p[2] == int.class);
+    }
+
+    /**
+     * Returns the cached statement for the call, preparing it on the first use. If that statement is
+     * still open in another part of the same call chain, a fresh uncached one is prepared instead.
+     */
+    PreparedStatement prepare(Connection physical, Connection handle, Object[] args) throws SQLException {
+        Key key = new Key((String) args[0], args.length == 2 ? (Integer) args[1] : -1, args.length == 3 ? (Integer) args[1] : -1,
+                          args.length == 3 ? (Integer) args[2] : -1);
+        Cached c = map.get(key);
+        if (c != null && !c.inUse && c.statement.isClosed()) {
+            map.remove(key);
+            c = null;
+        }
+        if (c != null && !c.inUse) {
+            hits.increment();
+        } else {
+            misses.increment();
+            PreparedStatement ps = key.prepare(physical);
+            if (c != null) return ps;
+            c = new Cached(ps);
+            map.put(key, c);
+        }
+        c.inUse = true;
+        inUse++;
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                                                          new Class<?>[] { PreparedStatement.class }, new Lease(c, handle));
+    }
+
+    /** Closes statements the caller never gave back, so one leaked statement cannot be handed out twice. */
+    void releaseAll() {
+        if (inUse == 0) return;
+        for (Iterator<Cached> it = map.values().iterator(); it.hasNext(); ) {
+            Cached c = it.next();
+            if (c.inUse) { it.remove(); c.inUse = false; closeQuietly(c.statement); }
+        }
+        inUse = 0;
+    }
+
+    void closeAll() {
+        List<Cached> all = new ArrayList<>(map.values());
+        map.clear();
+        inUse = 0;
+        for (Cached c : all) closeQuietly(c.statement);
+    }
+
+    int size() { return map.size(); }
+
+    private void giveBack(Cached c) {
+        if (!c.inUse) return;
+        c.inUse = false;
+        inUse--;
+        try {
+            if (c.evicted || c.statement.isClosed()) { drop(c); return; }
+            // A result set the caller left open would keep its cursor, and on SQL Server its server-side
+            // resources, until the next borrower re-executes.
+            if (c.queried) {
+                ResultSet open = c.statement.getResultSet();
+                if (open != null) open.close();
+                c.queried = false;
+            }
+            c.statement.clearParameters();
+            if (c.batched) { c.statement.clearBatch(); c.batched = false; }
+            if (c.fetchSizeChanged) { c.statement.setFetchSize(c.defaultFetchSize); c.fetchSizeChanged = false; }
+        } catch (SQLException e) {
+            drop(c);
+        }
+    }
+
+    private void drop(Cached c) {
+        map.values().remove(c);
+        closeQuietly(c.statement);
+    }
+
+    private static void closeQuietly(Statement s) {
+        try { s.close(); } catch (SQLException ignored) { }
+    }
+
+    private static final class Key {
+        final String sql;
+        final int autoGeneratedKeys;
+        final int resultSetType;
+        final int concurrency;
+
+        Key(String sql, int autoGeneratedKeys, int resultSetType, int concurrency) {
+            this.sql = sql;
+            this.autoGeneratedKeys = autoGeneratedKeys;
+            this.resultSetType = resultSetType;
+            this.concurrency = concurrency;
+        }
+
+        PreparedStatement prepare(Connection c) throws SQLException {
+            if (autoGeneratedKeys >= 0) return c.prepareStatement(sql, autoGeneratedKeys);
+            if (resultSetType >= 0) return c.prepareStatement(sql, resultSetType, concurrency);
+            return c.prepareStatement(sql);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key k && sql.equals(k.sql) && autoGeneratedKeys == k.autoGeneratedKeys
+                   && resultSetType == k.resultSetType && concurrency == k.concurrency;
+        }
+
+        @Override
+        public int hashCode() {
+            return sql.hashCode() * 31 + autoGeneratedKeys * 7 + resultSetType * 3 + concurrency;
+        }
+    }
+
+    private static final class Cached {
+        final PreparedStatement statement;
+        final int defaultFetchSize;
+        boolean inUse;
+        boolean evicted;
+        boolean batched;
+        boolean queried;
+        boolean fetchSizeChanged;
+
+        Cached(PreparedStatement statement) throws SQLException {
+            this.statement = statement;
+            this.defaultFetchSize = statement.getFetchSize();
+        }
+    }
+
+    private final class Lease implements InvocationHandler {
+        private final Cached cached;
+        private final Connection handle;
+        private boolean closed;
+
+        Lease(Cached cached, Connection handle) {
+            this.cached = cached;
+            this.handle = handle;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method m, Object[] args) throws Throwable {
+            switch (m.getName()) {
+                case "close":
+                    if (!closed) { closed = true; giveBack(cached); }
+                    return null;
+                case "isClosed":
+                    return closed || cached.statement.isClosed();
+                case "getConnection":
+                    return handle;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Cached[" + cached.statement + "]";
+                case "addBatch":
+                    cached.batched = true;
+                    break;
+                case "executeQuery": case "execute":
+                    cached.queried = true;
+                    break;
+                case "setFetchSize":
+                    cached.fetchSizeChanged = true;
+                    break;
+                case "setMaxRows": case "setLargeMaxRows": case "setQueryTimeout": case "setMaxFieldSize":
+                case "setFetchDirection": case "setEscapeProcessing": case "setPoolable": case "closeOnCompletion":
+                    // Rarely used; rather than restore them, the statement is not reused.
+                    if (!closed) cached.evicted = true;
+                    break;
+                default:
+                    break;
+            }
+            if (closed) throw new SQLException("Statement is closed");
+            try {
+                return m.invoke(cached.statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.EduConnect.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class IntIntMapTest {
+    // new IntIntMap(64, ...) starts with 128 slots.
+    private static final int MASK = 127;
+
+    @Test
+    void putGetAndOverwrite() {
+        IntIntMap m = new IntIntMap(64, -1);
+        m.put(7, 70);
+        m.put(-7, -70);
+        m.put(Integer.MAX_VALUE, 1);
+        m.put(Integer.MIN_VALUE, 2);
+        m.put(7, 71);
+        assertEquals(4, m.size());
+        assertEquals(71, m.get(7));
+        assertEquals(-70, m.get(-7));
+        assertEquals(1, m.get(Integer.MAX_VALUE));
+        assertEquals(2, m.get(Integer.MIN_VALUE));
+        assertEquals(-1, m.get(8));
+    }
+
+    @Test
+    void keyZeroIsNeverFound() {
+        IntIntMap m = new IntIntMap(64, -1);
+        assertEquals(-1, m.get(0));
+        m.put(5, 50);
+        assertEquals(-1, m.get(0));
+        assertEquals(-1, m.remove(0));
+        assertThrows(IllegalArgumentException.class, () -> m.put(0, 1));
+        assertEquals(1, m.size());
+    }
+
+    @Test
+    void collidingKeysAllFound() {
+        IntIntMap m = new IntIntMap(64, -1);
+        List<Integer> chain = sameHome(4);
+        for (int k : chain) m.put(k, k * 2);
+        for (int k : chain) assertEquals(k * 2, m.get(k));
+    }
+
+    @Test
+    void removeMidChainKeepsTheRestReachable() {
+        IntIntMap m = new IntIntMap(64, -1);
+        List<Integer> chain = sameHome(5);
+        for (int k : chain) m.put(k, k * 2);
+        assertEquals(chain.get(1) * 2, m.remove(chain.get(1)));
+        assertEquals(-1, m.get(chain.get(1)));
+        assertEquals(-1, m.remove(chain.get(1)));
+        for (int i = 0; i < chain.size(); i++) {
+            if (i != 1) assertEquals(chain.get(i) * 2, m.get(chain.get(i)));
+        }
+        assertEquals(4, m.size());
+        assertEquals(chain.get(0) * 2, m.remove(chain.get(0)));
+        assertEquals(chain.get(4) * 2, m.remove(chain.get(4)));
+        assertEquals(chain.get(2) * 2, m.get(chain.get(2)));
+        assertEquals(chain.get(3) * 2, m.get(chain.get(3)));
+    }
+
+    @Test
+    void removeShiftsDisplacedKeysBack() {
+        IntIntMap m = new IntIntMap(64, -1);
+        List<Integer> chain = sameHome(2);
+        int next = withHome((home(chain.get(0)) + 1) & MASK, chain);
+        // chain[1] takes next's home slot, which pushes next one further along.
+        m.put(chain.get(0), 1);
+        m.put(chain.get(1), 2);
+        m.put(next, 3);
+        m.remove(chain.get(0));
+        assertEquals(2, m.get(chain.get(1)));
+        assertEquals(3, m.get(next));
+        m.remove(chain.get(1));
+        assertEquals(3, m.get(next));
+        assertEquals(1, m.size());
+    }
+
+    @Test
+    void removeSkipsAKeyAlreadyAtItsHome() {
+        IntIntMap m = new IntIntMap(64, -1);
+        List<Integer> chain = sameHome(2);
+        int next = withHome((home(chain.get(0)) + 1) & MASK, chain);
+        // next sits at its own home between two keys of one chain; only chain[1] may move into the gap.
+        m.put(chain.get(0), 1);
+        m.put(next, 3);
+        m.put(chain.get(1), 2);
+        m.remove(chain.get(0));
+        assertEquals(3, m.get(next));
+        assertEquals(2, m.get(chain.get(1)));
+        m.remove(next);
+        assertEquals(2, m.get(chain.get(1)));
+        assertEquals(1, m.size());
+    }
+
+    @Test
+    void rehashKeepsEveryEntry() {
+        IntIntMap m = new IntIntMap(1, -1);
+        for (int k = 1; k <= 10_000; k++) m.put(k * 31, k);
+        assertEquals(10_000, m.size());
+        for (int k = 1; k <= 10_000; k++) assertEquals(k, m.get(k * 31));
+        assertEquals(-1, m.get(32));
+    }
+
+    @Test
+    void clearEmptiesTheMap() {
+        IntIntMap m = new IntIntMap(4, 0);
+        for (int k = 1; k <= 100; k++) m.put(k, k);
+        m.clear();
+        assertEquals(0, m.size());
+        assertEquals(0, m.get(50));
+        m.put(50, 5);
+        assertEquals(5, m.get(50));
+    }
+
+    @Test
+    void matchesHashMapUnderRandomOperations() {
+        Random r = new Random(42);
+        IntIntMap m = new IntIntMap(4, -1);
+        Map<Integer, Integer> expected = new HashMap<>();
+        for (int op = 0; op < 200_000; op++) {
+            // A small key range keeps chains long and makes removes hit often.
+            int k = r.nextInt(2_000) - 1_000;
+            if (k == 0) continue;
+            if (r.nextInt(3) == 0) {
+                Integer old = expected.remove(k);
+                assertEquals(old == null ? -1 : old, m.remove(k));
+            } else {
+                int v = r.nextInt(1_000_000);
+                expected.put(k, v);
+                m.put(k, v);
+            }
+        }
+        assertEquals(expected.size(), m.size());
+        for (int k = -1_000; k < 1_000; k++) assertEquals(expected.getOrDefault(k, -1).intValue(), m.get(k));
+    }
+
+    // Mirrors IntIntMap.mix, to find keys that share a home slot.
+    private static int home(int key) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & MASK;
+    }
+
+    private static List<Integer> sameHome(int n) {
+        List<Integer> keys = new ArrayList<>();
+        int target = home(1);
+        for (int k = 1; keys.size() < n; k++) {
+            if (home(k) == target) keys.add(k);
+        }
+        return keys;
+    }
+
+    private static int withHome(int slot, List<Integer> not) {
+        for (int k = 1; ; k++) {
+            if (home(k) == slot && !not.contains(k)) return k;
+        }
+    }
+}
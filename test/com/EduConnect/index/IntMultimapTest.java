@@ -0,0 +1,93 @@
+package com.EduConnect.index;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class IntMultimapTest {
+    @Test
+    void valuesGrowPastTheInitialArray() {
+        IntMultimap m = new IntMultimap(4);
+        for (int v = 1; v <= 100; v++) m.put(3, v);
+        assertEquals(100, m.count(3));
+        int[] got = m.get(3);
+        Arrays.sort(got);
+        for (int v = 1; v <= 100; v++) assertEquals(v, got[v - 1]);
+        assertEquals(0, m.count(4));
+        assertEquals(0, m.get(4).length);
+    }
+
+    @Test
+    void removeTakesOneValueOnly() {
+        IntMultimap m = new IntMultimap(4);
+        m.put(1, 10);
+        m.put(1, 20);
+        m.put(1, 10);
+        m.put(2, 10);
+        assertTrue(m.remove(1, 10));
+        assertEquals(2, m.count(1));
+        assertArrayEquals(new int[] { 10, 20 }, sorted(m.get(1)));
+        assertFalse(m.remove(1, 30));
+        assertFalse(m.remove(5, 10));
+        assertTrue(m.remove(1, 10));
+        assertTrue(m.remove(1, 20));
+        assertEquals(0, m.get(1).length);
+        assertArrayEquals(new int[] { 10 }, m.get(2));
+    }
+
+    @Test
+    void getReturnsACopy() {
+        IntMultimap m = new IntMultimap(4);
+        m.put(1, 10);
+        m.get(1)[0] = 99;
+        assertArrayEquals(new int[] { 10 }, m.get(1));
+    }
+
+    @Test
+    void manyKeysAndClear() {
+        IntMultimap m = new IntMultimap(1);
+        for (int k = 1; k <= 5_000; k++) { m.put(k, k); m.put(k, -k); }
+        for (int k = 1; k <= 5_000; k++) assertArrayEquals(new int[] { -k, k }, sorted(m.get(k)));
+        m.clear();
+        assertEquals(0, m.count(1));
+        m.put(1, 7);
+        assertArrayEquals(new int[] { 7 }, m.get(1));
+    }
+
+    @Test
+    void matchesListsUnderRandomOperations() {
+        Random r = new Random(42);
+        IntMultimap m = new IntMultimap(4);
+        Map<Integer, List<Integer>> expected = new HashMap<>();
+        for (int op = 0; op < 100_000; op++) {
+            int k = r.nextInt(300) + 1;
+            int v = r.nextInt(20);
+            List<Integer> list = expected.computeIfAbsent(k, x -> new ArrayList<>());
+            if (r.nextInt(3) == 0) {
+                assertEquals(list.remove((Integer) v), m.remove(k, v));
+            } else {
+                list.add(v);
+                m.put(k, v);
+            }
+        }
+        for (Map.Entry<Integer, List<Integer>> e : expected.entrySet()) {
+            int[] want = e.getValue().stream().mapToInt(Integer::intValue).sorted().toArray();
+            assertArrayEquals(want, sorted(m.get(e.getKey())));
+            assertEquals(want.length, m.count(e.getKey()));
+        }
+    }
+
+    private static int[] sorted(int[] values) {
+        Arrays.sort(values);
+        return values;
+    }
+}
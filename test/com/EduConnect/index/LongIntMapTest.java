@@ -0,0 +1,128 @@
+package com.EduConnect.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class LongIntMapTest {
+    // new LongIntMap(64, ...) starts with 128 slots.
+    private static final int MASK = 127;
+
+    @Test
+    void putGetAndOverwrite() {
+        LongIntMap m = new LongIntMap(64, -1);
+        long pair = 7L << 32 | 9;
+        m.put(pair, 1);
+        m.put(9L << 32 | 7, 2);
+        m.put(Long.MIN_VALUE, 3);
+        m.put(-1L, 4);
+        m.put(pair, 5);
+        assertEquals(4, m.size());
+        assertEquals(5, m.get(pair));
+        assertEquals(2, m.get(9L << 32 | 7));
+        assertEquals(3, m.get(Long.MIN_VALUE));
+        assertEquals(4, m.get(-1L));
+        assertEquals(-1, m.get(7L));
+    }
+
+    @Test
+    void keyZeroIsNeverFound() {
+        LongIntMap m = new LongIntMap(64, -1);
+        assertEquals(-1, m.get(0L));
+        m.put(5L, 50);
+        assertEquals(-1, m.get(0L));
+        assertEquals(-1, m.remove(0L));
+        assertThrows(IllegalArgumentException.class, () -> m.put(0L, 1));
+        assertEquals(1, m.size());
+    }
+
+    @Test
+    void removeMidChainKeepsTheRestReachable() {
+        LongIntMap m = new LongIntMap(64, -1);
+        List<Long> chain = sameHome(5);
+        for (int i = 0; i < chain.size(); i++) m.put(chain.get(i), i + 10);
+        assertEquals(11, m.remove(chain.get(1)));
+        assertEquals(-1, m.get(chain.get(1)));
+        assertEquals(-1, m.remove(chain.get(1)));
+        for (int i = 0; i < chain.size(); i++) {
+            if (i != 1) assertEquals(i + 10, m.get(chain.get(i)));
+        }
+        assertEquals(10, m.remove(chain.get(0)));
+        assertEquals(14, m.remove(chain.get(4)));
+        assertEquals(12, m.get(chain.get(2)));
+        assertEquals(13, m.get(chain.get(3)));
+        assertEquals(2, m.size());
+    }
+
+    @Test
+    void removeSkipsAKeyAlreadyAtItsHome() {
+        LongIntMap m = new LongIntMap(64, -1);
+        List<Long> chain = sameHome(2);
+        long next = withHome((home(chain.get(0)) + 1) & MASK, chain);
+        m.put(chain.get(0), 1);
+        m.put(next, 3);
+        m.put(chain.get(1), 2);
+        m.remove(chain.get(0));
+        assertEquals(3, m.get(next));
+        assertEquals(2, m.get(chain.get(1)));
+        m.remove(next);
+        assertEquals(2, m.get(chain.get(1)));
+    }
+
+    @Test
+    void rehashKeepsEveryEntry() {
+        LongIntMap m = new LongIntMap(1, -1);
+        for (int k = 1; k <= 10_000; k++) m.put((long) k << 32 | k, k);
+        assertEquals(10_000, m.size());
+        for (int k = 1; k <= 10_000; k++) assertEquals(k, m.get((long) k << 32 | k));
+    }
+
+    @Test
+    void matchesHashMapUnderRandomOperations() {
+        Random r = new Random(42);
+        LongIntMap m = new LongIntMap(4, -1);
+        Map<Long, Integer> expected = new HashMap<>();
+        for (int op = 0; op < 200_000; op++) {
+            // (student, course) pairs from small ranges, as EnrollmentSummary uses them.
+            long k = (long) r.nextInt(50) << 32 | r.nextInt(40);
+            if (k == 0) continue;
+            if (r.nextInt(3) == 0) {
+                Integer old = expected.remove(k);
+                assertEquals(old == null ? -1 : old, m.remove(k));
+            } else {
+                int v = r.nextInt(1_000_000);
+                expected.put(k, v);
+                m.put(k, v);
+            }
+        }
+        assertEquals(expected.size(), m.size());
+        for (Map.Entry<Long, Integer> e : expected.entrySet()) assertEquals(e.getValue().intValue(), m.get(e.getKey()));
+    }
+
+    // Mirrors LongIntMap.mix, to find keys that share a home slot.
+    private static int home(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & MASK;
+    }
+
+    private static List<Long> sameHome(int n) {
+        List<Long> keys = new ArrayList<>();
+        int target = home(1);
+        for (long k = 1; keys.size() < n; k++) {
+            if (home(k) == target) keys.add(k);
+        }
+        return keys;
+    }
+
+    private static long withHome(int slot, List<Long> not) {
+        for (long k = 1; ; k++) {
+            if (home(k) == slot && !not.contains(k)) return k;
+        }
+    }
+}